@@ -0,0 +1,65 @@
+package controller;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 异步碰撞监听器
+ * 在模拟帧线程中只把事件复制到预先分配的缓冲区，再交给独立线程调用被包装的监听器。
+ * 缓冲区用完（消费者跟不上）时丢弃该帧的事件并计数，不阻塞碰撞检测。
+ * 没有任何事件的帧不会提交。
+ */
+public class AsyncCollisionListener implements CollisionListener {
+    private static final int POOL_SIZE = 8;
+
+    private final CollisionListener delegate;
+    private final BlockingQueue<ContactBuffer> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final ExecutorService executor;
+    private final AtomicLong droppedBatches = new AtomicLong();
+
+    public AsyncCollisionListener(String threadName, CollisionListener delegate) {
+        this.delegate = delegate;
+        for (int i = 0; i < POOL_SIZE; i++) {
+            pool.add(new ContactBuffer());
+        }
+        executor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void onContacts(ContactBuffer contacts) {
+        if (contacts.size() == 0) {
+            return;
+        }
+        ContactBuffer copy = pool.poll();
+        if (copy == null) {
+            droppedBatches.incrementAndGet();
+            return;
+        }
+        copy.copyFrom(contacts);
+        executor.execute(() -> {
+            try {
+                delegate.onContacts(copy);
+            } catch (RuntimeException e) {
+                System.err.println("碰撞事件处理失败: " + e.getMessage());
+            } finally {
+                copy.reset(0);
+                pool.offer(copy);
+            }
+        });
+    }
+
+    public long getDroppedBatches() {
+        return droppedBatches.get();
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,7 +2,9 @@
 // [file content begin]
 package controller;
 
+import model.Ball;
 import model.GameObject;
+import model.Triangle;
 import java.awt.Shape;
 import java.awt.geom.Area;
 import java.awt.geom.Rectangle2D;
@@ -12,6 +14,8 @@ import java.awt.geom.Rectangle2D;
  * 第五次修改内容：新增碰撞检测器类
  */
 public class CollisionDetector {
+    private static final double TOI_TOLERANCE = 0.5;  // 保守推进停止的距离（像素）
+    private static final int TOI_MAX_ITERATIONS = 32;
 
     /**
      * 检测两个游戏对象是否碰撞
@@ -52,6 +56,418 @@ public class CollisionDetector {
         return null;
     }
 
+    /**
+     * 连续碰撞检测：在上一个运动步内（从 getPreviousX/Y 到当前位置，两个对象都按直线运动）
+     * 求两个对象第一次接触的时间，返回 [0,1] 内的比例，不会接触时返回 -1，步初已经接触时返回 0。
+     * 两个圆形、圆形与矩形、两个矩形都解析求解，含三角形时用凸多边形距离做保守推进；
+     * 得到的接触时间还要在该时刻的位置上用实际形状确认接触，否则视为错过。
+     */
+    public static double timeOfImpact(GameObject obj1, GameObject obj2) {
+        double t = sweep(obj1, obj2);
+        return t > 0 && !touchingAt(obj1, obj2, t) ? -1 : t;
+    }
+
+    private static double sweep(GameObject obj1, GameObject obj2) {
+        double ax = obj1.getPreviousX();
+        double ay = obj1.getPreviousY();
+        double bx = obj2.getPreviousX();
+        double by = obj2.getPreviousY();
+        // 以obj2为参照系的相对位移
+        double dx = (obj1.getX() - ax) - (obj2.getX() - bx);
+        double dy = (obj1.getY() - ay) - (obj2.getY() - by);
+        if (dx == 0 && dy == 0) {
+            return -1;
+        }
+        if (obj1 instanceof Ball && obj2 instanceof Ball) {
+            return circleTimeOfImpact(obj1, ax, ay, obj2, bx, by, dx, dy);
+        }
+        if (obj1 instanceof Ball && !(obj2 instanceof Triangle)) {
+            return circleBoxTimeOfImpact(obj1, ax, ay, dx, dy, obj2, bx, by);
+        }
+        if (obj2 instanceof Ball && !(obj1 instanceof Triangle)) {
+            return circleBoxTimeOfImpact(obj2, bx, by, -dx, -dy, obj1, ax, ay);
+        }
+        if (!(obj1 instanceof Triangle) && !(obj2 instanceof Triangle)) {
+            return boxTimeOfImpact(obj1, ax, ay, obj2, bx, by, dx, dy);
+        }
+        return conservativeAdvancement(obj1, obj2);
+    }
+
+    /**
+     * 两个对象在运动步内时刻 t 的位置上是否接触（允许保守推进的容差）
+     */
+    private static boolean touchingAt(GameObject obj1, GameObject obj2, double t) {
+        double x1 = obj1.getPreviousX() + (obj1.getX() - obj1.getPreviousX()) * t;
+        double y1 = obj1.getPreviousY() + (obj1.getY() - obj1.getPreviousY()) * t;
+        double x2 = obj2.getPreviousX() + (obj2.getX() - obj2.getPreviousX()) * t;
+        double y2 = obj2.getPreviousY() + (obj2.getY() - obj2.getPreviousY()) * t;
+        return distance(obj1, x1, y1, obj2, x2, y2) < TOI_TOLERANCE;
+    }
+
+    private static double circleTimeOfImpact(GameObject obj1, double ax, double ay,
+                                             GameObject obj2, double bx, double by, double dx, double dy) {
+        double r1 = obj1.getObjectWidth() / 2;
+        double r2 = obj2.getObjectWidth() / 2;
+        double px = (ax + r1) - (bx + r2);
+        double py = (ay + r1) - (by + r2);
+        double radius = r1 + r2;
+        double c = px * px + py * py - radius * radius;
+        if (c <= 0) {
+            return 0; // 开始时已经接触
+        }
+        double a = dx * dx + dy * dy;
+        double b = 2 * (px * dx + py * dy);
+        double discriminant = b * b - 4 * a * c;
+        if (b >= 0 || discriminant < 0) {
+            return -1; // 远离或错过
+        }
+        double t = (-b - Math.sqrt(discriminant)) / (2 * a);
+        return t <= 1 ? t : -1;
+    }
+
+    /**
+     * 圆形扫掠矩形：圆心相对矩形的运动轨迹与按半径扩展后的圆角矩形求交。
+     * 先与扩展了半径的矩形求进入时间，进入点落在角区时再与以该角为圆心的圆求交，
+     * 因此擦过矩形角但没有碰到的圆不会被当作接触。
+     */
+    private static double circleBoxTimeOfImpact(GameObject ball, double ballX, double ballY, double dx, double dy,
+                                                GameObject box, double boxX, double boxY) {
+        double r = ball.getObjectWidth() / 2;
+        double cx = ballX + r;
+        double cy = ballY + r;
+        double minX = boxX;
+        double minY = boxY;
+        double maxX = boxX + box.getObjectWidth();
+        double maxY = boxY + box.getObjectHeight();
+        double nearX = Math.max(minX, Math.min(maxX, cx));
+        double nearY = Math.max(minY, Math.min(maxY, cy));
+        if ((cx - nearX) * (cx - nearX) + (cy - nearY) * (cy - nearY) <= r * r) {
+            return 0; // 开始时已经接触
+        }
+        double enter = 0;
+        double exit = 1;
+        double[] axis = {cx, minX - r, maxX + r, dx, cy, minY - r, maxY + r, dy};
+        for (int i = 0; i < 8; i += 4) {
+            double p = axis[i];
+            double d = axis[i + 3];
+            if (d == 0) {
+                if (p < axis[i + 1] || p > axis[i + 2]) {
+                    return -1;
+                }
+                continue;
+            }
+            double t1 = (axis[i + 1] - p) / d;
+            double t2 = (axis[i + 2] - p) / d;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+            if (enter > exit) {
+                return -1;
+            }
+        }
+        double hitX = cx + dx * enter;
+        double hitY = cy + dy * enter;
+        boolean cornerX = hitX < minX || hitX > maxX;
+        boolean cornerY = hitY < minY || hitY > maxY;
+        if (!cornerX || !cornerY) {
+            return enter; // 进入点在边上
+        }
+        double px = cx - (hitX < minX ? minX : maxX);
+        double py = cy - (hitY < minY ? minY : maxY);
+        double a = dx * dx + dy * dy;
+        double b = 2 * (px * dx + py * dy);
+        double c = px * px + py * py - r * r;
+        double discriminant = b * b - 4 * a * c;
+        if (b >= 0 || discriminant < 0) {
+            return -1; // 擦过角
+        }
+        double t = (-b - Math.sqrt(discriminant)) / (2 * a);
+        return t <= 1 ? t : -1;
+    }
+
+    /**
+     * 扫掠包围盒（分离轴的进入/离开时间）
+     */
+    private static double boxTimeOfImpact(GameObject obj1, double ax, double ay,
+                                          GameObject obj2, double bx, double by, double dx, double dy) {
+        double enter = 0;
+        double exit = 1;
+        double[] axis = {ax, obj1.getObjectWidth(), bx, obj2.getObjectWidth(), dx,
+                         ay, obj1.getObjectHeight(), by, obj2.getObjectHeight(), dy};
+        for (int i = 0; i < 10; i += 5) {
+            double min1 = axis[i];
+            double max1 = min1 + axis[i + 1];
+            double min2 = axis[i + 2];
+            double max2 = min2 + axis[i + 3];
+            double d = axis[i + 4];
+            if (d == 0) {
+                if (max1 < min2 || max2 < min1) {
+                    return -1;
+                }
+                continue;
+            }
+            double t1 = (min2 - max1) / d;
+            double t2 = (max2 - min1) / d;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+            if (enter > exit) {
+                return -1;
+            }
+        }
+        return enter;
+    }
+
+    /**
+     * 保守推进：当前距离除以相对速度上界得到不会穿透的步长，逐步逼近第一次接触的时间
+     */
+    private static double conservativeAdvancement(GameObject obj1, GameObject obj2) {
+        double x1 = obj1.getPreviousX();
+        double y1 = obj1.getPreviousY();
+        double x2 = obj2.getPreviousX();
+        double y2 = obj2.getPreviousY();
+        double dx1 = obj1.getX() - x1;
+        double dy1 = obj1.getY() - y1;
+        double dx2 = obj2.getX() - x2;
+        double dy2 = obj2.getY() - y2;
+        double speed = Math.hypot(dx1 - dx2, dy1 - dy2);
+
+        double t = 0;
+        for (int i = 0; i < TOI_MAX_ITERATIONS && t <= 1; i++) {
+            double distance = distance(obj1, x1 + dx1 * t, y1 + dy1 * t, obj2, x2 + dx2 * t, y2 + dy2 * t);
+            if (distance < TOI_TOLERANCE) {
+                return t;
+            }
+            t += distance / speed;
+        }
+        return -1;
+    }
+
+    /**
+     * 两个对象在指定位置时的距离（相交时为0）；圆形按圆心到多边形的距离减半径计算
+     */
+    private static double distance(GameObject obj1, double x1, double y1, GameObject obj2, double x2, double y2) {
+        if (obj1 instanceof Ball && obj2 instanceof Ball) {
+            double r1 = obj1.getObjectWidth() / 2;
+            double r2 = obj2.getObjectWidth() / 2;
+            return Math.max(0, Math.hypot(x1 + r1 - x2 - r2, y1 + r1 - y2 - r2) - r1 - r2);
+        }
+        if (obj1 instanceof Ball || obj2 instanceof Ball) {
+            GameObject ball = obj1 instanceof Ball ? obj1 : obj2;
+            GameObject other = ball == obj1 ? obj2 : obj1;
+            double r = ball.getObjectWidth() / 2;
+            double cx = (ball == obj1 ? x1 : x2) + r;
+            double cy = (ball == obj1 ? y1 : y2) + r;
+            double[] polygon = polygon(other, ball == obj1 ? x2 : x1, ball == obj1 ? y2 : y1);
+            if (containsPoint(polygon, cx, cy)) {
+                return 0;
+            }
+            return Math.max(0, pointPolygonDistance(cx, cy, polygon) - r);
+        }
+        double[] p1 = polygon(obj1, x1, y1);
+        double[] p2 = polygon(obj2, x2, y2);
+        if (polygonsIntersect(p1, p2)) {
+            return 0;
+        }
+        double min = Double.MAX_VALUE;
+        for (int i = 0; i < p1.length; i += 2) {
+            min = Math.min(min, pointPolygonDistance(p1[i], p1[i + 1], p2));
+        }
+        for (int i = 0; i < p2.length; i += 2) {
+            min = Math.min(min, pointPolygonDistance(p2[i], p2[i + 1], p1));
+        }
+        return min;
+    }
+
+    /**
+     * 接触法线（从obj1指向obj2的单位向量）和穿透深度，写入 out[0]、out[1]、out[2]，两者分离时深度为负。
+     * 两个圆形按圆心连线计算；圆形与多边形按圆心到多边形的最近特征（边或顶点）计算；
+     * 两个多边形按分离轴测试中重叠最小的边法线计算。
+     */
+    public static void contact(GameObject obj1, double x1, double y1, GameObject obj2, double x2, double y2,
+                               double[] out) {
+        if (obj1 instanceof Ball && obj2 instanceof Ball) {
+            double r1 = obj1.getObjectWidth() / 2;
+            double r2 = obj2.getObjectWidth() / 2;
+            double dx = (x2 + r2) - (x1 + r1);
+            double dy = (y2 + r2) - (y1 + r1);
+            double distance = Math.sqrt(dx * dx + dy * dy);
+            out[0] = distance == 0 ? 1 : dx / distance;
+            out[1] = distance == 0 ? 0 : dy / distance;
+            out[2] = r1 + r2 - distance;
+            return;
+        }
+        if (obj1 instanceof Ball || obj2 instanceof Ball) {
+            boolean ballFirst = obj1 instanceof Ball;
+            GameObject ball = ballFirst ? obj1 : obj2;
+            double r = ball.getObjectWidth() / 2;
+            double cx = (ballFirst ? x1 : x2) + r;
+            double cy = (ballFirst ? y1 : y2) + r;
+            double[] polygon = ballFirst ? polygon(obj2, x2, y2) : polygon(obj1, x1, y1);
+            circlePolygonContact(cx, cy, r, polygon, out);
+            if (ballFirst) {
+                out[0] = -out[0];
+                out[1] = -out[1];
+            }
+            return;
+        }
+        double[] p1 = polygon(obj1, x1, y1);
+        double[] p2 = polygon(obj2, x2, y2);
+        out[2] = Double.MAX_VALUE;
+        minimumOverlapAxis(p1, p2, out);
+        minimumOverlapAxis(p2, p1, out);
+        double cx = (x2 + obj2.getObjectWidth() / 2) - (x1 + obj1.getObjectWidth() / 2);
+        double cy = (y2 + obj2.getObjectHeight() / 2) - (y1 + obj1.getObjectHeight() / 2);
+        if (out[0] * cx + out[1] * cy < 0) {
+            out[0] = -out[0];
+            out[1] = -out[1];
+        }
+    }
+
+    /**
+     * 圆与凸多边形：法线从多边形指向圆心；圆心在多边形内时取最近边的外法线
+     */
+    private static void circlePolygonContact(double cx, double cy, double r, double[] polygon, double[] out) {
+        int n = polygon.length;
+        double min = Double.MAX_VALUE;
+        double closestX = 0;
+        double closestY = 0;
+        int edge = 0;
+        for (int i = 0; i < n; i += 2) {
+            double ax = polygon[i];
+            double ay = polygon[i + 1];
+            double ex = polygon[(i + 2) % n] - ax;
+            double ey = polygon[(i + 3) % n] - ay;
+            double t = Math.max(0, Math.min(1, ((cx - ax) * ex + (cy - ay) * ey) / (ex * ex + ey * ey)));
+            double qx = ax + t * ex;
+            double qy = ay + t * ey;
+            double d = Math.hypot(cx - qx, cy - qy);
+            if (d < min) {
+                min = d;
+                closestX = qx;
+                closestY = qy;
+                edge = i;
+            }
+        }
+        if (containsPoint(polygon, cx, cy) || min == 0) {
+            double ex = polygon[(edge + 2) % n] - polygon[edge];
+            double ey = polygon[(edge + 3) % n] - polygon[edge + 1];
+            double length = Math.hypot(ex, ey);
+            out[0] = ey / length;
+            out[1] = -ex / length;
+            out[2] = r + min;
+        } else {
+            out[0] = (cx - closestX) / min;
+            out[1] = (cy - closestY) / min;
+            out[2] = r - min;
+        }
+    }
+
+    /**
+     * 以 edges 的各边法线为轴，更新重叠最小的轴（out[0..1]）和重叠量（out[2]）
+     */
+    private static void minimumOverlapAxis(double[] edges, double[] other, double[] out) {
+        int n = edges.length;
+        for (int i = 0; i < n; i += 2) {
+            double nx = edges[(i + 3) % n] - edges[i + 1];
+            double ny = edges[i] - edges[(i + 2) % n];
+            double length = Math.hypot(nx, ny);
+            nx /= length;
+            ny /= length;
+            double min1 = Double.MAX_VALUE;
+            double max1 = -Double.MAX_VALUE;
+            for (int k = 0; k < n; k += 2) {
+                double d = edges[k] * nx + edges[k + 1] * ny;
+                min1 = Math.min(min1, d);
+                max1 = Math.max(max1, d);
+            }
+            double min2 = Double.MAX_VALUE;
+            double max2 = -Double.MAX_VALUE;
+            for (int k = 0; k < other.length; k += 2) {
+                double d = other[k] * nx + other[k + 1] * ny;
+                min2 = Math.min(min2, d);
+                max2 = Math.max(max2, d);
+            }
+            double overlap = Math.min(max1, max2) - Math.max(min1, min2);
+            if (overlap < out[2]) {
+                out[0] = nx;
+                out[1] = ny;
+                out[2] = overlap;
+            }
+        }
+    }
+
+    /**
+     * 对象在指定位置时的顶点（x0,y0,x1,y1,...，按顺时针排列）
+     */
+    private static double[] polygon(GameObject obj, double x, double y) {
+        double w = obj.getObjectWidth();
+        double h = obj.getObjectHeight();
+        if (obj instanceof Triangle) {
+            return new double[]{x + w / 2, y, x + w, y + h, x, y + h};
+        }
+        return new double[]{x, y, x + w, y, x + w, y + h, x, y + h};
+    }
+
+    private static double pointPolygonDistance(double px, double py, double[] polygon) {
+        double min = Double.MAX_VALUE;
+        int n = polygon.length;
+        for (int i = 0; i < n; i += 2) {
+            double ax = polygon[i];
+            double ay = polygon[i + 1];
+            double bx = polygon[(i + 2) % n];
+            double by = polygon[(i + 3) % n];
+            double ex = bx - ax;
+            double ey = by - ay;
+            double t = Math.max(0, Math.min(1, ((px - ax) * ex + (py - ay) * ey) / (ex * ex + ey * ey)));
+            min = Math.min(min, Math.hypot(px - ax - t * ex, py - ay - t * ey));
+        }
+        return min;
+    }
+
+    private static boolean containsPoint(double[] polygon, double px, double py) {
+        int n = polygon.length;
+        for (int i = 0; i < n; i += 2) {
+            double ex = polygon[(i + 2) % n] - polygon[i];
+            double ey = polygon[(i + 3) % n] - polygon[i + 1];
+            if (ex * (py - polygon[i + 1]) - ey * (px - polygon[i]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 分离轴测试：两个凸多边形是否相交
+     */
+    private static boolean polygonsIntersect(double[] p1, double[] p2) {
+        return !hasSeparatingAxis(p1, p2) && !hasSeparatingAxis(p2, p1);
+    }
+
+    private static boolean hasSeparatingAxis(double[] edges, double[] other) {
+        int n = edges.length;
+        for (int i = 0; i < n; i += 2) {
+            double nx = edges[(i + 3) % n] - edges[i + 1];
+            double ny = edges[i] - edges[(i + 2) % n];
+            double min1 = Double.MAX_VALUE;
+            double max1 = -Double.MAX_VALUE;
+            for (int k = 0; k < n; k += 2) {
+                double d = edges[k] * nx + edges[k + 1] * ny;
+                min1 = Math.min(min1, d);
+                max1 = Math.max(max1, d);
+            }
+            double min2 = Double.MAX_VALUE;
+            double max2 = -Double.MAX_VALUE;
+            for (int k = 0; k < other.length; k += 2) {
+                double d = other[k] * nx + other[k + 1] * ny;
+                min2 = Math.min(min2, d);
+                max2 = Math.max(max2, d);
+            }
+            if (max1 < min2 || max2 < min1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 计算两个对象之间的最小分离距离
      */
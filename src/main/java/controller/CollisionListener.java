@@ -0,0 +1,11 @@
+package controller;
+
+/**
+ * 碰撞事件监听器
+ * 每个模拟帧在碰撞检测结束后调用一次，参数为本帧所有接触开始、持续和结束事件。
+ * 回调在模拟帧线程中执行，缓冲区只在回调期间有效；耗时的处理应使用 AsyncCollisionListener 移到其他线程。
+ */
+@FunctionalInterface
+public interface CollisionListener {
+    void onContacts(ContactBuffer contacts);
+}
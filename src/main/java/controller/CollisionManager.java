@@ -1,11 +1,17 @@
 package controller;
 
+import model.CollisionLayers;
 import model.GameObject;
-import monitor.EnhancedFileLogger;
+import monitor.FrameProfiler;
+import monitor.JfrEvents;
+import monitor.FrameProfiler.Phase;
 
+import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongConsumer;
 
 /**
  * 碰撞管理器
@@ -13,7 +19,47 @@ import java.util.Set;
  */
 public class CollisionManager {
     private static CollisionManager instance;
-    private Set<String> collisionPairs = new HashSet<>();
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+
+    /* 每帧复用的包围盒和候选对缓冲（只在模拟帧线程中使用） */
+    private double[] minX = new double[64];
+    private double[] minY = new double[64];
+    private double[] maxX = new double[64];
+    private double[] maxY = new double[64];
+    private long[] pairs = new long[256];
+    private int[] awake = new int[64];
+    private int[] layers = new int[64];
+    private int[] masks = new int[64];
+
+    /* 连续碰撞检测：本步位移超过自身尺寸一定比例的快速对象使用扫掠包围盒和接触时间 */
+    private static final double FAST_FRACTION = 0.25;
+    private int[] fast = new int[64];
+    private boolean[] isFast = new boolean[64];
+    private double[] impactTime = new double[64];
+    private int fastCount;
+    private long ccdHits;
+
+    /* 按层对统计被掩码过滤掉的对数（累计） */
+    private final long[] filteredPairs = new long[CollisionLayers.LAYER_COUNT * CollisionLayers.LAYER_COUNT];
+
+    /* 静止物体（暂停或休眠）单独放在包围盒树中，只被运动的对象查询 */
+    private final DynamicAabbTree staticTree = new DynamicAabbTree();
+    private final List<GameObject> staticHits = new ArrayList<>();
+    private static final double SLEEP_SPEED = 0.05;  // 低于此速度（每步位移）视为静止
+    private static final int SLEEP_TICKS = 25;       // 连续静止的帧数（约0.5秒）后进入休眠
+
+    /* 跨帧的接触缓存，区分接触的开始、持续和结束 */
+    private final ContactManager contactManager = new ContactManager();
+
+    /* 按岛并行的冲量求解器 */
+    private final ImpulseSolver solver = new ImpulseSolver();
+
+    /* 每帧的接触事件批量交给监听器（显示效果、日志、指标、录制） */
+    private final ContactBuffer contacts = new ContactBuffer();
+    private final List<CollisionListener> listeners = new CopyOnWriteArrayList<>();
+    private final LongConsumer exitCollector = key -> contacts.add(ContactBuffer.EXIT,
+            ContactManager.firstId(key), ContactManager.secondId(key), null, null);
+    private long tick;
 
     private CollisionManager() {}
 
@@ -26,110 +72,313 @@ public class CollisionManager {
 
     /**
      * 检测所有对象之间的碰撞
+     * 分三步：包围盒粗检测筛选候选对，Area精确检测确认碰撞，最后由冲量求解器统一做碰撞响应；
+     * 本帧的所有接触事件在检测结束后一次性交给监听器。
+     * 暂停和休眠的对象不计算包围盒、不互相检测，只在静止树中被运动的对象查询；
+     * 被运动的对象碰到的休眠对象会被唤醒（静止对象之间的接触不报告）。
+     * 层和掩码不匹配的对象对在计算包围盒相交之前就被过滤。
+     * 快速对象的包围盒覆盖整个运动步；形状在步末不相交但运动途中会接触的对，
+     * 把两个对象退回到第一次接触的位置后交给求解器，避免大步长时互相穿过
      */
     public void detectCollisions(ArrayList<GameObject> objects) {
-        collisionPairs.clear();
+        int n = objects.size();
+        contacts.reset(++tick);
+        JfrEvents.CollisionBatch event = new JfrEvents.CollisionBatch();
+        event.begin();
 
-        for (int i = 0; i < objects.size(); i++) {
-            for (int j = i + 1; j < objects.size(); j++) {
-                GameObject obj1 = objects.get(i);
-                GameObject obj2 = objects.get(j);
-
-                // 检查是否已经检测过这对碰撞
-                String pairKey1 = i + "-" + j;
-                String pairKey2 = j + "-" + i;
+        // 粗检测：运动的对象计算包围盒，静止的对象进入静止树
+        long start = System.nanoTime();
+        ensureCapacity(n);
+        int awakeCount = 0;
+        fastCount = 0;
+        for (int i = 0; i < n; i++) {
+            GameObject obj = objects.get(i);
+            boolean inStaticTree = staticTree.contains(obj);
+            if (!obj.isStatic() && (obj.isKinematic() || !obj.updateSleep(SLEEP_SPEED, SLEEP_TICKS))) {
+                if (inStaticTree) {
+                    staticTree.remove(obj); // 取消暂停
+                }
+                computeBounds(obj, i);
+                sweepIfFast(obj, i);
+                awake[awakeCount++] = i;
+            } else if (!inStaticTree) {
+                staticTree.insert(obj);
+            }
+        }
+        int candidates = 0;
+        long filtered = 0;
+        long pairChecks = (long) awakeCount * (awakeCount - 1) / 2;
+        for (int a = 0; a < awakeCount; a++) {
+            int i = awake[a];
+            int layerI = layers[i];
+            int maskI = masks[i];
+            for (int b = a + 1; b < awakeCount; b++) {
+                int j = awake[b];
+                if ((layerI & masks[j]) == 0 || (layers[j] & maskI) == 0) {
+                    countFiltered(layerI, layers[j]);
+                    filtered++;
+                } else if (overlaps(i, j)) {
+                    candidates = addPair(candidates, i, j);
+                }
+            }
+            if (staticTree.size() > 0) {
+                staticHits.clear();
+                staticTree.query(minX[i], minY[i], maxX[i], maxY[i], staticHits);
+                pairChecks += staticHits.size();
+                for (GameObject hit : staticHits) {
+                    int j = indexOf(objects, hit);
+                    if (j < 0) {
+                        staticTree.remove(hit); // 已从列表中移除
+                        continue;
+                    }
+                    if (!CollisionLayers.canCollide(layerI, maskI, hit.getCollisionLayer(), hit.getCollisionMask())) {
+                        countFiltered(layerI, hit.getCollisionLayer());
+                        filtered++;
+                        continue;
+                    }
+                    computeBounds(hit, j);
+                    if (overlaps(i, j)) {
+                        candidates = addPair(candidates, Math.min(i, j), Math.max(i, j));
+                    }
+                }
+            }
+        }
+        profiler.record(Phase.BROADPHASE, start);
+        profiler.recordPairs(pairChecks, candidates);
+        profiler.recordFilteredPairs(filtered);
 
-                if (collisionPairs.contains(pairKey1) || collisionPairs.contains(pairKey2)) {
+        // 精检测：只对包围盒相交的对象做形状求交，碰撞的对保留在数组前部
+        start = System.nanoTime();
+        int colliding = 0;
+        for (int k = 0; k < candidates; k++) {
+            long pair = pairs[k];
+            int i = (int) (pair >>> 32);
+            int j = (int) pair;
+            if (isFast[i] || isFast[j]) {
+                // 快速对象即使步末已经重叠，也要退回到第一次接触的位置，否则法线可能来自很深的穿透；
+                // 步初已经接触（t=0）的对按普通方式检测，不退回，否则推着或贴着其他对象运动的快速对象会停住
+                double t = CollisionDetector.timeOfImpact(objects.get(i), objects.get(j));
+                if (t > 0) {
+                    if (isFast[i]) {
+                        impactTime[i] = Math.min(impactTime[i], t);
+                    }
+                    if (isFast[j]) {
+                        impactTime[j] = Math.min(impactTime[j], t);
+                    }
+                    pairs[colliding++] = pair;
+                    ccdHits++;
                     continue;
                 }
+            }
+            if (CollisionDetector.checkCollision(objects.get(i), objects.get(j))) {
+                pairs[colliding++] = pair;
+            }
+        }
+        rewindFastObjects(objects);
+        profiler.record(Phase.NARROWPHASE, start);
 
-                // 检测碰撞
-                if (CollisionDetector.checkCollision(obj1, obj2)) {
-                    // 标记这对对象为已碰撞
-                    collisionPairs.add(pairKey1);
+        // 唤醒被碰到的休眠对象
+        for (int k = 0; k < colliding; k++) {
+            wake(objects.get((int) (pairs[k] >>> 32)));
+            wake(objects.get((int) pairs[k]));
+        }
 
-                    // 触发碰撞响应
-                    handleCollision(obj1, obj2);
-                }
+        // 碰撞响应：所有接触一起求解，同时按接触的开始、持续生成事件
+        start = System.nanoTime();
+        solver.solve(objects, pairs, colliding, minX, minY, maxX, maxY);
+        for (int k = 0; k < colliding; k++) {
+            long pair = pairs[k];
+            GameObject obj1 = objects.get((int) (pair >>> 32));
+            GameObject obj2 = objects.get((int) pair);
+            if (contactManager.touch(ContactManager.key(obj1.getId(), obj2.getId())) == ContactManager.ENTER) {
+                contacts.add(ContactBuffer.ENTER, obj1.getId(), obj2.getId(), obj1, obj2);
+            } else {
+                contacts.add(ContactBuffer.STAY, obj1.getId(), obj2.getId(), obj1, obj2);
             }
         }
+        contactManager.endTick(exitCollector);
+        profiler.record(Phase.RESOLVE, start);
+
+        for (CollisionListener listener : listeners) {
+            listener.onContacts(contacts);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.objectCount = n;
+            event.pairChecks = pairChecks;
+            event.candidatePairs = candidates;
+            event.filteredPairs = filtered;
+            event.hits = colliding;
+            event.commit();
+        }
+    }
+
+    private void ensureCapacity(int n) {
+        if (n > minX.length) {
+            int capacity = Math.max(n, minX.length * 2);
+            minX = new double[capacity];
+            minY = new double[capacity];
+            maxX = new double[capacity];
+            maxY = new double[capacity];
+            awake = new int[capacity];
+            layers = new int[capacity];
+            masks = new int[capacity];
+            fast = new int[capacity];
+            isFast = new boolean[capacity];
+            impactTime = new double[capacity];
+        }
     }
 
     /**
-     * 处理碰撞响应
+     * 快速对象的包围盒扩展为覆盖上一步起点和终点的扫掠包围盒
      */
-    private void handleCollision(GameObject obj1, GameObject obj2) {
-        // 标记对象为碰撞状态（用于反色显示）
-        obj1.setColliding(true);
-        obj2.setColliding(true);
-
-        // 处理物理碰撞（位移和反弹）
-        processPhysicsCollision(obj1, obj2);
-
-        EnhancedFileLogger.getInstance().logCollision(
-                obj1.getClass().getSimpleName(),
-                obj2.getClass().getSimpleName()
-        );
+    private void sweepIfFast(GameObject obj, int i) {
+        double moveX = obj.getX() - obj.getPreviousX();
+        double moveY = obj.getY() - obj.getPreviousY();
+        double limit = Math.min(obj.getObjectWidth(), obj.getObjectHeight()) * FAST_FRACTION;
+        if (moveX * moveX + moveY * moveY <= limit * limit) {
+            return;
+        }
+        minX[i] = Math.min(minX[i], minX[i] - moveX);
+        minY[i] = Math.min(minY[i], minY[i] - moveY);
+        maxX[i] = Math.max(maxX[i], maxX[i] - moveX);
+        maxY[i] = Math.max(maxY[i], maxY[i] - moveY);
+        isFast[i] = true;
+        impactTime[i] = 1;
+        fast[fastCount++] = i;
     }
 
     /**
-     * 处理物理碰撞
+     * 把有接触时间的快速对象退回到接触位置，并恢复所有快速对象的实际包围盒（供求解器使用）
      */
-    private void processPhysicsCollision(GameObject obj1, GameObject obj2) {
-        // 计算反弹方向并移动对象
-        resolveCollision(obj1, obj2);
+    private void rewindFastObjects(ArrayList<GameObject> objects) {
+        for (int k = 0; k < fastCount; k++) {
+            int i = fast[k];
+            GameObject obj = objects.get(i);
+            double t = impactTime[i];
+            if (t < 1 && !obj.isKinematic()) {
+                // 运动学对象的位置由轨迹决定，不退回
+                double fromX = obj.getPreviousX();
+                double fromY = obj.getPreviousY();
+                obj.setPosition(fromX + (obj.getX() - fromX) * t, fromY + (obj.getY() - fromY) * t);
+            }
+            computeBounds(obj, i);
+            isFast[i] = false;
+            impactTime[i] = 1;
+        }
+        fastCount = 0;
     }
 
     /**
-     * 解决碰撞（分离两个对象）
+     * 通过连续碰撞检测发现的接触数（累计）
      */
-    private void resolveCollision(GameObject obj1, GameObject obj2) {
+    public long getCcdHits() {
+        return ccdHits;
+    }
 
-        // 获取重叠区域
-        java.awt.geom.Rectangle2D overlap = CollisionDetector.getOverlapBounds(obj1, obj2);
-        if (overlap == null) {
-            return;
+    private void computeBounds(GameObject obj, int i) {
+        Rectangle2D bounds = obj.getShape().getBounds2D();
+        minX[i] = bounds.getMinX();
+        minY[i] = bounds.getMinY();
+        maxX[i] = bounds.getMaxX();
+        maxY[i] = bounds.getMaxY();
+        layers[i] = obj.getCollisionLayer();
+        masks[i] = obj.getCollisionMask();
+    }
+
+    private void countFiltered(int layer1, int layer2) {
+        int a = CollisionLayers.index(layer1);
+        int b = CollisionLayers.index(layer2);
+        filteredPairs[Math.min(a, b) * CollisionLayers.LAYER_COUNT + Math.max(a, b)]++;
+    }
+
+    /**
+     * 被过滤的对数（累计），按层对列出，只包含非零项
+     */
+    public String[] describeFilteredPairs() {
+        List<String> lines = new ArrayList<>();
+        for (int a = 0; a < CollisionLayers.LAYER_COUNT; a++) {
+            for (int b = a; b < CollisionLayers.LAYER_COUNT; b++) {
+                long count = filteredPairs[a * CollisionLayers.LAYER_COUNT + b];
+                if (count > 0) {
+                    lines.add(String.format("过滤 %s↔%s: %d", CollisionLayers.nameOf(a), CollisionLayers.nameOf(b), count));
+                }
+            }
         }
+        return lines.toArray(new String[0]);
+    }
 
-        // 计算两个对象的中心点
-        java.awt.geom.Rectangle2D bounds1 = obj1.getShape().getBounds2D();
-        java.awt.geom.Rectangle2D bounds2 = obj2.getShape().getBounds2D();
+    public long getFilteredPairCount(int layerIndex1, int layerIndex2) {
+        int a = Math.min(layerIndex1, layerIndex2);
+        int b = Math.max(layerIndex1, layerIndex2);
+        return filteredPairs[a * CollisionLayers.LAYER_COUNT + b];
+    }
 
-        double centerX1 = bounds1.getCenterX();
-        double centerY1 = bounds1.getCenterY();
-        double centerX2 = bounds2.getCenterX();
-        double centerY2 = bounds2.getCenterY();
+    private boolean overlaps(int i, int j) {
+        return minX[i] <= maxX[j] && minX[j] <= maxX[i] && minY[i] <= maxY[j] && minY[j] <= maxY[i];
+    }
 
-        // 计算碰撞法线方向
-        double dx = centerX2 - centerX1;
-        double dy = centerY2 - centerY1;
-        double distance = Math.sqrt(dx * dx + dy * dy);
+    private int addPair(int candidates, int i, int j) {
+        if (candidates == pairs.length) {
+            pairs = Arrays.copyOf(pairs, candidates * 2);
+        }
+        pairs[candidates] = ((long) i << 32) | j;
+        return candidates + 1;
+    }
 
-        if (distance == 0) {
-            // 避免除以零
-            dx = 1;
-            dy = 0;
-            distance = 1;
+    /**
+     * 对象在列表中的下标：列表按编号递增排列，先二分查找，找不到再线性查找
+     */
+    private static int indexOf(List<GameObject> objects, GameObject obj) {
+        int low = 0;
+        int high = objects.size() - 1;
+        int id = obj.getId();
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            GameObject candidate = objects.get(mid);
+            if (candidate == obj) {
+                return mid;
+            }
+            if (candidate.getId() < id) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
         }
+        return objects.indexOf(obj);
+    }
 
-        double nx = dx / distance;  // 法线x分量
-        double ny = dy / distance;  // 法线y分量
+    private void wake(GameObject obj) {
+        if (obj.isSleeping()) {
+            obj.wakeUp();
+            staticTree.remove(obj);
+        }
+    }
 
-        // 计算需要分离的距离（使用重叠区域的对角线长度作为参考）
-        double separation = Math.sqrt(overlap.getWidth() * overlap.getWidth() +
-                overlap.getHeight() * overlap.getHeight()) * 0.5;
+    /**
+     * 对象被删除时从静止树中移除
+     */
+    public void removeObject(GameObject obj) {
+        staticTree.remove(obj);
+    }
 
-        // 将两个对象沿法线方向分开
-        obj1.setPosition(obj1.getX() - nx * separation * 0.5,
-                obj1.getY() - ny * separation * 0.5);
-        obj2.setPosition(obj2.getX() + nx * separation * 0.5,
-                obj2.getY() + ny * separation * 0.5);
+    /**
+     * 静止物体（暂停或休眠）的数量
+     */
+    public int getStaticBodyCount() {
+        return staticTree.size();
+    }
 
-        // 反转速度方向（弹性碰撞）
-        obj1.setDx(-obj1.getDx());
-        obj1.setDy(-obj1.getDy());
-        obj2.setDx(-obj2.getDx());
-        obj2.setDy(-obj2.getDy());
+    /**
+     * 注册碰撞监听器（每帧调用一次，在模拟帧线程中执行）
+     */
+    public void addCollisionListener(CollisionListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeCollisionListener(CollisionListener listener) {
+        listeners.remove(listener);
     }
 
     /**
@@ -139,7 +388,16 @@ public class CollisionManager {
         for (GameObject obj : objects) {
             obj.setColliding(false);
         }
-        collisionPairs.clear();
+        contactManager.clear();
+        staticTree.clear();
+    }
+
+    public ContactManager getContactManager() {
+        return contactManager;
+    }
+
+    public ImpulseSolver getSolver() {
+        return solver;
     }
 }
 // [file content end]
\ No newline at end of file
@@ -0,0 +1,110 @@
+package controller;
+
+import model.GameObject;
+
+import java.util.Arrays;
+
+/**
+ * 一帧的接触事件缓冲区
+ * 使用可复用的并行数组保存事件类型和两个对象编号，每帧清空后重新填充，不为单个事件分配对象。
+ * 结束事件中的对象引用可能为 null（对象已被删除）。
+ */
+public class ContactBuffer {
+    public static final byte ENTER = 0;
+    public static final byte STAY = 1;
+    public static final byte EXIT = 2;
+
+    private byte[] types = new byte[64];
+    private int[] ids1 = new int[64];
+    private int[] ids2 = new int[64];
+    private GameObject[] objects1 = new GameObject[64];
+    private GameObject[] objects2 = new GameObject[64];
+    private int size;
+    private int enterCount;
+    private int exitCount;
+    private long tick;
+
+    void add(byte type, int id1, int id2, GameObject obj1, GameObject obj2) {
+        if (size == types.length) {
+            int capacity = size * 2;
+            types = Arrays.copyOf(types, capacity);
+            ids1 = Arrays.copyOf(ids1, capacity);
+            ids2 = Arrays.copyOf(ids2, capacity);
+            objects1 = Arrays.copyOf(objects1, capacity);
+            objects2 = Arrays.copyOf(objects2, capacity);
+        }
+        types[size] = type;
+        ids1[size] = id1;
+        ids2[size] = id2;
+        objects1[size] = obj1;
+        objects2[size] = obj2;
+        size++;
+        if (type == ENTER) {
+            enterCount++;
+        } else if (type == EXIT) {
+            exitCount++;
+        }
+    }
+
+    void reset(long tick) {
+        Arrays.fill(objects1, 0, size, null);
+        Arrays.fill(objects2, 0, size, null);
+        size = 0;
+        enterCount = 0;
+        exitCount = 0;
+        this.tick = tick;
+    }
+
+    /**
+     * 复制另一个缓冲区的内容（供异步监听器在其他线程中使用）
+     */
+    public void copyFrom(ContactBuffer other) {
+        reset(other.tick);
+        for (int i = 0; i < other.size; i++) {
+            add(other.types[i], other.ids1[i], other.ids2[i], other.objects1[i], other.objects2[i]);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public byte getType(int index) {
+        return types[index];
+    }
+
+    public int getId1(int index) {
+        return ids1[index];
+    }
+
+    public int getId2(int index) {
+        return ids2[index];
+    }
+
+    public GameObject getObject1(int index) {
+        return objects1[index];
+    }
+
+    public GameObject getObject2(int index) {
+        return objects2[index];
+    }
+
+    public int getEnterCount() {
+        return enterCount;
+    }
+
+    public int getExitCount() {
+        return exitCount;
+    }
+
+    public int getStayCount() {
+        return size - enterCount - exitCount;
+    }
+
+    /**
+     * 模拟帧序号
+     */
+    public long getTick() {
+        return tick;
+    }
+}
@@ -0,0 +1,107 @@
+package controller;
+
+import java.util.function.LongConsumer;
+
+/**
+ * 接触管理器
+ * 跨帧记住哪些对象对正在接触，把每帧的碰撞结果分为开始（enter）、持续（stay）和结束（exit）。
+ * 接触以两个对象编号打包成的 long 为键（小编号在高位），与对象在列表中的位置无关，
+ * 删除对象不会让其他接触错位；被删除对象的接触在下一帧作为结束事件报告。
+ * 只在模拟帧线程中使用。
+ */
+public class ContactManager {
+    public static final int ENTER = 0;
+    public static final int STAY = 1;
+
+    private LongHashSet previous = new LongHashSet();
+    private LongHashSet current = new LongHashSet();
+
+    private long enterCount;
+    private long stayCount;
+    private long exitCount;
+
+    /**
+     * 两个对象编号打包为接触键（与参数顺序无关）
+     */
+    public static long key(int id1, int id2) {
+        int low = Math.min(id1, id2);
+        int high = Math.max(id1, id2);
+        return ((long) low << 32) | (high & 0xFFFFFFFFL);
+    }
+
+    public static int firstId(long key) {
+        return (int) (key >>> 32);
+    }
+
+    public static int secondId(long key) {
+        return (int) key;
+    }
+
+    /**
+     * 记录本帧检测到的接触，返回 ENTER（上一帧没有接触）或 STAY
+     */
+    public int touch(long key) {
+        if (!current.add(key)) {
+            return STAY; // 同一帧内重复报告
+        }
+        if (previous.contains(key)) {
+            stayCount++;
+            return STAY;
+        }
+        enterCount++;
+        return ENTER;
+    }
+
+    /**
+     * 结束本帧：上一帧存在而本帧没有的接触作为结束事件交给 onExit，返回结束数量
+     */
+    public int endTick(LongConsumer onExit) {
+        int[] exits = {0};
+        if (!previous.isEmpty()) {
+            LongHashSet stillTouching = current;
+            previous.forEach(key -> {
+                if (!stillTouching.contains(key)) {
+                    exits[0]++;
+                    if (onExit != null) {
+                        onExit.accept(key);
+                    }
+                }
+            });
+        }
+        exitCount += exits[0];
+
+        LongHashSet swap = previous;
+        previous = current;
+        current = swap;
+        current.clear();
+        return exits[0];
+    }
+
+    /**
+     * 当前接触数（上一次 endTick 之后）
+     */
+    public int getActiveContacts() {
+        return previous.size();
+    }
+
+    public boolean isTouching(int id1, int id2) {
+        return previous.contains(key(id1, id2));
+    }
+
+    public void clear() {
+        previous.clear();
+        current.clear();
+    }
+
+    public long getEnterCount() {
+        return enterCount;
+    }
+
+    public long getStayCount() {
+        return stayCount;
+    }
+
+    public long getExitCount() {
+        return exitCount;
+    }
+}
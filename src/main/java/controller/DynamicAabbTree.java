@@ -0,0 +1,419 @@
+package controller;
+
+import model.GameObject;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 动态包围盒树
+ * 每个对象对应一个叶节点，叶节点保存放大（fat）后的包围盒：对象在放大范围内移动时不需要更新树，
+ * 移出范围才删除并重新插入（插入按周长代价选择兄弟节点，并用旋转保持平衡）。
+ * 点查询和矩形查询只访问包围盒相交的分支，复杂度约为 O(log n)。
+ * 对象编号单调递增，与对象在列表中的先后一致，因此用编号作为绘制层次：编号越大越靠上。
+ * 本类非线程安全，只在模拟帧线程（EDT）中使用。
+ */
+public class DynamicAabbTree {
+    private static final int NULL = -1;
+    private static final double MARGIN = 8;            // 包围盒四周的放大量
+    private static final double PREDICTION_STEPS = 8;  // 沿速度方向额外放大的步数
+
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+    private int[] parent;   // 空闲节点中保存下一个空闲节点
+    private int[] child1;
+    private int[] child2;
+    private int[] height;   // 叶节点为0，空闲节点为-1
+    private GameObject[] objects;
+
+    private int root = NULL;
+    private int freeList = NULL;
+    private int capacity;
+    private final Map<GameObject, Integer> proxies = new IdentityHashMap<>();
+    private int[] stack = new int[64];
+
+    public DynamicAabbTree() {
+        allocate(16);
+    }
+
+    private void allocate(int newCapacity) {
+        minX = copy(minX, newCapacity);
+        minY = copy(minY, newCapacity);
+        maxX = copy(maxX, newCapacity);
+        maxY = copy(maxY, newCapacity);
+        parent = copy(parent, newCapacity);
+        child1 = copy(child1, newCapacity);
+        child2 = copy(child2, newCapacity);
+        height = copy(height, newCapacity);
+        objects = objects == null ? new GameObject[newCapacity] : Arrays.copyOf(objects, newCapacity);
+        // 新增的节点串成空闲链表
+        for (int i = capacity; i < newCapacity; i++) {
+            parent[i] = i + 1 < newCapacity ? i + 1 : freeList;
+            height[i] = -1;
+        }
+        freeList = capacity;
+        capacity = newCapacity;
+    }
+
+    private static double[] copy(double[] array, int length) {
+        return array == null ? new double[length] : Arrays.copyOf(array, length);
+    }
+
+    private static int[] copy(int[] array, int length) {
+        return array == null ? new int[length] : Arrays.copyOf(array, length);
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL) {
+            allocate(capacity * 2);
+        }
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL;
+        child1[node] = NULL;
+        child2[node] = NULL;
+        height[node] = 0;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parent[node] = freeList;
+        height[node] = -1;
+        objects[node] = null;
+        freeList = node;
+    }
+
+    /* ===================== 对象增删与更新 ===================== */
+
+    public void insert(GameObject obj) {
+        if (proxies.containsKey(obj)) {
+            return;
+        }
+        int leaf = allocateNode();
+        objects[leaf] = obj;
+        setFatBounds(leaf, obj);
+        insertLeaf(leaf);
+        proxies.put(obj, leaf);
+    }
+
+    public void remove(GameObject obj) {
+        Integer leaf = proxies.remove(obj);
+        if (leaf != null) {
+            removeLeaf(leaf);
+            freeNode(leaf);
+        }
+    }
+
+    public void clear() {
+        for (int leaf : proxies.values()) {
+            objects[leaf] = null;
+        }
+        proxies.clear();
+        capacity = 0;
+        freeList = NULL;
+        root = NULL;
+        minX = minY = maxX = maxY = null;
+        parent = child1 = child2 = height = null;
+        objects = null;
+        allocate(16);
+    }
+
+    /**
+     * 更新所有移出放大包围盒的对象，返回重新插入的数量（每个模拟帧调用一次）
+     */
+    public int refit() {
+        int moved = 0;
+        for (int leaf = 0; leaf < capacity; leaf++) {
+            GameObject obj = objects[leaf];
+            if (obj == null || height[leaf] != 0) {
+                continue;
+            }
+            double x = obj.getX();
+            double y = obj.getY();
+            if (x >= minX[leaf] && y >= minY[leaf]
+                    && x + obj.getObjectWidth() <= maxX[leaf] && y + obj.getObjectHeight() <= maxY[leaf]) {
+                continue;
+            }
+            removeLeaf(leaf);
+            setFatBounds(leaf, obj);
+            insertLeaf(leaf);
+            moved++;
+        }
+        return moved;
+    }
+
+    private void setFatBounds(int leaf, GameObject obj) {
+        double x = obj.getX();
+        double y = obj.getY();
+        double predictX = obj.getDx() * PREDICTION_STEPS;
+        double predictY = obj.getDy() * PREDICTION_STEPS;
+        minX[leaf] = x - MARGIN + Math.min(predictX, 0);
+        minY[leaf] = y - MARGIN + Math.min(predictY, 0);
+        maxX[leaf] = x + obj.getObjectWidth() + MARGIN + Math.max(predictX, 0);
+        maxY[leaf] = y + obj.getObjectHeight() + MARGIN + Math.max(predictY, 0);
+    }
+
+    /* ===================== 查询 ===================== */
+
+    /**
+     * 查找包含指定点的最上层对象（只对包围盒命中的对象做精确形状判断）
+     */
+    public GameObject findTopmost(double px, double py) {
+        GameObject best = null;
+        java.awt.geom.Point2D point = new java.awt.geom.Point2D.Double(px, py);
+        int top = push(0, root);
+        while (top > 0) {
+            int node = stack[--top];
+            if (px < minX[node] || px > maxX[node] || py < minY[node] || py > maxY[node]) {
+                continue;
+            }
+            if (height[node] == 0) {
+                GameObject obj = objects[node];
+                if ((best == null || obj.getId() > best.getId()) && obj.contains(point)) {
+                    best = obj;
+                }
+            } else {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 收集放大包围盒与矩形相交的对象（结果需要调用方按精确形状再筛选）
+     */
+    public void query(double x1, double y1, double x2, double y2, List<GameObject> result) {
+        int top = push(0, root);
+        while (top > 0) {
+            int node = stack[--top];
+            if (x2 < minX[node] || x1 > maxX[node] || y2 < minY[node] || y1 > maxY[node]) {
+                continue;
+            }
+            if (height[node] == 0) {
+                result.add(objects[node]);
+            } else {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+    }
+
+    private int push(int top, int node) {
+        if (node == NULL) {
+            return top;
+        }
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, top * 2);
+        }
+        stack[top] = node;
+        return top + 1;
+    }
+
+    public boolean contains(GameObject obj) {
+        return proxies.containsKey(obj);
+    }
+
+    public int size() {
+        return proxies.size();
+    }
+
+    /**
+     * 树高（叶节点为0），用于检查平衡情况
+     */
+    public int getHeight() {
+        return root == NULL ? 0 : height[root];
+    }
+
+    /* ===================== 插入、删除与平衡 ===================== */
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parent[root] = NULL;
+            return;
+        }
+
+        // 自顶向下按周长代价选择兄弟节点
+        int index = root;
+        while (height[index] > 0) {
+            int c1 = child1[index];
+            int c2 = child2[index];
+            double area = perimeter(index);
+            double combined = unionPerimeter(index, leaf);
+            double cost = 2 * combined;
+            double inheritance = 2 * (combined - area);
+            double cost1 = descendCost(c1, leaf) + inheritance;
+            double cost2 = descendCost(c2, leaf) + inheritance;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? c1 : c2;
+        }
+        int sibling = index;
+
+        // 新建父节点连接兄弟节点和叶节点
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        setUnion(newParent, leaf, sibling);
+        height[newParent] = height[sibling] + 1;
+        if (oldParent != NULL) {
+            if (child1[oldParent] == sibling) {
+                child1[oldParent] = newParent;
+            } else {
+                child2[oldParent] = newParent;
+            }
+        } else {
+            root = newParent;
+        }
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+
+        fixUpwards(parent[leaf]);
+    }
+
+    private double descendCost(int child, int leaf) {
+        double combined = unionPerimeter(child, leaf);
+        return height[child] == 0 ? combined : combined - perimeter(child);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+        int p = parent[leaf];
+        int grandParent = parent[p];
+        int sibling = child1[p] == leaf ? child2[p] : child1[p];
+        if (grandParent != NULL) {
+            if (child1[grandParent] == p) {
+                child1[grandParent] = sibling;
+            } else {
+                child2[grandParent] = sibling;
+            }
+            parent[sibling] = grandParent;
+            freeNode(p);
+            fixUpwards(grandParent);
+        } else {
+            root = sibling;
+            parent[sibling] = NULL;
+            freeNode(p);
+        }
+    }
+
+    /**
+     * 从指定节点向上平衡并重新计算包围盒和高度
+     */
+    private void fixUpwards(int index) {
+        while (index != NULL) {
+            index = balance(index);
+            int c1 = child1[index];
+            int c2 = child2[index];
+            height[index] = 1 + Math.max(height[c1], height[c2]);
+            setUnion(index, c1, c2);
+            index = parent[index];
+        }
+    }
+
+    /**
+     * 左右子树高度差超过1时做一次旋转，返回旋转后该位置的节点
+     */
+    private int balance(int a) {
+        if (height[a] < 2) {
+            return a;
+        }
+        int b = child1[a];
+        int c = child2[a];
+        int diff = height[c] - height[b];
+
+        if (diff > 1) {
+            // c 上提
+            int f = child1[c];
+            int g = child2[c];
+            child1[c] = a;
+            parent[c] = parent[a];
+            parent[a] = c;
+            replaceChild(parent[c], a, c);
+            if (height[f] > height[g]) {
+                child2[c] = f;
+                child2[a] = g;
+                parent[g] = a;
+                setUnion(a, b, g);
+                setUnion(c, a, f);
+                height[a] = 1 + Math.max(height[b], height[g]);
+                height[c] = 1 + Math.max(height[a], height[f]);
+            } else {
+                child2[c] = g;
+                child2[a] = f;
+                parent[f] = a;
+                setUnion(a, b, f);
+                setUnion(c, a, g);
+                height[a] = 1 + Math.max(height[b], height[f]);
+                height[c] = 1 + Math.max(height[a], height[g]);
+            }
+            return c;
+        }
+        if (diff < -1) {
+            // b 上提
+            int d = child1[b];
+            int e = child2[b];
+            child1[b] = a;
+            parent[b] = parent[a];
+            parent[a] = b;
+            replaceChild(parent[b], a, b);
+            if (height[d] > height[e]) {
+                child2[b] = d;
+                child1[a] = e;
+                parent[e] = a;
+                setUnion(a, c, e);
+                setUnion(b, a, d);
+                height[a] = 1 + Math.max(height[c], height[e]);
+                height[b] = 1 + Math.max(height[a], height[d]);
+            } else {
+                child2[b] = e;
+                child1[a] = d;
+                parent[d] = a;
+                setUnion(a, c, d);
+                setUnion(b, a, e);
+                height[a] = 1 + Math.max(height[c], height[d]);
+                height[b] = 1 + Math.max(height[a], height[e]);
+            }
+            return b;
+        }
+        return a;
+    }
+
+    private void replaceChild(int node, int oldChild, int newChild) {
+        if (node == NULL) {
+            root = newChild;
+        } else if (child1[node] == oldChild) {
+            child1[node] = newChild;
+        } else {
+            child2[node] = newChild;
+        }
+    }
+
+    private void setUnion(int target, int n1, int n2) {
+        minX[target] = Math.min(minX[n1], minX[n2]);
+        minY[target] = Math.min(minY[n1], minY[n2]);
+        maxX[target] = Math.max(maxX[n1], maxX[n2]);
+        maxY[target] = Math.max(maxY[n1], maxY[n2]);
+    }
+
+    private double perimeter(int node) {
+        return 2 * ((maxX[node] - minX[node]) + (maxY[node] - minY[node]));
+    }
+
+    private double unionPerimeter(int n1, int n2) {
+        double w = Math.max(maxX[n1], maxX[n2]) - Math.min(minX[n1], minX[n2]);
+        double h = Math.max(maxY[n1], maxY[n2]) - Math.min(minY[n1], minY[n2]);
+        return 2 * (w + h);
+    }
+}
@@ -0,0 +1,727 @@
+package controller;
+
+import model.GameObject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * 力场：对象之间的万有引力（Barnes-Hut 近似）和用户放置的吸引点
+ * 每帧按对象中心的 Morton 码排序，在排序后的数组上构建四叉树（大范围的子树并行构建），
+ * 节点记录总质量和质心；求力时若节点边长与距离之比小于张角 θ，就把整个节点当作一个质点
+ * （同一叶子中的对象共用一次遍历，距离取节点质心到叶子包围盒的最近距离）。
+ * θ 由 -Dforces.theta 指定（默认0.5，上限0.7，保证对象不会用包含自己的节点近似），θ=0 时退化为逐对精确计算。
+ * 加速度以每帧速度增量的形式叠加到 dx/dy 上，与各运动模式的位移同时生效；暂停的对象和运动学对象只产生引力，不受力。
+ * 引力常数为负时互相排斥，吸引点强度为负时为排斥点。
+ *
+ * 计算是双缓冲的：模拟帧线程只复制对象的位置和质量（快照），求力在模拟工作线程池中进行，结果写入后台加速度缓冲，
+ * 不触碰对象；每帧在模拟帧线程中把最近一次完成的加速度叠加到对象速度上。
+ * 预计耗时在 SYNC_BUDGET_NANOS 以内时当帧同步计算并立即使用；否则后台计算，完成前各帧沿用上一次的结果，
+ * 计算完成后的下一帧才交换缓冲并开始新的计算，因此对象很多时界面不会被力场阻塞。
+ */
+public class ForceField {
+    private static ForceField instance;
+
+    private static final int LEAF_SIZE = 8;             // 叶子节点最多容纳的对象数
+    private static final int MAX_LEVEL = 15;            // Morton 码每轴15位（排序键保持为正数）
+    private static final int PARALLEL_BUILD = 4096;     // 范围内对象数达到此值时子树并行构建
+    private static final int FORCE_CHUNK = 512;         // 求力时每个并行任务处理的对象数或节点数
+    private static final int STACK_SIZE = 4 * (MAX_LEVEL + 1) + 1;
+    private static final double SOFTENING = 20;         // 软化长度（像素），避免距离过近时加速度发散
+    private static final double MAX_SPEED = 12;         // 力场能加到的最大速度
+    private static final double WAKE_ACCELERATION = 0.01; // 休眠对象受到超过此值的加速度时唤醒
+    private static final long SYNC_BUDGET_NANOS = 4_000_000; // 预计耗时不超过此值时在模拟帧内同步计算
+    private static final long INITIAL_NANOS_PER_BODY = 4_000; // 尚未测量时按此估计，大场景第一帧也在后台计算
+
+    private volatile boolean gravityEnabled = Boolean.getBoolean("forces.gravity.enabled");
+    private volatile double theta = clampTheta(parseDouble(System.getProperty("forces.theta"), 0.5));
+    private volatile double gravity = parseDouble(System.getProperty("forces.gravity"), 40);
+    private volatile double attractorStrength = parseDouble(System.getProperty("forces.attractor"), 2000);
+    private final List<Attractor> attractors = new CopyOnWriteArrayList<>();
+
+    /* 快照（按对象在列表中的顺序，模拟帧线程在没有后台计算时写入） */
+    private GameObject[] snapshotObjects = new GameObject[0];
+    private double[] snapshotX = new double[0];
+    private double[] snapshotY = new double[0];
+    private double[] snapshotMass = new double[0];
+    private int snapshotCount;
+
+    /* 加速度缓冲（按快照顺序）：后台写入 back，模拟帧线程读取 front，计算完成后交换 */
+    private double[] backAccelX = new double[0];
+    private double[] backAccelY = new double[0];
+    private GameObject[] frontObjects = new GameObject[0];
+    private double[] frontAccelX = new double[0];
+    private double[] frontAccelY = new double[0];
+    private int frontCount;
+
+    private Future<?> pending;                  // 正在进行的后台计算
+    private boolean discardPending;             // 后台计算开始后力场被关闭过，结果作废
+    private volatile long computeNanosPerBody = INITIAL_NANOS_PER_BODY; // 上一次计算每个对象的平均耗时
+
+    /* 对象数据（按 Morton 码排序后的顺序） */
+    private long[] keys = new long[0];
+    private int[] bodyIndex = new int[0];
+    private double[] bodyX = new double[0];
+    private double[] bodyY = new double[0];
+    private double[] bodyMass = new double[0];
+
+    /* 四叉树节点：叶子的 childCount 为0，对象范围为 [first, end) */
+    private double[] nodeX = new double[0];
+    private double[] nodeY = new double[0];
+    private double[] nodeMass = new double[0];
+    private double[] nodeSize = new double[0];
+    private int[] nodeFirst = new int[0];
+    private int[] nodeEnd = new int[0];
+    private int[] childCount = new int[0];
+    private int[] children = new int[0];
+    private final AtomicInteger nodeCount = new AtomicInteger();
+    private int root = -1;
+    private double rootSize;
+
+    /**
+     * 吸引点（强度为负时为排斥点）
+     */
+    public static final class Attractor {
+        private final double x;
+        private final double y;
+        private final double strength;
+
+        public Attractor(double x, double y, double strength) {
+            this.x = x;
+            this.y = y;
+            this.strength = strength;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getStrength() {
+            return strength;
+        }
+    }
+
+    private ForceField() {}
+
+    public static synchronized ForceField getInstance() {
+        if (instance == null) {
+            instance = new ForceField();
+        }
+        return instance;
+    }
+
+    /**
+     * 力场是否需要参与本帧（开启了互相引力或存在吸引点）
+     */
+    public boolean isActive() {
+        return gravityEnabled || !attractors.isEmpty();
+    }
+
+    /**
+     * 把最近一次完成的力叠加到对象速度上（在模拟帧线程中调用），并在需要时开始新的计算；返回是否施加了力
+     */
+    public boolean apply(List<GameObject> objects) {
+        if (!isActive()) {
+            frontCount = 0;
+            discardPending = pending != null;
+            return false;
+        }
+        if (pending != null && pending.isDone()) {
+            finishPending();
+        }
+        int n = objects.size();
+        if (pending == null && n > 0) {
+            takeSnapshot(objects, n);
+            boolean mutual = gravityEnabled;
+            Attractor[] points = attractors.toArray(new Attractor[0]);
+            if (computeNanosPerBody * n <= SYNC_BUDGET_NANOS) {
+                if (n > FORCE_CHUNK) {
+                    SimulationPool.run(() -> compute(n, mutual, points));
+                } else {
+                    compute(n, mutual, points);
+                }
+                swapBuffers();
+            } else {
+                pending = SimulationPool.get().submit(() -> compute(n, mutual, points));
+            }
+        }
+        if (frontCount == 0) {
+            return false;
+        }
+        double scale = PhysicsConfig.getStepScale();
+        for (int i = 0; i < frontCount; i++) {
+            GameObject obj = frontObjects[i];
+            if (!obj.isPaused() && !obj.isKinematic()) {
+                integrate(obj, frontAccelX[i] * scale, frontAccelY[i] * scale);
+            }
+        }
+        return true;
+    }
+
+    private void finishPending() {
+        try {
+            pending.get();
+            if (!discardPending) {
+                swapBuffers();
+            }
+        } catch (Exception e) {
+            System.err.println("力场计算失败: " + e.getMessage());
+        }
+        pending = null;
+        discardPending = false;
+    }
+
+    /**
+     * 复制对象的中心位置和质量，后台计算只读取快照
+     */
+    private void takeSnapshot(List<GameObject> objects, int n) {
+        ensureBodyCapacity(n);
+        for (int i = 0; i < n; i++) {
+            GameObject obj = objects.get(i);
+            double width = obj.getObjectWidth();
+            double height = obj.getObjectHeight();
+            snapshotObjects[i] = obj;
+            snapshotX[i] = obj.getX() + width / 2;
+            snapshotY[i] = obj.getY() + height / 2;
+            snapshotMass[i] = ImpulseSolver.mass(obj, width, height);
+        }
+        if (snapshotCount > n) {
+            Arrays.fill(snapshotObjects, n, snapshotCount, null);
+        }
+        snapshotCount = n;
+    }
+
+    /**
+     * 计算完成后交换加速度缓冲，对象引用随之复制到前台
+     */
+    private void swapBuffers() {
+        double[] x = frontAccelX;
+        double[] y = frontAccelY;
+        frontAccelX = backAccelX;
+        frontAccelY = backAccelY;
+        backAccelX = x;
+        backAccelY = y;
+        if (frontObjects.length < snapshotCount) {
+            frontObjects = new GameObject[snapshotObjects.length];
+        }
+        System.arraycopy(snapshotObjects, 0, frontObjects, 0, snapshotCount);
+        if (frontCount > snapshotCount) {
+            Arrays.fill(frontObjects, snapshotCount, frontCount, null);
+        }
+        frontCount = snapshotCount;
+    }
+
+    /**
+     * 按快照计算每个对象的加速度，写入后台缓冲（可在任意线程执行，不访问对象）
+     */
+    private void compute(int n, boolean mutual, Attractor[] points) {
+        long start = System.nanoTime();
+        if (mutual) {
+            buildTree(n);
+        } else {
+            for (int i = 0; i < n; i++) {
+                loadBody(i, i);
+            }
+        }
+
+        if (mutual) {
+            // 以叶子为单位遍历：同一叶子中的对象共用一次遍历得到的作用列表
+            int nodes = nodeCount.get();
+            int chunks = (nodes + FORCE_CHUNK - 1) / FORCE_CHUNK;
+            parallelIf(chunks).forEach(c -> {
+                Workspace workspace = new Workspace();
+                int end = Math.min(nodes, (c + 1) * FORCE_CHUNK);
+                for (int node = c * FORCE_CHUNK; node < end; node++) {
+                    if (childCount[node] == 0) {
+                        applyLeaf(node, points, workspace);
+                    }
+                }
+            });
+        } else {
+            int chunks = (n + FORCE_CHUNK - 1) / FORCE_CHUNK;
+            parallelIf(chunks).forEach(c -> {
+                int end = Math.min(n, (c + 1) * FORCE_CHUNK);
+                for (int i = c * FORCE_CHUNK; i < end; i++) {
+                    storeAcceleration(i, 0, 0, points);
+                }
+            });
+        }
+        computeNanosPerBody = (System.nanoTime() - start) / n;
+    }
+
+    private static IntStream parallelIf(int chunks) {
+        IntStream range = IntStream.range(0, chunks);
+        return chunks > 1 ? range.parallel() : range;
+    }
+
+    /**
+     * 叠加吸引点的作用，把排序后第 i 个对象的加速度写入后台缓冲（ax/ay 为已乘引力常数的互相引力）
+     */
+    private void storeAcceleration(int i, double ax, double ay, Attractor[] points) {
+        double x = bodyX[i];
+        double y = bodyY[i];
+        for (Attractor point : points) {
+            double dx = point.x - x;
+            double dy = point.y - y;
+            double d2 = dx * dx + dy * dy + SOFTENING * SOFTENING;
+            double factor = point.strength / (d2 * Math.sqrt(d2));
+            ax += dx * factor;
+            ay += dy * factor;
+        }
+        backAccelX[bodyIndex[i]] = ax;
+        backAccelY[bodyIndex[i]] = ay;
+    }
+
+    /**
+     * 把速度增量加到对象上并限制最大速度
+     */
+    private static void integrate(GameObject obj, double dvx, double dvy) {
+        if (obj.isSleeping()) {
+            if (dvx * dvx + dvy * dvy < WAKE_ACCELERATION * WAKE_ACCELERATION) {
+                return;
+            }
+            obj.wakeUp();
+        }
+        double vx = obj.getDx() + dvx;
+        double vy = obj.getDy() + dvy;
+        double speed = Math.sqrt(vx * vx + vy * vy);
+        if (speed > MAX_SPEED) {
+            vx *= MAX_SPEED / speed;
+            vy *= MAX_SPEED / speed;
+        }
+        obj.setDx(vx);
+        obj.setDy(vy);
+    }
+
+    /* ===================== 四叉树构建 ===================== */
+
+    private void buildTree(int n) {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            double cx = snapshotX[i];
+            double cy = snapshotY[i];
+            minX = Math.min(minX, cx);
+            minY = Math.min(minY, cy);
+            maxX = Math.max(maxX, cx);
+            maxY = Math.max(maxY, cy);
+        }
+        rootSize = Math.max(1, Math.max(maxX - minX, maxY - minY));
+        double cellScale = 32767 / rootSize;
+        for (int i = 0; i < n; i++) {
+            int qx = (int) ((snapshotX[i] - minX) * cellScale);
+            int qy = (int) ((snapshotY[i] - minY) * cellScale);
+            keys[i] = ((long) interleave(qx, qy) << 32) | i;
+        }
+        if (n >= PARALLEL_BUILD) {
+            Arrays.parallelSort(keys, 0, n);
+        } else {
+            Arrays.sort(keys, 0, n);
+        }
+        for (int i = 0; i < n; i++) {
+            loadBody((int) keys[i], i);
+        }
+
+        ensureNodeCapacity(2 * n + 1); // 内部节点至少有两个非空子节点，节点总数小于2n
+        nodeCount.set(0);
+        if (n >= PARALLEL_BUILD) {
+            int[] result = new int[1];
+            new BuildTask(0, n, 0, result, 0).invoke();
+            root = result[0];
+        } else {
+            root = build(0, n, 0);
+        }
+    }
+
+    private void loadBody(int index, int slot) {
+        bodyIndex[slot] = index;
+        bodyX[slot] = snapshotX[index];
+        bodyY[slot] = snapshotY[index];
+        bodyMass[slot] = snapshotMass[index];
+    }
+
+    /**
+     * 构建覆盖已排序对象 [lo, hi) 的子树并返回其根节点；只有一个非空象限时直接下降一层，不产生单子节点链
+     */
+    private int build(int lo, int hi, int level) {
+        int[] bounds = new int[5];
+        while (true) {
+            if (hi - lo <= LEAF_SIZE || level >= MAX_LEVEL) {
+                return leaf(lo, hi, level);
+            }
+            if (split(lo, hi, level, bounds) > 1) {
+                break;
+            }
+            level++;
+        }
+        int node = nodeCount.getAndIncrement();
+        int count = 0;
+        for (int q = 0; q < 4; q++) {
+            if (bounds[q] < bounds[q + 1]) {
+                children[node * 4 + count++] = build(bounds[q], bounds[q + 1], level + 1);
+            }
+        }
+        finishInternal(node, lo, hi, level, count);
+        return node;
+    }
+
+    /**
+     * 并行构建子树：范围足够大时每个非空象限作为一个任务
+     */
+    private final class BuildTask extends RecursiveAction {
+        private final int lo;
+        private final int hi;
+        private final int startLevel;
+        private final int[] result;
+        private final int slot;
+
+        BuildTask(int lo, int hi, int level, int[] result, int slot) {
+            this.lo = lo;
+            this.hi = hi;
+            this.startLevel = level;
+            this.result = result;
+            this.slot = slot;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo < PARALLEL_BUILD) {
+                result[slot] = build(lo, hi, startLevel);
+                return;
+            }
+            int[] bounds = new int[5];
+            int level = startLevel;
+            while (level < MAX_LEVEL && split(lo, hi, level, bounds) == 1) {
+                level++;
+            }
+            if (level >= MAX_LEVEL) {
+                result[slot] = leaf(lo, hi, level);
+                return;
+            }
+            int node = nodeCount.getAndIncrement();
+            int[] childNodes = new int[4];
+            BuildTask[] tasks = new BuildTask[4];
+            int count = 0;
+            for (int q = 0; q < 4; q++) {
+                if (bounds[q] < bounds[q + 1]) {
+                    tasks[count] = new BuildTask(bounds[q], bounds[q + 1], level + 1, childNodes, count);
+                    count++;
+                }
+            }
+            ForkJoinTask.invokeAll(Arrays.copyOf(tasks, count));
+            System.arraycopy(childNodes, 0, children, node * 4, count);
+            finishInternal(node, lo, hi, level, count);
+            result[slot] = node;
+        }
+    }
+
+    /**
+     * 按当前层的两位 Morton 码把 [lo, hi) 分成四个象限，返回非空象限数
+     */
+    private int split(int lo, int hi, int level, int[] bounds) {
+        int shift = 60 - 2 * level;
+        bounds[0] = lo;
+        bounds[4] = hi;
+        int nonEmpty = 0;
+        for (int q = 1; q < 4; q++) {
+            int a = bounds[q - 1];
+            int b = hi;
+            while (a < b) {
+                int mid = (a + b) >>> 1;
+                if ((int) ((keys[mid] >>> shift) & 3) < q) {
+                    a = mid + 1;
+                } else {
+                    b = mid;
+                }
+            }
+            bounds[q] = a;
+            if (bounds[q] > bounds[q - 1]) {
+                nonEmpty++;
+            }
+        }
+        if (hi > bounds[3]) {
+            nonEmpty++;
+        }
+        return nonEmpty;
+    }
+
+    private int leaf(int lo, int hi, int level) {
+        int node = nodeCount.getAndIncrement();
+        double mass = 0;
+        double mx = 0;
+        double my = 0;
+        for (int i = lo; i < hi; i++) {
+            mass += bodyMass[i];
+            mx += bodyMass[i] * bodyX[i];
+            my += bodyMass[i] * bodyY[i];
+        }
+        nodeMass[node] = mass;
+        nodeX[node] = mx / mass;
+        nodeY[node] = my / mass;
+        nodeSize[node] = rootSize / (1 << level);
+        nodeFirst[node] = lo;
+        nodeEnd[node] = hi;
+        childCount[node] = 0;
+        return node;
+    }
+
+    private void finishInternal(int node, int lo, int hi, int level, int count) {
+        double mass = 0;
+        double mx = 0;
+        double my = 0;
+        for (int c = 0; c < count; c++) {
+            int child = children[node * 4 + c];
+            mass += nodeMass[child];
+            mx += nodeMass[child] * nodeX[child];
+            my += nodeMass[child] * nodeY[child];
+        }
+        nodeMass[node] = mass;
+        nodeX[node] = mx / mass;
+        nodeY[node] = my / mass;
+        nodeSize[node] = rootSize / (1 << level);
+        nodeFirst[node] = lo;
+        nodeEnd[node] = hi;
+        childCount[node] = count;
+    }
+
+    /**
+     * 把两个15位坐标交错为30位 Morton 码（x 在低位）
+     */
+    private static int interleave(int x, int y) {
+        return spread(x) | (spread(y) << 1);
+    }
+
+    private static int spread(int v) {
+        v &= 0x7FFF;
+        v = (v | (v << 8)) & 0x00FF00FF;
+        v = (v | (v << 4)) & 0x0F0F0F0F;
+        v = (v | (v << 2)) & 0x33333333;
+        v = (v | (v << 1)) & 0x55555555;
+        return v;
+    }
+
+    /* ===================== 求力 ===================== */
+
+    /**
+     * 求力时每个任务使用的遍历栈和作用列表（质点坐标与质量）
+     */
+    private static final class Workspace {
+        final int[] stack = new int[STACK_SIZE];
+        double[] x = new double[256];
+        double[] y = new double[256];
+        double[] m = new double[256];
+        int size;
+
+        void add(double px, double py, double mass) {
+            if (size == x.length) {
+                x = Arrays.copyOf(x, size * 2);
+                y = Arrays.copyOf(y, size * 2);
+                m = Arrays.copyOf(m, size * 2);
+            }
+            x[size] = px;
+            y[size] = py;
+            m[size] = mass;
+            size++;
+        }
+    }
+
+    /**
+     * 为一个叶子收集作用列表：按节点质心到叶子包围盒的最近距离判断能否近似，
+     * 不能近似的叶子把其中的对象逐个加入列表（对象自身因软化项产生的作用为0）；
+     * 然后叶子中的每个对象在同一个列表上累加引力。
+     */
+    private void applyLeaf(int leaf, Attractor[] points, Workspace workspace) {
+        int first = nodeFirst[leaf];
+        int last = nodeEnd[leaf];
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int i = first; i < last; i++) {
+            minX = Math.min(minX, bodyX[i]);
+            minY = Math.min(minY, bodyY[i]);
+            maxX = Math.max(maxX, bodyX[i]);
+            maxY = Math.max(maxY, bodyY[i]);
+        }
+
+        double theta2 = theta * theta;
+        int[] stack = workspace.stack;
+        workspace.size = 0;
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            int count = childCount[node];
+            if (count == 0) {
+                for (int j = nodeFirst[node]; j < nodeEnd[node]; j++) {
+                    workspace.add(bodyX[j], bodyY[j], bodyMass[j]);
+                }
+                continue;
+            }
+            double cx = nodeX[node];
+            double cy = nodeY[node];
+            double gapX = Math.max(0, Math.max(minX - cx, cx - maxX));
+            double gapY = Math.max(0, Math.max(minY - cy, cy - maxY));
+            double size = nodeSize[node];
+            if (size * size < theta2 * (gapX * gapX + gapY * gapY)) {
+                workspace.add(cx, cy, nodeMass[node]);
+            } else {
+                int base = node * 4;
+                for (int c = 0; c < count; c++) {
+                    stack[top++] = children[base + c];
+                }
+            }
+        }
+
+        double[] px = workspace.x;
+        double[] py = workspace.y;
+        double[] pm = workspace.m;
+        int size = workspace.size;
+        double soft2 = SOFTENING * SOFTENING;
+        for (int i = first; i < last; i++) {
+            double x = bodyX[i];
+            double y = bodyY[i];
+            double ax = 0;
+            double ay = 0;
+            for (int k = 0; k < size; k++) {
+                double dx = px[k] - x;
+                double dy = py[k] - y;
+                double inv = 1 / Math.sqrt(dx * dx + dy * dy + soft2);
+                double factor = pm[k] * inv * inv * inv;
+                ax += dx * factor;
+                ay += dy * factor;
+            }
+            storeAcceleration(i, ax * gravity, ay * gravity, points);
+        }
+    }
+
+    private void ensureBodyCapacity(int n) {
+        if (keys.length < n) {
+            int capacity = Math.max(n, keys.length * 2);
+            keys = new long[capacity];
+            bodyIndex = new int[capacity];
+            bodyX = new double[capacity];
+            bodyY = new double[capacity];
+            bodyMass = new double[capacity];
+            snapshotObjects = Arrays.copyOf(snapshotObjects, capacity);
+            snapshotX = new double[capacity];
+            snapshotY = new double[capacity];
+            snapshotMass = new double[capacity];
+        }
+        if (backAccelX.length < n) {
+            // 交换后后台缓冲可能是较早分配的较小数组，单独检查
+            backAccelX = new double[keys.length];
+            backAccelY = new double[keys.length];
+        }
+    }
+
+    private void ensureNodeCapacity(int n) {
+        if (nodeMass.length < n) {
+            int capacity = Math.max(n, nodeMass.length * 2);
+            nodeX = new double[capacity];
+            nodeY = new double[capacity];
+            nodeMass = new double[capacity];
+            nodeSize = new double[capacity];
+            nodeFirst = new int[capacity];
+            nodeEnd = new int[capacity];
+            childCount = new int[capacity];
+            children = new int[capacity * 4];
+        }
+    }
+
+    /* ===================== 吸引点 ===================== */
+
+    /**
+     * 在指定位置放置吸引点（repel 为 true 时为排斥点）
+     */
+    public void addAttractor(double x, double y, boolean repel) {
+        attractors.add(new Attractor(x, y, repel ? -attractorStrength : attractorStrength));
+    }
+
+    /**
+     * 移除距离指定位置不超过 radius 的吸引点，返回是否移除了吸引点
+     */
+    public boolean removeAttractorNear(double x, double y, double radius) {
+        for (Attractor point : attractors) {
+            double dx = point.x - x;
+            double dy = point.y - y;
+            if (dx * dx + dy * dy <= radius * radius) {
+                return attractors.remove(point);
+            }
+        }
+        return false;
+    }
+
+    public List<Attractor> getAttractors() {
+        return attractors;
+    }
+
+    public void clearAttractors() {
+        attractors.clear();
+    }
+
+    /* ===================== 配置 ===================== */
+
+    private static double clampTheta(double theta) {
+        return Math.max(0, Math.min(0.7, theta));
+    }
+
+    private static double parseDouble(String value, double defaultValue) {
+        try {
+            return value != null ? Double.parseDouble(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public void setGravityEnabled(boolean enabled) {
+        this.gravityEnabled = enabled;
+    }
+
+    public boolean isGravityEnabled() {
+        return gravityEnabled;
+    }
+
+    public void setTheta(double theta) {
+        this.theta = clampTheta(theta);
+    }
+
+    public double getTheta() {
+        return theta;
+    }
+
+    public void setGravity(double gravity) {
+        this.gravity = gravity;
+    }
+
+    public double getGravity() {
+        return gravity;
+    }
+
+    public void setAttractorStrength(double strength) {
+        this.attractorStrength = strength;
+    }
+
+    public double getAttractorStrength() {
+        return attractorStrength;
+    }
+
+    /**
+     * 上一次构建的四叉树节点数
+     */
+    public int getNodeCount() {
+        return nodeCount.get();
+    }
+}
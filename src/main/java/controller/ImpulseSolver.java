@@ -0,0 +1,321 @@
+package controller;
+
+import model.Ball;
+import model.GameObject;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * 冲量碰撞求解器
+ * 按面积计算质量，对每个接触沿法线施加冲量（带恢复系数，可迭代多次），再按穿透深度做位置修正。
+ * 互相接触的对象用并查集划分为岛：不同的岛之间没有共享的可动对象，接触较多时并行求解。
+ * 暂停的对象和运动学对象（沿参数化轨迹运动）质量视为无穷大，不参与合并岛，也不会被求解器移动。
+ * 接近速度低于阈值的接触不反弹，堆叠的对象因此能够静止下来，不会每帧反复弹开。
+ * 速度单位与 GameObject 的 dx/dy 相同（每个运动步的位移）。
+ */
+public class ImpulseSolver {
+    private static final double RESTITUTION_THRESHOLD = 0.1; // 低于此接近速度时不反弹
+    private static final double SLOP = 0.5;                  // 允许的穿透深度（像素）
+    private static final double SPECULATIVE = 1.0;           // 连续碰撞检测得到的接触可能尚未重叠
+    private static final double CORRECTION = 0.6;            // 每帧修正的穿透比例
+    private static final int PARALLEL_THRESHOLD = 256;       // 接触数达到此值才并行求解
+
+    private int iterations = Integer.getInteger("physics.iterations", 4);
+    private double restitution = parseDouble(System.getProperty("physics.restitution"), 1.0);
+
+    /* 对象数据（按对象在列表中的下标） */
+    private double[] invMass = new double[0];
+    private double[] vx = new double[0];
+    private double[] vy = new double[0];
+    private double[] px = new double[0];
+    private double[] py = new double[0];
+    private int[] unionParent = new int[0];
+    private int[] islandOf = new int[0];
+    private boolean[] touched = new boolean[0];
+
+    /* 接触数据 */
+    private int[] bodyA = new int[64];
+    private int[] bodyB = new int[64];
+    private double[] normalX = new double[64];
+    private double[] normalY = new double[64];
+    private double[] penetration = new double[64];
+    private double[] bias = new double[64];
+    private double[] impulse = new double[64];
+    private int[] contactIsland = new int[64];
+    private int[] order = new int[64];
+    private int[] islandStart = new int[64];
+
+    private final double[] contactScratch = new double[3];
+
+    private int contactCount;
+    private int islandCount;
+
+    /**
+     * 求解一帧的接触
+     * pairs 中前 count 项为碰撞对象的下标（高32位、低32位），包围盒数组为本帧检测时的包围盒
+     */
+    public void solve(List<GameObject> objects, long[] pairs, int count,
+                      double[] minX, double[] minY, double[] maxX, double[] maxY) {
+        int n = objects.size();
+        ensureBodyCapacity(n);
+        ensureContactCapacity(count);
+
+        // 建立接触并初始化涉及的对象
+        contactCount = 0;
+        for (int k = 0; k < count; k++) {
+            int a = (int) (pairs[k] >>> 32);
+            int b = (int) pairs[k];
+            loadBody(objects.get(a), a, minX, minY, maxX, maxY);
+            loadBody(objects.get(b), b, minX, minY, maxX, maxY);
+            if (invMass[a] + invMass[b] == 0) {
+                continue;
+            }
+            if (buildContact(contactCount, objects.get(a), a, objects.get(b), b)) {
+                contactCount++;
+            }
+        }
+
+        // 并查集合并岛（只通过可动对象连接）
+        for (int c = 0; c < contactCount; c++) {
+            int a = bodyA[c];
+            int b = bodyB[c];
+            if (invMass[a] > 0 && invMass[b] > 0) {
+                union(a, b);
+            }
+        }
+
+        // 按岛对接触做计数排序
+        islandCount = 0;
+        for (int c = 0; c < contactCount; c++) {
+            int root = find(invMass[bodyA[c]] > 0 ? bodyA[c] : bodyB[c]);
+            if (islandOf[root] < 0) {
+                islandOf[root] = islandCount++;
+            }
+            contactIsland[c] = islandOf[root];
+        }
+        if (islandStart.length < islandCount + 1) {
+            islandStart = new int[Math.max(islandCount + 1, islandStart.length * 2)];
+        }
+        Arrays.fill(islandStart, 0, islandCount + 1, 0);
+        for (int c = 0; c < contactCount; c++) {
+            islandStart[contactIsland[c] + 1]++;
+        }
+        for (int i = 0; i < islandCount; i++) {
+            islandStart[i + 1] += islandStart[i];
+        }
+        int[] cursor = Arrays.copyOf(islandStart, islandCount);
+        for (int c = 0; c < contactCount; c++) {
+            order[cursor[contactIsland[c]]++] = c;
+        }
+
+        // 求解：岛之间互不影响，接触较多时并行
+        if (contactCount >= PARALLEL_THRESHOLD && islandCount > 1) {
+            SimulationPool.run(() -> IntStream.range(0, islandCount).parallel().forEach(this::solveIsland));
+        } else {
+            for (int i = 0; i < islandCount; i++) {
+                solveIsland(i);
+            }
+        }
+
+        // 写回并复位涉及的对象
+        for (int k = 0; k < count; k++) {
+            storeBody(objects.get((int) (pairs[k] >>> 32)), (int) (pairs[k] >>> 32));
+            storeBody(objects.get((int) pairs[k]), (int) pairs[k]);
+        }
+    }
+
+    private void loadBody(GameObject obj, int i, double[] minX, double[] minY, double[] maxX, double[] maxY) {
+        if (touched[i]) {
+            return;
+        }
+        touched[i] = true;
+        invMass[i] = obj.isPaused() || obj.isKinematic() ? 0 : 1.0 / mass(obj, maxX[i] - minX[i], maxY[i] - minY[i]);
+        vx[i] = obj.getDx();
+        vy[i] = obj.getDy();
+        px[i] = obj.getX();
+        py[i] = obj.getY();
+        unionParent[i] = i;
+        islandOf[i] = -1;
+    }
+
+    private void storeBody(GameObject obj, int i) {
+        if (!touched[i]) {
+            return;
+        }
+        touched[i] = false;
+        if (invMass[i] > 0) {
+            obj.setPosition(px[i], py[i]);
+            obj.setDx(vx[i]);
+            obj.setDy(vy[i]);
+        }
+    }
+
+    /**
+     * 质量与面积成正比（以 1000 平方像素为单位，避免数值过小）
+     */
+    static double mass(GameObject obj, double width, double height) {
+        double area = width * height;
+        if (obj instanceof Ball) {
+            area *= Math.PI / 4;
+        } else if (obj instanceof model.Triangle) {
+            area *= 0.5;
+        }
+        return Math.max(area / 1000.0, 0.01);
+    }
+
+    /**
+     * 计算接触法线（从a指向b）和穿透深度：由碰撞检测器按两者的实际形状（圆心距离、最近特征或分离轴）求得
+     */
+    private boolean buildContact(int c, GameObject objA, int a, GameObject objB, int b) {
+        CollisionDetector.contact(objA, px[a], py[a], objB, px[b], py[b], contactScratch);
+        double nx = contactScratch[0];
+        double ny = contactScratch[1];
+        double depth = contactScratch[2];
+        if (depth <= -SPECULATIVE) {
+            return false;
+        }
+        bodyA[c] = a;
+        bodyB[c] = b;
+        normalX[c] = nx;
+        normalY[c] = ny;
+        penetration[c] = depth;
+        impulse[c] = 0;
+        double approach = (vx[b] - vx[a]) * nx + (vy[b] - vy[a]) * ny;
+        bias[c] = -approach > RESTITUTION_THRESHOLD ? -restitution * approach : 0;
+        return true;
+    }
+
+    /**
+     * 顺序冲量迭代，之后按穿透深度修正位置
+     */
+    private void solveIsland(int island) {
+        int from = islandStart[island];
+        int to = islandStart[island + 1];
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            for (int k = from; k < to; k++) {
+                int c = order[k];
+                int a = bodyA[c];
+                int b = bodyB[c];
+                double nx = normalX[c];
+                double ny = normalY[c];
+                double vn = (vx[b] - vx[a]) * nx + (vy[b] - vy[a]) * ny;
+                double lambda = (bias[c] - vn) / (invMass[a] + invMass[b]);
+                double accumulated = Math.max(impulse[c] + lambda, 0);
+                lambda = accumulated - impulse[c];
+                impulse[c] = accumulated;
+                // 不可动对象可能同时出现在多个并行求解的岛中，只写可动的一方
+                if (invMass[a] > 0) {
+                    vx[a] -= lambda * invMass[a] * nx;
+                    vy[a] -= lambda * invMass[a] * ny;
+                }
+                if (invMass[b] > 0) {
+                    vx[b] += lambda * invMass[b] * nx;
+                    vy[b] += lambda * invMass[b] * ny;
+                }
+            }
+        }
+        for (int k = from; k < to; k++) {
+            int c = order[k];
+            double correction = Math.max(penetration[c] - SLOP, 0) * CORRECTION;
+            if (correction == 0) {
+                continue;
+            }
+            int a = bodyA[c];
+            int b = bodyB[c];
+            double share = correction / (invMass[a] + invMass[b]);
+            if (invMass[a] > 0) {
+                px[a] -= share * invMass[a] * normalX[c];
+                py[a] -= share * invMass[a] * normalY[c];
+            }
+            if (invMass[b] > 0) {
+                px[b] += share * invMass[b] * normalX[c];
+                py[b] += share * invMass[b] * normalY[c];
+            }
+        }
+    }
+
+    private int find(int i) {
+        while (unionParent[i] != i) {
+            unionParent[i] = unionParent[unionParent[i]];
+            i = unionParent[i];
+        }
+        return i;
+    }
+
+    private void union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA != rootB) {
+            unionParent[rootA] = rootB;
+        }
+    }
+
+    private void ensureBodyCapacity(int n) {
+        if (invMass.length < n) {
+            int capacity = Math.max(n, invMass.length * 2);
+            invMass = new double[capacity];
+            vx = new double[capacity];
+            vy = new double[capacity];
+            px = new double[capacity];
+            py = new double[capacity];
+            unionParent = new int[capacity];
+            islandOf = new int[capacity];
+            touched = new boolean[capacity];
+        }
+    }
+
+    private void ensureContactCapacity(int count) {
+        if (bodyA.length < count) {
+            int capacity = Math.max(count, bodyA.length * 2);
+            bodyA = new int[capacity];
+            bodyB = new int[capacity];
+            normalX = new double[capacity];
+            normalY = new double[capacity];
+            penetration = new double[capacity];
+            bias = new double[capacity];
+            impulse = new double[capacity];
+            contactIsland = new int[capacity];
+            order = new int[capacity];
+        }
+    }
+
+    private static double parseDouble(String value, double defaultValue) {
+        try {
+            return value != null ? Double.parseDouble(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = Math.max(1, iterations);
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setRestitution(double restitution) {
+        this.restitution = Math.max(0, Math.min(1, restitution));
+    }
+
+    public double getRestitution() {
+        return restitution;
+    }
+
+    /**
+     * 上一帧求解的接触数
+     */
+    public int getContactCount() {
+        return contactCount;
+    }
+
+    /**
+     * 上一帧的岛数
+     */
+    public int getIslandCount() {
+        return islandCount;
+    }
+}
@@ -0,0 +1,258 @@
+package controller;
+
+import model.GameObject;
+
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 运动引擎：在模拟帧中按运动模型分组推进所有对象
+ * 每个模型的对象连续存放在一组数组中（参数化轨迹的状态同样连续存放），
+ * 每帧对每组中连续的可运动对象调用一次模型的 integrate，批内循环只涉及一种模型，便于JIT内联。
+ * 暂停、休眠和全局暂停的判断以及运动步开始位置的记录统一在这里完成；
+ * 对象较多的组分块交给模拟工作线程池（SimulationPool）并行推进。
+ * 除 register 外，所有方法只在模拟帧线程（EDT）调用。
+ */
+public class MotionEngine {
+    private static MotionEngine instance;
+
+    private static final int PARALLEL_CHUNK = 2048; // 组内对象数超过此值时分块并行
+
+    private final Map<String, MotionModel> models = new LinkedHashMap<>();
+    private final List<String> randomModels = new ArrayList<>();
+    private final Map<MotionModel, Group> groups = new LinkedHashMap<>();
+    private final Map<GameObject, Slot> slotOf = new IdentityHashMap<>();
+
+    /* 全局暂停：所有对象跳过运动 */
+    private volatile boolean paused;
+
+    /**
+     * 使用同一模型的对象及其状态
+     */
+    private static final class Group {
+        final MotionModel model;
+        final int stateSize;
+        GameObject[] objects = new GameObject[16];
+        double[] state;
+        int size;
+
+        Group(MotionModel model) {
+            this.model = model;
+            this.stateSize = model.getStateSize();
+            this.state = new double[16 * stateSize];
+        }
+
+        int add(GameObject obj) {
+            if (size == objects.length) {
+                objects = Arrays.copyOf(objects, size * 2);
+                state = Arrays.copyOf(state, size * 2 * stateSize);
+            }
+            objects[size] = obj;
+            return size++;
+        }
+
+        /**
+         * 用最后一个对象填补被移除的位置，返回被移动的对象（移除的是最后一个时返回 null）
+         */
+        GameObject remove(int index) {
+            size--;
+            GameObject moved = index < size ? objects[size] : null;
+            objects[index] = objects[size];
+            objects[size] = null;
+            System.arraycopy(state, size * stateSize, state, index * stateSize, stateSize);
+            return moved;
+        }
+    }
+
+    /**
+     * 对象所在的组及其在组内的下标
+     */
+    private static final class Slot {
+        final Group group;
+        int index;
+
+        Slot(Group group, int index) {
+            this.group = group;
+            this.index = index;
+        }
+    }
+
+    private MotionEngine() {
+        registerRandom(new MotionModels.Wave());
+        registerRandom(new MotionModels.Linear());
+        registerRandom(new MotionModels.SineX());
+        register(new MotionModels.Orbit());
+        register(new MotionModels.Lissajous());
+        register(new MotionModels.Spline());
+    }
+
+    public static synchronized MotionEngine getInstance() {
+        if (instance == null) {
+            instance = new MotionEngine();
+        }
+        return instance;
+    }
+
+    /**
+     * 注册运动模型（同名模型会被替换，已使用旧模型的对象保持不变）
+     */
+    public synchronized void register(MotionModel model) {
+        models.put(model.getName(), model);
+    }
+
+    /**
+     * 注册运动模型，并让未指定轨迹的新对象可以随机选用它
+     */
+    public synchronized void registerRandom(MotionModel model) {
+        register(model);
+        if (!randomModels.contains(model.getName())) {
+            randomModels.add(model.getName());
+        }
+    }
+
+    public synchronized List<String> getModelNames() {
+        return new ArrayList<>(models.keySet());
+    }
+
+    /**
+     * 加入对象；modelName 为 null 或未注册时从可随机选用的模型中随机选择
+     */
+    public void add(GameObject obj, String modelName, Rectangle2D bounds) {
+        remove(obj);
+        MotionModel model = resolve(modelName);
+        Group group = groups.computeIfAbsent(model, Group::new);
+        int index = group.add(obj);
+        model.initState(obj, group.state, index * group.stateSize, bounds);
+        obj.setKinematic(model.isKinematic());
+        slotOf.put(obj, new Slot(group, index));
+    }
+
+    private synchronized MotionModel resolve(String modelName) {
+        MotionModel model = modelName != null ? models.get(modelName) : null;
+        if (model == null) {
+            model = models.get(randomModels.get(ThreadLocalRandom.current().nextInt(randomModels.size())));
+        }
+        return model;
+    }
+
+    /**
+     * 移除对象（O(1)：组内最后一个对象移到被移除的位置）
+     */
+    public void remove(GameObject obj) {
+        Slot slot = slotOf.remove(obj);
+        if (slot != null) {
+            GameObject moved = slot.group.remove(slot.index);
+            if (moved != null) {
+                slotOf.get(moved).index = slot.index;
+            }
+            obj.setKinematic(false);
+        }
+    }
+
+    public void clear() {
+        for (GameObject obj : slotOf.keySet()) {
+            obj.setKinematic(false);
+        }
+        groups.clear();
+        slotOf.clear();
+    }
+
+    /**
+     * 对象当前使用的运动模型名称（未加入时返回 null）
+     */
+    public String getModelName(GameObject obj) {
+        Slot slot = slotOf.get(obj);
+        return slot != null ? slot.group.model.getName() : null;
+    }
+
+    /**
+     * 推进所有对象一个运动步，返回推进的对象数
+     */
+    public int step(Rectangle2D bounds, double scale) {
+        if (paused) {
+            return 0;
+        }
+        int moved = 0;
+        for (Group group : groups.values()) {
+            if (group.size > PARALLEL_CHUNK && SimulationPool.isParallel()) {
+                int chunks = (group.size + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+                List<ForkJoinTask<Integer>> tasks = new ArrayList<>(chunks);
+                for (int c = 0; c < chunks; c++) {
+                    int from = c * PARALLEL_CHUNK;
+                    int to = Math.min(group.size, from + PARALLEL_CHUNK);
+                    tasks.add(SimulationPool.get().submit(() -> integrateRuns(group, from, to, bounds, scale)));
+                }
+                for (ForkJoinTask<Integer> task : tasks) {
+                    moved += task.join();
+                }
+            } else {
+                moved += integrateRuns(group, 0, group.size, bounds, scale);
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * 跳过静止对象，把 [from, to) 中每一段连续的可运动对象作为一批交给模型
+     */
+    private static int integrateRuns(Group group, int from, int to, Rectangle2D bounds, double scale) {
+        GameObject[] objects = group.objects;
+        int moved = 0;
+        int i = from;
+        while (i < to) {
+            while (i < to && objects[i].isStatic()) {
+                i++;
+            }
+            int start = i;
+            while (i < to && !objects[i].isStatic()) {
+                objects[i].beginStep();
+                i++;
+            }
+            if (i > start) {
+                group.model.integrate(objects, group.state, start, i, bounds, scale);
+                moved += i - start;
+            }
+        }
+        return moved;
+    }
+
+    /**
+     * 暂停或恢复所有对象的运动
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public int size() {
+        return slotOf.size();
+    }
+
+    /**
+     * 当前存活的模拟工作线程数
+     */
+    public int getWorkerCount() {
+        return SimulationPool.getWorkerCount();
+    }
+
+    /**
+     * 各模型的对象数（按模型首次使用的顺序）
+     */
+    public Map<String, Integer> getGroupSizes() {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (Group group : groups.values()) {
+            sizes.put(group.model.getName(), group.size);
+        }
+        return sizes;
+    }
+}
@@ -0,0 +1,46 @@
+package controller;
+
+import model.GameObject;
+
+import java.awt.geom.Rectangle2D;
+
+/**
+ * 运动模型：按批推进使用同一种轨迹的对象
+ * 运动引擎把对象按模型分组，每帧对每组中连续的可运动对象调用一次 integrate，
+ * 调用前已经跳过暂停和休眠的对象，并记录了运动步开始时的位置。
+ * 参数化轨迹（绕圈、李萨如曲线、样条路径等）可以为每个对象保存若干个状态值，
+ * 第 i 个对象的状态位于 state[i * getStateSize()] 开始的连续位置。
+ */
+public interface MotionModel {
+
+    /**
+     * 显示名称，也是注册到运动引擎时使用的键
+     */
+    String getName();
+
+    /**
+     * 每个对象占用的状态值个数
+     */
+    default int getStateSize() {
+        return 0;
+    }
+
+    /**
+     * 是否为运动学轨迹：按自身参数计算位置、不读取 dx/dy 的模型应返回 true，
+     * 这样碰撞求解器把对象当作质量无穷大，力场也不再对它施加加速度，避免作用被下一步的轨迹覆盖
+     */
+    default boolean isKinematic() {
+        return false;
+    }
+
+    /**
+     * 对象加入该模型时初始化其状态（bounds 为当前画布范围，画布尚未布局时可能为空）
+     */
+    default void initState(GameObject obj, double[] state, int offset, Rectangle2D bounds) {
+    }
+
+    /**
+     * 推进 objects[from, to) 一个运动步，scale 为本步位移相对于速度的倍数
+     */
+    void integrate(GameObject[] objects, double[] state, int from, int to, Rectangle2D bounds, double scale);
+}
@@ -0,0 +1,321 @@
+package controller;
+
+import model.GameObject;
+
+import java.awt.geom.Rectangle2D;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 内置运动模型
+ * 波浪、直线和X正弦是原有的三种随机轨迹，按速度 dx/dy 移动并在边界反弹；
+ * 绕圈、李萨如曲线和样条路径是参数化的运动学轨迹：每步按参数计算位置，并把本步位移写回 dx/dy，
+ * 使碰撞求解和连续碰撞检测看到的速度与实际运动一致；它们不响应碰撞冲量和力场，碰撞时只推开其他对象。
+ */
+public final class MotionModels {
+    public static final String WAVE = "波浪轨迹";
+    public static final String LINEAR = "直线轨迹";
+    public static final String SINE_X = "X正弦轨迹";
+    public static final String ORBIT = "绕圈轨迹";
+    public static final String LISSAJOUS = "李萨如轨迹";
+    public static final String SPLINE = "样条轨迹";
+
+    private MotionModels() {}
+
+    /**
+     * X方向直线运动，Y方向叠加随X变化的波浪
+     */
+    public static final class Wave implements MotionModel {
+        @Override
+        public String getName() {
+            return WAVE;
+        }
+
+        @Override
+        public void integrate(GameObject[] objects, double[] state, int from, int to,
+                              Rectangle2D bounds, double scale) {
+            for (int i = from; i < to; i++) {
+                GameObject obj = objects[i];
+                obj.moveBy(obj.getDx() * scale, 0);
+                double wave = Math.sin(obj.getX() * 0.02) * 15;
+                obj.moveBy(0, (obj.getDy() + wave * 0.1) * scale);
+                obj.checkAndHandleBoundary(bounds);
+            }
+        }
+    }
+
+    /**
+     * X和Y方向都是直线运动
+     */
+    public static final class Linear implements MotionModel {
+        @Override
+        public String getName() {
+            return LINEAR;
+        }
+
+        @Override
+        public void integrate(GameObject[] objects, double[] state, int from, int to,
+                              Rectangle2D bounds, double scale) {
+            for (int i = from; i < to; i++) {
+                GameObject obj = objects[i];
+                obj.moveBy(obj.getDx() * scale, obj.getDy() * scale);
+                obj.checkAndHandleBoundary(bounds);
+            }
+        }
+    }
+
+    /**
+     * X方向叠加随Y变化的正弦，Y方向直线运动
+     */
+    public static final class SineX implements MotionModel {
+        @Override
+        public String getName() {
+            return SINE_X;
+        }
+
+        @Override
+        public void integrate(GameObject[] objects, double[] state, int from, int to,
+                              Rectangle2D bounds, double scale) {
+            for (int i = from; i < to; i++) {
+                GameObject obj = objects[i];
+                obj.moveBy((Math.sin(obj.getY() * 0.03) * 2 + obj.getDx()) * scale, obj.getDy() * scale);
+                obj.checkAndHandleBoundary(bounds);
+            }
+        }
+    }
+
+    /**
+     * 绕圈：圆心位于对象朝向画布中心的一侧，线速度取对象原来的速度大小
+     * 状态：圆心x、圆心y、半径、角度、角速度
+     */
+    public static final class Orbit implements MotionModel {
+        @Override
+        public String getName() {
+            return ORBIT;
+        }
+
+        @Override
+        public boolean isKinematic() {
+            return true;
+        }
+
+        @Override
+        public int getStateSize() {
+            return 5;
+        }
+
+        @Override
+        public void initState(GameObject obj, double[] state, int offset, Rectangle2D bounds) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double cx = centerX(obj);
+            double cy = centerY(obj);
+            double radius = 40 + random.nextDouble() * 80;
+            double towardX = 1;
+            double towardY = 0;
+            if (!bounds.isEmpty()) {
+                double offX = bounds.getCenterX() - cx;
+                double offY = bounds.getCenterY() - cy;
+                double length = Math.hypot(offX, offY);
+                if (length > 1) {
+                    towardX = offX / length;
+                    towardY = offY / length;
+                }
+                double room = Math.min(bounds.getWidth() - obj.getObjectWidth(),
+                        bounds.getHeight() - obj.getObjectHeight()) / 2;
+                radius = Math.max(10, Math.min(radius, room));
+            }
+            state[offset] = cx + towardX * radius;
+            state[offset + 1] = cy + towardY * radius;
+            state[offset + 2] = radius;
+            state[offset + 3] = Math.atan2(-towardY, -towardX);
+            double direction = random.nextBoolean() ? 1 : -1;
+            state[offset + 4] = direction * speedOf(obj) / radius;
+        }
+
+        @Override
+        public void integrate(GameObject[] objects, double[] state, int from, int to,
+                              Rectangle2D bounds, double scale) {
+            for (int i = from; i < to; i++) {
+                int s = i * 5;
+                double angle = state[s + 3] + state[s + 4] * scale;
+                state[s + 3] = angle;
+                double radius = state[s + 2];
+                followPath(objects[i], state[s] + Math.cos(angle) * radius,
+                        state[s + 1] + Math.sin(angle) * radius, bounds, scale);
+            }
+        }
+    }
+
+    /**
+     * 李萨如曲线：以对象初始位置为中心，两个方向按不同的整数频率比做正弦运动
+     * 状态：中心x、中心y、X振幅、Y振幅、X频率、Y频率、参数t、参数速度
+     */
+    public static final class Lissajous implements MotionModel {
+        private static final int[][] RATIOS = {{1, 2}, {3, 2}, {3, 4}, {5, 4}};
+
+        @Override
+        public String getName() {
+            return LISSAJOUS;
+        }
+
+        @Override
+        public boolean isKinematic() {
+            return true;
+        }
+
+        @Override
+        public int getStateSize() {
+            return 8;
+        }
+
+        @Override
+        public void initState(GameObject obj, double[] state, int offset, Rectangle2D bounds) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double cx = centerX(obj);
+            double cy = centerY(obj);
+            double ampX = 60 + random.nextDouble() * 90;
+            double ampY = 60 + random.nextDouble() * 90;
+            if (!bounds.isEmpty()) {
+                double halfW = obj.getObjectWidth() / 2;
+                double halfH = obj.getObjectHeight() / 2;
+                ampX = Math.max(10, Math.min(ampX, bounds.getWidth() / 2 - halfW));
+                ampY = Math.max(10, Math.min(ampY, bounds.getHeight() / 2 - halfH));
+                cx = clamp(cx, bounds.getMinX() + halfW + ampX, bounds.getMaxX() - halfW - ampX);
+                cy = clamp(cy, bounds.getMinY() + halfH + ampY, bounds.getMaxY() - halfH - ampY);
+            }
+            int[] ratio = RATIOS[random.nextInt(RATIOS.length)];
+            state[offset] = cx;
+            state[offset + 1] = cy;
+            state[offset + 2] = ampX;
+            state[offset + 3] = ampY;
+            state[offset + 4] = ratio[0];
+            state[offset + 5] = ratio[1];
+            state[offset + 6] = 0;
+            state[offset + 7] = speedOf(obj) / (Math.max(ampX, ampY) * Math.max(ratio[0], ratio[1]));
+        }
+
+        @Override
+        public void integrate(GameObject[] objects, double[] state, int from, int to,
+                              Rectangle2D bounds, double scale) {
+            for (int i = from; i < to; i++) {
+                int s = i * 8;
+                double t = (state[s + 6] + state[s + 7] * scale) % (2 * Math.PI);
+                state[s + 6] = t;
+                followPath(objects[i], state[s] + state[s + 2] * Math.sin(state[s + 4] * t),
+                        state[s + 1] + state[s + 3] * Math.sin(state[s + 5] * t), bounds, scale);
+            }
+        }
+    }
+
+    /**
+     * 样条路径：经过对象初始位置和三个随机点的闭合 Catmull-Rom 样条
+     * 状态：参数t（每段为1）、参数速度、四个控制点的坐标
+     */
+    public static final class Spline implements MotionModel {
+        private static final int POINTS = 4;
+
+        @Override
+        public String getName() {
+            return SPLINE;
+        }
+
+        @Override
+        public boolean isKinematic() {
+            return true;
+        }
+
+        @Override
+        public int getStateSize() {
+            return 2 + POINTS * 2;
+        }
+
+        @Override
+        public void initState(GameObject obj, double[] state, int offset, Rectangle2D bounds) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            double cx = centerX(obj);
+            double cy = centerY(obj);
+            double halfW = obj.getObjectWidth() / 2;
+            double halfH = obj.getObjectHeight() / 2;
+            state[offset + 2] = cx;
+            state[offset + 3] = cy;
+            for (int p = 1; p < POINTS; p++) {
+                double px;
+                double py;
+                if (bounds.isEmpty()) {
+                    px = cx + (random.nextDouble() * 2 - 1) * 150;
+                    py = cy + (random.nextDouble() * 2 - 1) * 150;
+                } else {
+                    px = bounds.getMinX() + halfW + random.nextDouble() * Math.max(0, bounds.getWidth() - 2 * halfW);
+                    py = bounds.getMinY() + halfH + random.nextDouble() * Math.max(0, bounds.getHeight() - 2 * halfH);
+                }
+                state[offset + 2 + p * 2] = px;
+                state[offset + 3 + p * 2] = py;
+            }
+            double chord = 0;
+            for (int p = 0; p < POINTS; p++) {
+                int q = (p + 1) % POINTS;
+                chord += Math.hypot(state[offset + 2 + q * 2] - state[offset + 2 + p * 2],
+                        state[offset + 3 + q * 2] - state[offset + 3 + p * 2]);
+            }
+            state[offset] = 0;
+            state[offset + 1] = speedOf(obj) / Math.max(1, chord / POINTS);
+        }
+
+        @Override
+        public void integrate(GameObject[] objects, double[] state, int from, int to,
+                              Rectangle2D bounds, double scale) {
+            int stride = 2 + POINTS * 2;
+            for (int i = from; i < to; i++) {
+                int s = i * stride;
+                double t = (state[s] + state[s + 1] * scale) % POINTS;
+                state[s] = t;
+                int segment = (int) t;
+                double u = t - segment;
+                int p0 = s + 2 + ((segment + POINTS - 1) % POINTS) * 2;
+                int p1 = s + 2 + segment * 2;
+                int p2 = s + 2 + ((segment + 1) % POINTS) * 2;
+                int p3 = s + 2 + ((segment + 2) % POINTS) * 2;
+                followPath(objects[i], catmullRom(state[p0], state[p1], state[p2], state[p3], u),
+                        catmullRom(state[p0 + 1], state[p1 + 1], state[p2 + 1], state[p3 + 1], u), bounds, scale);
+            }
+        }
+
+        private static double catmullRom(double p0, double p1, double p2, double p3, double u) {
+            double u2 = u * u;
+            double u3 = u2 * u;
+            return 0.5 * (2 * p1 + (p2 - p0) * u + (2 * p0 - 5 * p1 + 4 * p2 - p3) * u2
+                    + (3 * p1 - p0 - 3 * p2 + p3) * u3);
+        }
+    }
+
+    /**
+     * 把对象中心移动到轨迹上的点，并把本步位移折算为速度写回 dx/dy
+     */
+    private static void followPath(GameObject obj, double centerX, double centerY,
+                                   Rectangle2D bounds, double scale) {
+        double x = centerX - obj.getObjectWidth() / 2;
+        double y = centerY - obj.getObjectHeight() / 2;
+        obj.setDx((x - obj.getX()) / scale);
+        obj.setDy((y - obj.getY()) / scale);
+        obj.moveTo(x, y);
+        obj.checkAndHandleBoundary(bounds);
+    }
+
+    private static double centerX(GameObject obj) {
+        return obj.getX() + obj.getObjectWidth() / 2;
+    }
+
+    private static double centerY(GameObject obj) {
+        return obj.getY() + obj.getObjectHeight() / 2;
+    }
+
+    /**
+     * 对象原来的速度大小（每个基准步的位移），参数化轨迹据此确定运动快慢
+     */
+    private static double speedOf(GameObject obj) {
+        return Math.max(0.3, Math.hypot(obj.getDx(), obj.getDy()));
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return min > max ? (min + max) / 2 : Math.max(min, Math.min(max, value));
+    }
+}
@@ -0,0 +1,34 @@
+package controller;
+
+/**
+ * 物理步长配置
+ * 速度 dx/dy 的单位固定为每 BASE_STEP_MILLIS 毫秒的位移；实际的运动步和碰撞检测频率由 -Dphysics.hz 指定
+ * （默认50Hz，允许20～200Hz），每步的位移按步长与基准步长之比放大。
+ * 步长较大时依靠连续碰撞检测（见 CollisionDetector.timeOfImpact）避免快速对象互相穿过。
+ */
+public final class PhysicsConfig {
+    public static final int BASE_STEP_MILLIS = 5;
+
+    private static final int HZ = Math.max(20, Math.min(200, Integer.getInteger("physics.hz", 50)));
+    private static final int STEP_MILLIS = Math.max(BASE_STEP_MILLIS, 1000 / HZ);
+
+    private PhysicsConfig() {}
+
+    public static int getHz() {
+        return 1000 / STEP_MILLIS;
+    }
+
+    /**
+     * 运动步和碰撞检测的间隔（毫秒）
+     */
+    public static int getStepMillis() {
+        return STEP_MILLIS;
+    }
+
+    /**
+     * 每步位移相对于速度的倍数
+     */
+    public static double getStepScale() {
+        return (double) STEP_MILLIS / BASE_STEP_MILLIS;
+    }
+}
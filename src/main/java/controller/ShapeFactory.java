@@ -2,10 +2,22 @@ package controller;
 
 import model.*;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * 形状工厂类
+ * 同时维护每种形状默认的碰撞层和掩码
  */
 public class ShapeFactory {
+    private static final Map<String, int[]> COLLISION_FILTERS = new ConcurrentHashMap<>();
+
+    static {
+        setCollisionFilter("圆形", CollisionLayers.BALL, CollisionLayers.ALL);
+        setCollisionFilter("矩形", CollisionLayers.RECTANGLE, CollisionLayers.ALL);
+        setCollisionFilter("三角形", CollisionLayers.TRIANGLE, CollisionLayers.ALL);
+        setCollisionFilter("装饰", CollisionLayers.DECORATION, CollisionLayers.NONE);
+    }
     
     /**
      * 创建指定类型的形状
@@ -13,16 +25,22 @@ public class ShapeFactory {
     public static GameObject createShape(String shapeType, 
                                         double x, double y, 
                                         double width, double height) {
+        GameObject obj;
         switch (shapeType) {
             case "圆形":
-                return new Ball(x, y, width, height);
+                obj = new Ball(x, y, width, height);
+                break;
             case "矩形":
-                return new Rectangle(x, y, width, height);
+                obj = new Rectangle(x, y, width, height);
+                break;
             case "三角形":
-                return new Triangle(x, y, width, height);
+                obj = new Triangle(x, y, width, height);
+                break;
             default:
-                return new Ball(x, y, width, height);
+                obj = new Ball(x, y, width, height);
         }
+        applyCollisionFilter(obj);
+        return obj;
     }
     
     /**
@@ -36,4 +54,34 @@ public class ShapeFactory {
         
         return createShape(shapeTypes[randomIndex], randomX, randomY, width, height);
     }
+
+    /**
+     * 设置某种形状默认的碰撞层和掩码（只影响之后创建或重新应用的对象）
+     */
+    public static void setCollisionFilter(String shapeType, int layer, int mask) {
+        COLLISION_FILTERS.put(shapeType, new int[]{layer, mask});
+    }
+
+    /**
+     * 按对象的形状类型应用默认的碰撞层和掩码
+     */
+    public static void applyCollisionFilter(GameObject obj) {
+        int[] filter = COLLISION_FILTERS.get(shapeTypeOf(obj));
+        if (filter != null) {
+            obj.setCollisionFilter(filter[0], filter[1]);
+        }
+    }
+
+    /**
+     * 对象对应的形状类型名称
+     */
+    public static String shapeTypeOf(GameObject obj) {
+        if (obj instanceof Rectangle) {
+            return "矩形";
+        }
+        if (obj instanceof Triangle) {
+            return "三角形";
+        }
+        return "圆形";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,56 @@
+package controller;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 模拟工作线程池
+ * 运动、力场和碰撞求解中可以并行的部分都在这个池中执行，线程名为 "Simulation-Worker-N"，
+ * 线程监视器据此把它们的CPU时间归入模拟分组。
+ * 在池中运行的并行流、Arrays.parallelSort 和 ForkJoinTask.invokeAll 都会使用本池而不是公共池。
+ */
+public final class SimulationPool {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    // 提交任务的模拟帧线程在等待期间空闲，工作线程数取全部核数
+    private static final ForkJoinPool POOL = new ForkJoinPool(
+        Runtime.getRuntime().availableProcessors(), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("Simulation-Worker-" + THREAD_COUNT.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+    private SimulationPool() {}
+
+    public static ForkJoinPool get() {
+        return POOL;
+    }
+
+    /**
+     * 是否有多个工作线程（只有一个核可用时并行没有意义）
+     */
+    public static boolean isParallel() {
+        return POOL.getParallelism() > 1;
+    }
+
+    /**
+     * 在池中执行任务并等待完成（已经在池中时直接执行），任务中的并行操作因此不会落到公共池
+     */
+    public static void run(Runnable task) {
+        if (ForkJoinTask.getPool() == POOL) {
+            task.run();
+        } else {
+            POOL.submit(task).join();
+        }
+    }
+
+    /**
+     * 当前存活的工作线程数
+     */
+    public static int getWorkerCount() {
+        return POOL.getPoolSize();
+    }
+}
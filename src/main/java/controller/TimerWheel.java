@@ -0,0 +1,137 @@
+package controller;
+
+/**
+ * 哈希时间轮
+ * 以模拟帧为时间单位，定时任务按到期帧号散列到固定数量的槽中（槽内为双向链表），
+ * 每帧只检查当前槽，调度和取消都是 O(1)。超过一圈的任务留在槽中，到期帧到达时才执行。
+ * 没有任何定时任务时每帧的开销只是检查一个空槽。
+ * 可用于碰撞闪烁、悬停渐隐、暂停提示、粒子寿命等短暂的显示状态。
+ * 非线程安全，只在模拟帧线程（EDT）中使用。
+ */
+public class TimerWheel {
+    private final Timeout[] slots;
+    private final int mask;
+    private long currentTick;
+    private int pending;
+
+    /**
+     * 一个定时任务，可用于取消
+     */
+    public static final class Timeout {
+        private final Runnable task;
+        private final long deadline;
+        private Timeout prev;
+        private Timeout next;
+        private int slot = -1; // -1 表示已执行或已取消
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public boolean isPending() {
+            return slot >= 0;
+        }
+
+        public long getDeadline() {
+            return deadline;
+        }
+    }
+
+    /**
+     * slotCount 会向上取整为2的幂
+     */
+    public TimerWheel(int slotCount) {
+        int size = Integer.highestOneBit(Math.max(2, slotCount) * 2 - 1);
+        slots = new Timeout[size];
+        mask = size - 1;
+    }
+
+    /**
+     * 在 delayTicks 帧之后执行任务（至少1帧）
+     */
+    public Timeout schedule(int delayTicks, Runnable task) {
+        Timeout timeout = new Timeout(task, currentTick + Math.max(1, delayTicks));
+        int slot = (int) (timeout.deadline & mask);
+        timeout.slot = slot;
+        timeout.next = slots[slot];
+        if (timeout.next != null) {
+            timeout.next.prev = timeout;
+        }
+        slots[slot] = timeout;
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * 取消尚未执行的任务，返回是否取消成功
+     */
+    public boolean cancel(Timeout timeout) {
+        if (timeout == null || timeout.slot < 0) {
+            return false;
+        }
+        unlink(timeout);
+        return true;
+    }
+
+    /**
+     * 推进一帧并执行到期的任务，返回执行的数量
+     */
+    public int advance() {
+        currentTick++;
+        int slot = (int) (currentTick & mask);
+        Timeout timeout = slots[slot];
+        int fired = 0;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.deadline <= currentTick) {
+                unlink(timeout);
+                timeout.task.run();
+                fired++;
+                if (next != null && next.slot != slot) {
+                    // 任务取消了下一个定时任务，从槽头重新遍历
+                    next = slots[slot];
+                }
+            }
+            timeout = next;
+        }
+        return fired;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            slots[timeout.slot] = timeout.next;
+        }
+        if (timeout.next != null) {
+            timeout.next.prev = timeout.prev;
+        }
+        timeout.prev = null;
+        timeout.next = null;
+        timeout.slot = -1;
+        pending--;
+    }
+
+    /**
+     * 取消所有任务
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            while (slots[i] != null) {
+                unlink(slots[i]);
+            }
+        }
+    }
+
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * 等待执行的任务数
+     */
+    public int getPendingCount() {
+        return pending;
+    }
+}
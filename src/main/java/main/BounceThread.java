@@ -1,7 +1,14 @@
 package main;
 
 import view.BounceFrame;
+import monitor.EdtWatchdog;
 import monitor.EnhancedFileLogger;  // 添加这一行
+import monitor.JmxSupport;
+import monitor.LoggingMetrics;
+import monitor.MetricsRecorder;
+import monitor.SimulationMetrics;
+import monitor.ThreadMonitor;
+import storage.StorageMetrics;
 import javax.swing.*;
 import java.awt.*;
 
@@ -11,12 +18,26 @@ public class BounceThread {
         EnhancedFileLogger logger = EnhancedFileLogger.getInstance();
         logger.logGameStart();
 
+        // 定时采样运行指标
+        MetricsRecorder.getInstance().start();
+
+        // 监视EDT卡顿
+        EdtWatchdog.getInstance().start();
+
+        // 线程CPU与争用采样
+        ThreadMonitor.getInstance().start();
+
         // 添加关闭钩子，确保日志系统正确关闭
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            MetricsRecorder.getInstance().shutdown();
             logger.logGameEnd();
             logger.shutdown();
         }));
 
+        // 注册JMX管理接口（JConsole/VisualVM中查看 bounce 域）
+        JmxSupport.register(new LoggingMetrics(), LoggingMetrics.OBJECT_NAME);
+        JmxSupport.register(new StorageMetrics(), StorageMetrics.OBJECT_NAME);
+
         // 使用事件分发线程启动GUI
         EventQueue.invokeLater(new Runnable() {
             @Override
@@ -35,6 +56,8 @@ public class BounceThread {
                 // 居中显示
                 frame.setLocationRelativeTo(null);
 
+                JmxSupport.register(new SimulationMetrics(frame.getShapeComponent()), SimulationMetrics.OBJECT_NAME);
+
                 // 记录窗口创建
                 logger.log("主窗口已创建并显示");
             }
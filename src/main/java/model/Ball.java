@@ -29,7 +29,7 @@ public class Ball extends GameObject {
     }
 
     @Override
-    public Shape getShape() {
+    protected Shape createShape() {
         return new Ellipse2D.Double(x, y, size, size);
     }
 }
\ No newline at end of file
@@ -0,0 +1,40 @@
+package model;
+
+/**
+ * 碰撞层定义
+ * 每个对象属于一个层（单个位），并带有一个掩码表示与哪些层碰撞；
+ * 两个对象只有在各自的层都在对方掩码中时才会做碰撞检测。
+ */
+public final class CollisionLayers {
+    public static final int LAYER_COUNT = 8;
+
+    public static final int BALL = 1;
+    public static final int RECTANGLE = 1 << 1;
+    public static final int TRIANGLE = 1 << 2;
+    public static final int DECORATION = 1 << 3; // 装饰图形：默认不与任何对象碰撞
+
+    public static final int ALL = -1;
+    public static final int NONE = 0;
+
+    private static final String[] NAMES = {"圆形", "矩形", "三角形", "装饰", "层4", "层5", "层6", "层7"};
+
+    private CollisionLayers() {}
+
+    /**
+     * 两个对象是否需要做碰撞检测
+     */
+    public static boolean canCollide(int layer1, int mask1, int layer2, int mask2) {
+        return (layer1 & mask2) != 0 && (layer2 & mask1) != 0;
+    }
+
+    /**
+     * 层的序号（取最低位，超出范围时归入最后一层）
+     */
+    public static int index(int layer) {
+        return Math.min(Integer.numberOfTrailingZeros(layer), LAYER_COUNT - 1);
+    }
+
+    public static String nameOf(int index) {
+        return NAMES[index];
+    }
+}
@@ -5,22 +5,40 @@ package model;
 import java.awt.*;
 import java.awt.geom.*;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 游戏对象的抽象基类
  */
 public abstract class GameObject {
+    /* 对象编号生成器：编号单调递增，可用于录制回放和跨帧识别对象 */
+    private static final AtomicInteger ID_GENERATOR = new AtomicInteger(0);
+
+    private final int id;            // 对象唯一编号
     protected double x, y;           // 位置
     protected double dx, dy;         // 速度
+    protected volatile double prevX, prevY; // 上一个运动步开始时的位置（用于连续碰撞检测）
     protected Color color;           // 颜色
     protected double size;           // 基础大小
     protected Random rand;
 
-    /* 第五次修改内容：添加碰撞相关属性 */
-    private boolean isColliding;     // 是否处于碰撞状态
+    /* 第五次修改内容：添加碰撞相关属性（碰撞显示的到期由模拟帧的时间轮负责） */
+    private volatile boolean isColliding; // 是否处于碰撞状态
     private Color originalColor;     // 原始颜色
-    private long collisionStartTime; // 碰撞开始时间
-    private static final long COLLISION_DISPLAY_DURATION = 200; // 碰撞显示时间（毫秒）
+
+    /* 休眠：速度持续低于阈值的对象停止运动，直到被运动中的对象碰到 */
+    private volatile boolean isSleeping;
+    private int restTicks;
+
+    /* 运动学对象：位置由运动模型按轨迹直接给出，碰撞冲量和力场都不改变它的运动 */
+    private volatile boolean kinematic;
+
+    /* 碰撞层和掩码（见 CollisionLayers），默认与所有层碰撞 */
+    private volatile int collisionLayer = CollisionLayers.BALL;
+    private volatile int collisionMask = CollisionLayers.ALL;
+
+    /* 形状缓存：位置未变化时复用上一次创建的形状 */
+    private volatile CachedShape cachedShape;
 
     /* 恢复原有功能：添加悬停和暂停状态 */
     private boolean isHovered;       // 是否被鼠标悬停
@@ -28,6 +46,7 @@ public abstract class GameObject {
     private Color hoverColor;        // 悬停时的颜色（变浅）
 
     public GameObject() {
+        this.id = ID_GENERATOR.incrementAndGet();
         this.rand = new Random();
         this.isColliding = false;
         this.isHovered = false;
@@ -51,6 +70,8 @@ public abstract class GameObject {
         if (this.y < 0) this.y = 0;
         if (this.x + size > canvasWidth) this.x = canvasWidth - size;
         if (this.y + size > canvasHeight) this.y = canvasHeight - size;
+        this.prevX = this.x;
+        this.prevY = this.y;
 
         // 随机移动速度：-3到3之间
         this.dx = (rand.nextDouble() * 2) - 1;
@@ -79,6 +100,8 @@ public abstract class GameObject {
         // 随机初始位置：在画布范围内
         this.x = rand.nextDouble() * (width - size * 2);
         this.y = rand.nextDouble() * (height - size * 2);
+        this.prevX = this.x;
+        this.prevY = this.y;
 
         // 随机移动速度
         this.dx = (rand.nextDouble() * 2) - 1;  // -1到1
@@ -98,74 +121,33 @@ public abstract class GameObject {
     }
 
     /**
-     * 移动方法 - 带波浪轨迹
+     * 记录运动步开始时的位置（运动引擎在每个运动步之前调用）
      */
-    public void waveMove(Rectangle2D bounds) {
-        // 如果暂停，不移动
-        if (isPaused) {
-            return;
-        }
-
-        // X方向：直线运动
-        x += dx;
-
-        // Y方向：添加波浪效果
-        double wave = Math.sin(x * 0.02) * 15;
-        y += dy + wave * 0.1;
-
-        // 边界碰撞处理
-        checkAndHandleBoundary(bounds);
-
-        // 第五次修改内容：更新碰撞显示状态
-        updateCollisionDisplay();
+    public void beginStep() {
+        prevX = x;
+        prevY = y;
     }
 
     /**
-     * 全直线移动
+     * 在当前运动步中平移（不改变运动步开始时的位置）
      */
-    public void straightLineMove(Rectangle2D bounds) {
-        // 如果暂停，不移动
-        if (isPaused) {
-            return;
-        }
-
-        // X和Y方向都是直线运动
-        x += dx;
-        y += dy;
-
-        // 边界碰撞处理
-        checkAndHandleBoundary(bounds);
-
-        // 第五次修改内容：更新碰撞显示状态
-        updateCollisionDisplay();
+    public void moveBy(double offsetX, double offsetY) {
+        x += offsetX;
+        y += offsetY;
     }
 
     /**
-     * X正弦，Y直线移动
+     * 在当前运动步中移动到指定位置（不改变运动步开始时的位置）
      */
-    public void sinXMove(Rectangle2D bounds) {
-        // 如果暂停，不移动
-        if (isPaused) {
-            return;
-        }
-
-        // X方向：正弦运动
-        x += Math.sin(y * 0.03) * 2 + dx;
-
-        // Y方向：直线运动
-        y += dy;
-
-        // 边界碰撞处理
-        checkAndHandleBoundary(bounds);
-
-        // 第五次修改内容：更新碰撞显示状态
-        updateCollisionDisplay();
+    public void moveTo(double x, double y) {
+        this.x = x;
+        this.y = y;
     }
 
     /**
-     * 边界碰撞处理（通用方法）
+     * 边界碰撞处理（通用方法，由各运动模型在移动后调用）
      */
-    private void checkAndHandleBoundary(Rectangle2D bounds) {
+    public void checkAndHandleBoundary(Rectangle2D bounds) {
         if (x < bounds.getMinX()) {
             x = bounds.getMinX();
             dx = -dx;
@@ -186,34 +168,78 @@ public abstract class GameObject {
     }
 
     /**
-     * 第五次修改内容：更新碰撞显示状态
-     * 如果碰撞时间超过指定时长，则恢复原色
+     * 获取形状宽度
      */
-    private void updateCollisionDisplay() {
-        if (isColliding) {
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - collisionStartTime > COLLISION_DISPLAY_DURATION) {
-                isColliding = false;
-                color = originalColor;
-                hoverColor = color.brighter(); // 更新悬停颜色
-            }
+    protected abstract double getWidth();
+
+    /**
+     * 获取形状高度
+     */
+    protected abstract double getHeight();
+
+    /**
+     * 创建当前位置的形状
+     */
+    protected abstract Shape createShape();
+
+    /**
+     * 获取形状（位置和大小未变化时返回缓存的形状，调用方不能修改返回值）
+     */
+    public Shape getShape() {
+        CachedShape cached = cachedShape;
+        double cx = x;
+        double cy = y;
+        if (cached == null || cached.x != cx || cached.y != cy || cached.size != size) {
+            cached = new CachedShape(cx, cy, size, createShape());
+            cachedShape = cached;
         }
+        return cached.shape;
     }
 
     /**
-     * 获取形状宽度
+     * 形状与创建时的位置（整体替换，跨线程读取时不会看到不一致的组合）
      */
-    protected abstract double getWidth();
+    private static final class CachedShape {
+        final double x;
+        final double y;
+        final double size;
+        final Shape shape;
+
+        CachedShape(double x, double y, double size, Shape shape) {
+            this.x = x;
+            this.y = y;
+            this.size = size;
+            this.shape = shape;
+        }
+    }
 
     /**
-     * 获取形状高度
+     * 获取对象编号
      */
-    protected abstract double getHeight();
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * 获取对象宽度（供外部模块使用）
+     */
+    public double getObjectWidth() {
+        return getWidth();
+    }
+
+    /**
+     * 获取对象高度（供外部模块使用）
+     */
+    public double getObjectHeight() {
+        return getHeight();
+    }
 
     /**
-     * 获取形状
+     * 获取原始颜色（不含碰撞反色和悬停效果）
      */
-    public abstract Shape getShape();
+    public Color getBaseColor() {
+        return originalColor;
+    }
 
     /**
      * 获取颜色
@@ -245,14 +271,29 @@ public abstract class GameObject {
     public void setPosition(double x, double y) {
         this.x = x;
         this.y = y;
+        this.prevX = x;
+        this.prevY = y;
     }
 
     /**
      * 设置中心位置
      */
     public void setCenterPosition(double centerX, double centerY) {
-        this.x = centerX - size / 2;
-        this.y = centerY - size / 2;
+        setPosition(centerX - size / 2, centerY - size / 2);
+    }
+
+    /**
+     * 上一个运动步开始时的X坐标
+     */
+    public double getPreviousX() {
+        return prevX;
+    }
+
+    /**
+     * 上一个运动步开始时的Y坐标
+     */
+    public double getPreviousY() {
+        return prevY;
     }
 
     /**
@@ -302,9 +343,7 @@ public abstract class GameObject {
      */
     public void setColliding(boolean colliding) {
         this.isColliding = colliding;
-        if (colliding) {
-            collisionStartTime = System.currentTimeMillis();
-        } else {
+        if (!colliding) {
             color = originalColor;
             hoverColor = color.brighter(); // 更新悬停颜色
         }
@@ -338,6 +377,9 @@ public abstract class GameObject {
      */
     public void togglePause() {
         this.isPaused = !this.isPaused;
+        if (!isPaused) {
+            wakeUp();
+        }
     }
 
     /**
@@ -347,6 +389,72 @@ public abstract class GameObject {
         return isPaused;
     }
 
+    /**
+     * 设置碰撞层和掩码
+     */
+    public void setCollisionFilter(int layer, int mask) {
+        this.collisionLayer = layer;
+        this.collisionMask = mask;
+    }
+
+    public int getCollisionLayer() {
+        return collisionLayer;
+    }
+
+    public int getCollisionMask() {
+        return collisionMask;
+    }
+
+    /**
+     * 检查是否休眠
+     */
+    public boolean isSleeping() {
+        return isSleeping;
+    }
+
+    /**
+     * 是否为运动学对象（碰撞求解时质量视为无穷大，也不受力场作用，但仍会推开其他对象）
+     */
+    public boolean isKinematic() {
+        return kinematic;
+    }
+
+    public void setKinematic(boolean kinematic) {
+        this.kinematic = kinematic;
+    }
+
+    /**
+     * 是否为静止物体（暂停或休眠），静止物体不运动，也不主动参与碰撞检测
+     */
+    public boolean isStatic() {
+        return isPaused || isSleeping;
+    }
+
+    /**
+     * 更新休眠计时：速度连续若干帧低于阈值时进入休眠并清零速度，返回是否刚进入休眠
+     */
+    public boolean updateSleep(double speedThreshold, int ticksToSleep) {
+        if (dx * dx + dy * dy >= speedThreshold * speedThreshold) {
+            restTicks = 0;
+            return false;
+        }
+        if (++restTicks < ticksToSleep) {
+            return false;
+        }
+        dx = 0;
+        dy = 0;
+        isSleeping = true;
+        return true;
+    }
+
+    /**
+     * 唤醒休眠的对象
+     */
+    public void wakeUp() {
+        isSleeping = false;
+        restTicks = 0;
+    }
+
     /**
      * 检查点是否在形状内
      */
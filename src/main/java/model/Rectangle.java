@@ -35,7 +35,7 @@ public class Rectangle extends GameObject {
     }
 
     @Override
-    public Shape getShape() {
+    protected Shape createShape() {
         return new Rectangle2D.Double(x, y, width, height);
     }
 }
\ No newline at end of file
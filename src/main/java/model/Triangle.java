@@ -45,7 +45,7 @@ public class Triangle extends GameObject {
     }
 
     @Override
-    public Shape getShape() {
+    protected Shape createShape() {
         updateVertices();
         Path2D triangle = new Path2D.Double();
         triangle.moveTo(xPoints[0], yPoints[0]);
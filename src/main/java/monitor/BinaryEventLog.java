@@ -0,0 +1,229 @@
+package monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static monitor.LogEvents.*;
+
+/**
+ * 二进制结构化事件日志
+ * 每条记录为：事件编码(varint) + 距上一条记录的微秒数(zigzag varint) + 按事件类型排列的字段；
+ * 对象类型名、操作名等重复出现的字符串在文件内首次出现时定义，之后只写编号。
+ * 每个文件自带文件头和字符串表，可以单独解码（见 BinaryLogDecoder）。
+ * 本类只允许日志写入线程调用。
+ */
+public class BinaryEventLog {
+    public static final String FILE_PREFIX = "game_events_";
+    public static final String FILE_SUFFIX = ".bin";
+
+    static final int MAGIC = 0x4941454C; // "IAEL"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 17;
+
+    private static final int MAX_INTERNED = 4096;
+
+    private final FileChannelLogSink sink;
+    private final long baseEpochMillis;
+    private final long baseNanos;
+    private final TimeZone timeZone = TimeZone.getDefault();
+
+    // 当前文件的字符串表和时间基准，切换文件时重置
+    private final Map<String, Integer> strings = new HashMap<>();
+    private long lastMicros;
+
+    private ByteBuffer record = ByteBuffer.allocate(1024);
+    private long recordCount;
+
+    public BinaryEventLog(File logDir, long maxFileBytes, int maxLogFiles, long flushIntervalMillis,
+                          long baseEpochMillis, long baseNanos) {
+        this.baseEpochMillis = baseEpochMillis;
+        this.baseNanos = baseNanos;
+        this.sink = new FileChannelLogSink(logDir, FILE_PREFIX, FILE_SUFFIX, maxFileBytes,
+            maxLogFiles, flushIntervalMillis, this::buildHeader);
+    }
+
+    public void open() throws IOException {
+        sink.open();
+    }
+
+    /**
+     * 文件头：魔数、版本、时间基准（毫秒）、时区偏移（毫秒）
+     */
+    private ByteBuffer buildHeader(File file) {
+        strings.clear();
+        lastMicros = 0;
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC);
+        header.put((byte) VERSION);
+        header.putLong(baseEpochMillis);
+        header.putInt(timeZone.getOffset(baseEpochMillis));
+        header.flip();
+        return header;
+    }
+
+    /**
+     * 写入一个环形缓冲区事件（参数含义与 EnhancedFileLogger 中的发布方一致）
+     */
+    public void append(int code, long nanos, long arg0, long arg1, long arg2, Object ref0, Object ref1)
+            throws IOException {
+        encode(code, nanos, arg0, arg1, arg2, ref0, ref1);
+        if (!sink.fits(record.remaining())) {
+            // 新文件的字符串表为空，需要按新文件重新编码
+            sink.rotate();
+            encode(code, nanos, arg0, arg1, arg2, ref0, ref1);
+        }
+        sink.write(record);
+        recordCount++;
+    }
+
+    /**
+     * 写入一条已格式化的文本消息（汇总行、系统提示等）
+     */
+    public void appendMessage(LogCategory category, LogLevel level, long nanos, CharSequence text)
+            throws IOException {
+        append(code(EVT_MESSAGE, category, level), nanos, 0, 0, 0, text.toString(), null);
+    }
+
+    private void encode(int code, long nanos, long arg0, long arg1, long arg2, Object ref0, Object ref1) {
+        record.clear();
+        ensureCapacity(32);
+        long micros = (nanos - baseNanos) / 1000;
+        VarInt.putVarLong(record, code);
+        VarInt.putZigZag(record, micros - lastMicros);
+        lastMicros = micros;
+
+        switch (typeOf(code)) {
+            case EVT_COLLISION:
+                VarInt.putVarLong(record, arg0);
+                putRef(ref0);
+                putRef(ref1);
+                break;
+            case EVT_OBJECT_CREATED:
+                // 坐标与文本日志一样保留一位小数
+                VarInt.putVarLong(record, arg0);
+                putRef(ref0);
+                VarInt.putZigZag(record, Math.round(Double.longBitsToDouble(arg1) * 10));
+                VarInt.putZigZag(record, Math.round(Double.longBitsToDouble(arg2) * 10));
+                break;
+            case EVT_OBJECT_REMOVED:
+                putRef(ref0);
+                VarInt.putZigZag(record, arg0);
+                break;
+            case EVT_FRAME:
+                VarInt.putVarLong(record, arg0);
+                break;
+            case EVT_MOUSE:
+                putRef(ref0);
+                VarInt.putZigZag(record, arg0);
+                VarInt.putZigZag(record, arg1);
+                break;
+            case EVT_ERROR:
+                Throwable error = (Throwable) ref1;
+                putString(ref0 != null ? ref0.toString() : null);
+                putString(error != null ? error.getMessage() : null);
+                break;
+            case EVT_PERFORMANCE:
+                putRef(ref0);
+                VarInt.putVarLong(record, arg0);
+                break;
+            case EVT_LABELED:
+                putRef(ref0);
+                VarInt.putZigZag(record, arg0);
+                break;
+            case EVT_RAW:
+            case EVT_MESSAGE:
+            default:
+                putString(ref0 != null ? ref0.toString() : null);
+                break;
+        }
+        record.flip();
+    }
+
+    /**
+     * 写入可复用的字符串：0 表示 null；偶数为已定义的编号；
+     * 奇数表示在此处定义新编号（编号为0时表示字符串表已满，只内联不登记），后跟字符串内容
+     */
+    private void putRef(Object value) {
+        if (value == null) {
+            VarInt.putVarLong(record, 0);
+            return;
+        }
+        String text = value.toString();
+        Integer id = strings.get(text);
+        if (id != null) {
+            VarInt.putVarLong(record, (long) id << 1);
+            return;
+        }
+        int newId = 0;
+        if (strings.size() < MAX_INTERNED) {
+            newId = strings.size() + 1;
+            strings.put(text, newId);
+        }
+        ensureCapacity(VarInt.MAX_BYTES);
+        VarInt.putVarLong(record, ((long) newId << 1) | 1);
+        putString(text);
+    }
+
+    /**
+     * 写入内联字符串：长度+1（0 表示 null），后跟UTF-8字节
+     */
+    private void putString(String text) {
+        if (text == null) {
+            ensureCapacity(1);
+            VarInt.putVarLong(record, 0);
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ensureCapacity(bytes.length + VarInt.MAX_BYTES);
+        VarInt.putVarLong(record, bytes.length + 1L);
+        record.put(bytes);
+    }
+
+    private void ensureCapacity(int bytes) {
+        // 固定字段最多占用 32 字节，这里为字符串之外的字段预留空间
+        int needed = record.position() + bytes + 32;
+        if (needed > record.capacity()) {
+            ByteBuffer grown = ByteBuffer.allocate(Math.max(needed, record.capacity() * 2));
+            record.flip();
+            grown.put(record);
+            record = grown;
+        }
+    }
+
+    public void flushIfDue() throws IOException {
+        sink.flushIfDue();
+    }
+
+    public long nanosUntilFlush() {
+        return sink.nanosUntilFlush();
+    }
+
+    public void flush() throws IOException {
+        sink.flush();
+    }
+
+    public void scheduleRetention() {
+        sink.scheduleRetention();
+    }
+
+    public File getActiveFile() {
+        return sink.getActiveFile();
+    }
+
+    public long getTotalBytesWritten() {
+        return sink.getTotalBytesWritten();
+    }
+
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    public void close() {
+        sink.close();
+    }
+}
@@ -0,0 +1,409 @@
+package monitor;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static monitor.LogEvents.*;
+
+/**
+ * 二进制事件日志的离线解码工具
+ * 逐条流式读取记录（支持 .bin.gz），内存占用与文件大小无关：
+ *   java monitor.BinaryLogDecoder text  文件...   输出与文本日志相同格式的行
+ *   java monitor.BinaryLogDecoder csv   文件...   输出CSV
+ *   java monitor.BinaryLogDecoder stats 文件...   输出按事件类型、碰撞类型对等的统计
+ */
+public class BinaryLogDecoder {
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<>();
+    private final long baseEpochMillis;
+    private final int timeZoneOffset;
+    private long micros;
+
+    // 当前记录
+    private int code;
+    private long arg0;
+    private long arg1;
+    private long arg2;
+    private String text0;
+    private String text1;
+
+    public BinaryLogDecoder(InputStream input) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(input, 64 * 1024));
+        if (in.readInt() != BinaryEventLog.MAGIC) {
+            throw new IOException("不是二进制事件日志文件");
+        }
+        int version = in.readUnsignedByte();
+        if (version != BinaryEventLog.VERSION) {
+            throw new IOException("不支持的版本: " + version);
+        }
+        baseEpochMillis = in.readLong();
+        timeZoneOffset = in.readInt();
+        strings.add(null); // 编号从1开始
+    }
+
+    public static BinaryLogDecoder open(File file) throws IOException {
+        InputStream input = Files.newInputStream(file.toPath());
+        if (file.getName().endsWith(".gz")) {
+            input = new GZIPInputStream(input, 64 * 1024);
+        }
+        return new BinaryLogDecoder(input);
+    }
+
+    /**
+     * 读取下一条记录，文件结束（或末尾记录不完整）时返回false
+     */
+    public boolean next() throws IOException {
+        try {
+            code = (int) VarInt.readVarLong(in);
+        } catch (EOFException e) {
+            return false;
+        }
+        try {
+            micros += VarInt.readZigZag(in);
+            arg0 = arg1 = arg2 = 0;
+            text0 = text1 = null;
+            switch (typeOf(code)) {
+                case EVT_COLLISION:
+                    arg0 = VarInt.readVarLong(in);
+                    text0 = readRef();
+                    text1 = readRef();
+                    break;
+                case EVT_OBJECT_CREATED:
+                    arg0 = VarInt.readVarLong(in);
+                    text0 = readRef();
+                    arg1 = VarInt.readZigZag(in);
+                    arg2 = VarInt.readZigZag(in);
+                    break;
+                case EVT_OBJECT_REMOVED:
+                    text0 = readRef();
+                    arg0 = VarInt.readZigZag(in);
+                    break;
+                case EVT_FRAME:
+                    arg0 = VarInt.readVarLong(in);
+                    break;
+                case EVT_MOUSE:
+                    text0 = readRef();
+                    arg0 = VarInt.readZigZag(in);
+                    arg1 = VarInt.readZigZag(in);
+                    break;
+                case EVT_ERROR:
+                    text0 = readString();
+                    text1 = readString();
+                    break;
+                case EVT_PERFORMANCE:
+                    text0 = readRef();
+                    arg0 = VarInt.readVarLong(in);
+                    break;
+                case EVT_LABELED:
+                    text0 = readRef();
+                    arg0 = VarInt.readZigZag(in);
+                    break;
+                default:
+                    text0 = readString();
+                    break;
+            }
+            return true;
+        } catch (EOFException e) {
+            return false; // 写入中断时最后一条记录可能不完整
+        }
+    }
+
+    private String readRef() throws IOException {
+        long value = VarInt.readVarLong(in);
+        if (value == 0) {
+            return null;
+        }
+        int id = (int) (value >>> 1);
+        if ((value & 1) == 0) {
+            return id < strings.size() ? strings.get(id) : "?";
+        }
+        String text = readString();
+        if (id != 0) {
+            strings.add(text);
+        }
+        return text;
+    }
+
+    private String readString() throws IOException {
+        int length = (int) VarInt.readVarLong(in);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length - 1];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int getType() {
+        return typeOf(code);
+    }
+
+    public LogCategory getCategory() {
+        return LogCategory.values()[Math.min(categoryOf(code), LogCategory.values().length - 1)];
+    }
+
+    public LogLevel getLevel() {
+        return LogLevel.values()[Math.min(levelOf(code), LogLevel.values().length - 1)];
+    }
+
+    public long getEpochMillis() {
+        return baseEpochMillis + micros / 1000;
+    }
+
+    /**
+     * 按文本日志的格式输出当前记录
+     */
+    public void appendText(StringBuilder sb) {
+        int type = getType();
+        if (type == EVT_RAW) {
+            sb.append(text0);
+            if (text0 == null || !text0.endsWith("\n")) {
+                sb.append('\n');
+            }
+            return;
+        }
+        sb.append('[');
+        appendTime(sb);
+        sb.append("] ");
+        LogLevel level = getLevel();
+        if (level != LogLevel.INFO && type != EVT_ERROR && type != EVT_PERFORMANCE) {
+            sb.append('[').append(level).append("] ");
+        }
+        switch (type) {
+            case EVT_COLLISION:
+                sb.append("[碰撞#").append(arg0).append("] ").append(text0).append(" ↔ ").append(text1);
+                appendTimeSuffix(sb);
+                break;
+            case EVT_OBJECT_CREATED:
+                sb.append("[创建#").append(arg0).append("] ").append(text0).append(" @ (");
+                appendTenths(sb, arg1);
+                sb.append(", ");
+                appendTenths(sb, arg2);
+                sb.append(')');
+                appendTimeSuffix(sb);
+                break;
+            case EVT_OBJECT_REMOVED:
+                sb.append("[移除] ").append(text0).append(" | 剩余: ").append(arg0);
+                appendTimeSuffix(sb);
+                break;
+            case EVT_FRAME:
+                sb.append("[帧#").append(arg0).append("] 运行中...");
+                appendTimeSuffix(sb);
+                break;
+            case EVT_MOUSE:
+                sb.append("[鼠标] ").append(text0).append(" @ (").append(arg0).append(", ").append(arg1).append(')');
+                appendTimeSuffix(sb);
+                break;
+            case EVT_ERROR:
+                sb.append("[错误] ").append(text0).append(" | 异常: ").append(text1);
+                appendTimeSuffix(sb);
+                break;
+            case EVT_PERFORMANCE:
+                sb.append("[性能] ").append(text0).append(" 耗时: ").append(arg0).append("ms");
+                appendTimeSuffix(sb);
+                break;
+            case EVT_LABELED:
+                sb.append(text0).append(": ").append(arg0);
+                break;
+            default:
+                sb.append(text0);
+                break;
+        }
+        sb.append('\n');
+    }
+
+    /**
+     * 输出当前记录的CSV行：时间,级别,分类,事件,数值1,数值2,数值3,文本1,文本2
+     */
+    public void appendCsv(StringBuilder sb) {
+        sb.append(getEpochMillis()).append(',')
+            .append(getLevel()).append(',')
+            .append(getCategory()).append(',')
+            .append(typeName(getType())).append(',')
+            .append(arg0).append(',');
+        if (getType() == EVT_OBJECT_CREATED) {
+            appendTenths(sb, arg1);
+            sb.append(',');
+            appendTenths(sb, arg2);
+        } else {
+            sb.append(arg1).append(',').append(arg2);
+        }
+        sb.append(',');
+        appendCsvText(sb, text0);
+        sb.append(',');
+        appendCsvText(sb, text1);
+        sb.append('\n');
+    }
+
+    private static void appendCsvText(StringBuilder sb, String text) {
+        if (text == null) {
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                sb.append("\"\"");
+            } else if (c == '\n') {
+                sb.append("\\n");
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append('"');
+    }
+
+    private void appendTimeSuffix(StringBuilder sb) {
+        sb.append(" | 时间: ");
+        appendTime(sb);
+    }
+
+    private void appendTime(StringBuilder sb) {
+        long local = getEpochMillis() + timeZoneOffset;
+        int msOfDay = (int) Math.floorMod(local, 86_400_000L);
+        sb.append(String.format("%02d:%02d:%02d.%03d", msOfDay / 3_600_000, msOfDay / 60_000 % 60,
+            msOfDay / 1000 % 60, msOfDay % 1000));
+    }
+
+    private static void appendTenths(StringBuilder sb, long tenths) {
+        if (tenths < 0) {
+            sb.append('-');
+            tenths = -tenths;
+        }
+        sb.append(tenths / 10).append('.').append(tenths % 10);
+    }
+
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * 流式统计：各事件类型数量、碰撞类型对、对象创建类型和最慢的操作
+     */
+    private static class Stats {
+        final long[] typeCounts = new long[16];
+        final Map<String, long[]> collisionPairs = new HashMap<>();
+        final Map<String, long[]> createdTypes = new HashMap<>();
+        final Map<String, long[]> slowest = new HashMap<>(); // 操作 -> {次数, 最大耗时}
+        long records;
+        long firstMillis = Long.MAX_VALUE;
+        long lastMillis = Long.MIN_VALUE;
+        long bytes;
+
+        void add(BinaryLogDecoder d) {
+            records++;
+            int type = d.getType();
+            typeCounts[Math.min(type, typeCounts.length - 1)]++;
+            firstMillis = Math.min(firstMillis, d.getEpochMillis());
+            lastMillis = Math.max(lastMillis, d.getEpochMillis());
+            switch (type) {
+                case EVT_COLLISION:
+                    String t1 = String.valueOf(d.text0);
+                    String t2 = String.valueOf(d.text1);
+                    String pair = t1.compareTo(t2) <= 0 ? t1 + " ↔ " + t2 : t2 + " ↔ " + t1;
+                    collisionPairs.computeIfAbsent(pair, k -> new long[1])[0]++;
+                    break;
+                case EVT_OBJECT_CREATED:
+                    createdTypes.computeIfAbsent(String.valueOf(d.text0), k -> new long[1])[0]++;
+                    break;
+                case EVT_PERFORMANCE:
+                    long[] perf = slowest.computeIfAbsent(String.valueOf(d.text0), k -> new long[2]);
+                    perf[0]++;
+                    perf[1] = Math.max(perf[1], d.arg0);
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        void print(PrintStream out) {
+            out.println("记录数: " + records + " | 文件字节数: " + bytes
+                + (records > 0 ? String.format(" | 平均 %.1f 字节/条", bytes / (double) records) : ""));
+            if (records > 0) {
+                out.printf("时间跨度: %.1f 秒%n", (lastMillis - firstMillis) / 1000.0);
+            }
+            out.println("按事件类型:");
+            for (int type = 1; type < typeCounts.length; type++) {
+                if (typeCounts[type] > 0) {
+                    out.printf("  %-16s %d%n", typeName(type), typeCounts[type]);
+                }
+            }
+            printTop(out, "碰撞类型对（抽样明细）:", collisionPairs);
+            printTop(out, "创建对象类型:", createdTypes);
+            if (!slowest.isEmpty()) {
+                out.println("慢操作:");
+                slowest.entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]))
+                    .forEach(e -> out.printf("  %-16s 次数 %d | 最大耗时 %dms%n",
+                        e.getKey(), e.getValue()[0], e.getValue()[1]));
+            }
+        }
+
+        private static void printTop(PrintStream out, String title, Map<String, long[]> counts) {
+            if (counts.isEmpty()) {
+                return;
+            }
+            out.println(title);
+            counts.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]))
+                .limit(10)
+                .forEach(e -> out.printf("  %-24s %d%n", e.getKey(), e.getValue()[0]));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !("text".equals(args[0]) || "csv".equals(args[0]) || "stats".equals(args[0]))) {
+            System.err.println("用法: java monitor.BinaryLogDecoder text|csv|stats 文件...");
+            System.exit(1);
+        }
+        String mode = args[0];
+        PrintStream out = new PrintStream(System.out, false, StandardCharsets.UTF_8);
+        StringBuilder sb = new StringBuilder(64 * 1024);
+        Stats stats = new Stats();
+        if ("csv".equals(mode)) {
+            out.println("epoch_ms,level,category,event,value1,value2,value3,text1,text2");
+        }
+
+        for (int i = 1; i < args.length; i++) {
+            File file = new File(args[i]);
+            stats.bytes += file.length();
+            BinaryLogDecoder decoder = open(file);
+            try {
+                while (decoder.next()) {
+                    if ("stats".equals(mode)) {
+                        stats.add(decoder);
+                        continue;
+                    }
+                    if ("text".equals(mode)) {
+                        decoder.appendText(sb);
+                    } else {
+                        decoder.appendCsv(sb);
+                    }
+                    if (sb.length() >= 32 * 1024) {
+                        out.append(sb);
+                        sb.setLength(0);
+                    }
+                }
+            } finally {
+                decoder.close();
+            }
+        }
+        out.append(sb);
+        if ("stats".equals(mode)) {
+            stats.print(out);
+        }
+        out.flush();
+    }
+}
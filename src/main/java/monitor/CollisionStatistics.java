@@ -0,0 +1,135 @@
+package monitor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 碰撞统计聚合器
+ * 按类型对（如 Ball↔Triangle）累计碰撞次数，计数器使用分段的LongAdder，
+ * 多个线程同时记录时不会争用同一个缓存行。
+ * 汇总时与上一次的累计值做差，得到区间内的次数和速率。
+ */
+public class CollisionStatistics {
+    private static final int MAX_TYPES = 16;
+    private static final int TOP_PAIRS = 3;
+
+    private final ConcurrentHashMap<String, Integer> typeIds = new ConcurrentHashMap<>();
+    private final String[] typeNames = new String[MAX_TYPES];
+    private final AtomicInteger typeCount = new AtomicInteger(0);
+
+    private final LongAdder[] pairCounters = new LongAdder[MAX_TYPES * MAX_TYPES];
+    private final long[] lastTotals = new long[MAX_TYPES * MAX_TYPES];
+    private final long[] intervalCounts = new long[MAX_TYPES * MAX_TYPES];
+    private final int[] topPairs = new int[TOP_PAIRS];
+    private long lastSummaryNanos = System.nanoTime();
+
+    public CollisionStatistics() {
+        for (int i = 0; i < pairCounters.length; i++) {
+            pairCounters[i] = new LongAdder();
+        }
+        // 预先登记已知类型
+        typeId("Ball");
+        typeId("Rectangle");
+        typeId("Triangle");
+    }
+
+    /**
+     * 记录一次碰撞（类型对不区分顺序）
+     */
+    public void record(String type1, String type2) {
+        int a = typeId(type1);
+        int b = typeId(type2);
+        int index = a <= b ? a * MAX_TYPES + b : b * MAX_TYPES + a;
+        pairCounters[index].increment();
+    }
+
+    /**
+     * 获取类型编号；超出上限的类型归入最后一个编号
+     */
+    private int typeId(String type) {
+        Integer id = typeIds.get(type);
+        if (id != null) {
+            return id;
+        }
+        return typeIds.computeIfAbsent(type, t -> {
+            int next = typeCount.getAndIncrement();
+            if (next >= MAX_TYPES) {
+                typeCount.set(MAX_TYPES);
+                typeNames[MAX_TYPES - 1] = "其他";
+                return MAX_TYPES - 1;
+            }
+            typeNames[next] = t;
+            return next;
+        });
+    }
+
+    /**
+     * 生成自上次汇总以来的汇总行（仅由日志写入线程调用）
+     * @return 区间内没有碰撞时返回false，不输出任何内容
+     */
+    public boolean appendSummary(StringBuilder sb, long nowNanos) {
+        double seconds = (nowNanos - lastSummaryNanos) / 1e9;
+        lastSummaryNanos = nowNanos;
+
+        long total = 0;
+        for (int i = 0; i < pairCounters.length; i++) {
+            long sum = pairCounters[i].sum();
+            intervalCounts[i] = sum - lastTotals[i];
+            lastTotals[i] = sum;
+            total += intervalCounts[i];
+        }
+        if (total == 0) {
+            return false;
+        }
+
+        // 选出次数最多的几个类型对
+        int found = 0;
+        for (int i = 0; i < intervalCounts.length; i++) {
+            if (intervalCounts[i] == 0) {
+                continue;
+            }
+            int pos = Math.min(found, TOP_PAIRS - 1);
+            if (found >= TOP_PAIRS && intervalCounts[i] <= intervalCounts[topPairs[pos]]) {
+                continue;
+            }
+            while (pos > 0 && intervalCounts[topPairs[pos - 1]] < intervalCounts[i]) {
+                topPairs[pos] = topPairs[pos - 1];
+                pos--;
+            }
+            topPairs[pos] = i;
+            if (found < TOP_PAIRS) {
+                found++;
+            }
+        }
+
+        sb.append("[碰撞汇总] 最近 ");
+        appendFixed1(sb, seconds);
+        sb.append(" 秒: ").append(total).append(" 次 | 速率: ");
+        appendFixed1(sb, total / Math.max(seconds, 1e-3));
+        sb.append(" 次/秒 | 主要类型: ");
+        for (int i = 0; i < found; i++) {
+            int index = topPairs[i];
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(typeNames[index / MAX_TYPES]).append('↔').append(typeNames[index % MAX_TYPES])
+                .append(' ').append(intervalCounts[index]);
+        }
+        return true;
+    }
+
+    /**
+     * 获取指定类型对的累计碰撞次数
+     */
+    public long getPairCount(String type1, String type2) {
+        int a = typeId(type1);
+        int b = typeId(type2);
+        return pairCounters[a <= b ? a * MAX_TYPES + b : b * MAX_TYPES + a].sum();
+    }
+
+    private static void appendFixed1(StringBuilder sb, double value) {
+        long scaled = Math.round(value * 10);
+        sb.append(scaled / 10).append('.').append(scaled % 10);
+    }
+}
@@ -0,0 +1,72 @@
+package monitor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 异步控制台输出
+ * 日志写入线程把一个批次的控制台文本交给本类后立即返回，
+ * 由独立线程输出到标准输出，控制台阻塞时不会拖慢文件写入。
+ */
+public class ConsoleAppender {
+    private static final int QUEUE_CAPACITY = 256;
+
+    private final LogFilter filter;
+    private final ArrayBlockingQueue<String> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final LongAdder droppedBatches = new LongAdder();
+    private Thread thread;
+    private volatile boolean running;
+
+    public ConsoleAppender(LogFilter filter) {
+        this.filter = filter;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(() -> {
+            while (running || !queue.isEmpty()) {
+                try {
+                    String text = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (text != null) {
+                        System.out.print(text);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            System.out.flush();
+        }, "Log-Console-Thread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * 提交一个批次；队列满时丢弃并计数，不阻塞调用方
+     */
+    public void append(CharSequence text) {
+        if (!queue.offer(text.toString())) {
+            droppedBatches.increment();
+        }
+    }
+
+    public LogFilter getFilter() {
+        return filter;
+    }
+
+    public long getDroppedBatchCount() {
+        return droppedBatches.sum();
+    }
+
+    public void shutdown() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                thread.interrupt();
+            }
+        }
+    }
+}
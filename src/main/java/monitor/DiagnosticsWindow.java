@@ -0,0 +1,127 @@
+package monitor;
+
+import javax.swing.*;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.TableRowSorter;
+import java.awt.*;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 诊断窗口
+ * 以可排序表格显示各线程在上一个采样区间内的CPU占用、阻塞/等待次数和分配速率。
+ */
+public class DiagnosticsWindow extends JFrame {
+    private static final String[] COLUMNS = {"线程", "分组", "状态", "CPU%", "累计CPU(ms)",
+        "阻塞次数", "阻塞(ms)", "等待次数", "分配(KB/s)"};
+
+    private final ThreadMonitor monitor = ThreadMonitor.getInstance();
+    private final ThreadTableModel model = new ThreadTableModel();
+    private final JLabel statusLabel = new JLabel(" ");
+    private final Timer refreshTimer;
+
+    public DiagnosticsWindow() {
+        setTitle("线程诊断");
+        setSize(900, 500);
+        setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        setLocationRelativeTo(null);
+
+        JTable table = new JTable(model);
+        table.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        TableRowSorter<ThreadTableModel> sorter = new TableRowSorter<>(model);
+        sorter.setSortKeys(Collections.singletonList(new RowSorter.SortKey(3, SortOrder.DESCENDING)));
+        table.setRowSorter(sorter);
+        table.getColumnModel().getColumn(0).setPreferredWidth(220);
+
+        setLayout(new BorderLayout());
+        add(new JScrollPane(table), BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+
+        monitor.start();
+        refreshTimer = new Timer(1000, e -> refresh());
+        refreshTimer.start();
+        refresh();
+    }
+
+    private void refresh() {
+        model.setRows(monitor.getSnapshot());
+        statusLabel.setText(String.format(
+            " 线程 %d | 模拟 %.1f%% | 日志 %.1f%% | 界面 %.1f%% | 阻塞 %.1f次/秒 | 分配 %.1fMB/s | 采样间隔 %dms，耗时 %.2fms%s",
+            model.getRowCount(),
+            monitor.getGroupCpuPercent(ThreadMonitor.Group.SIMULATION),
+            monitor.getGroupCpuPercent(ThreadMonitor.Group.LOGGING),
+            monitor.getGroupCpuPercent(ThreadMonitor.Group.UI),
+            monitor.getBlockedPerSecond(),
+            monitor.getAllocatedBytesPerSecond() / 1024.0 / 1024.0,
+            monitor.getIntervalMillis(),
+            monitor.getLastSampleCostNanos() / 1e6,
+            monitor.isContentionMonitoring() ? "" : " | 未开启争用监视"));
+    }
+
+    @Override
+    public void dispose() {
+        refreshTimer.stop();
+        super.dispose();
+    }
+
+    public static void showWindow() {
+        SwingUtilities.invokeLater(() -> new DiagnosticsWindow().setVisible(true));
+    }
+
+    /**
+     * 表格模型：更新数据时保持排序（由 TableRowSorter 重新排序）
+     */
+    private static class ThreadTableModel extends AbstractTableModel {
+        private List<ThreadMonitor.ThreadStats> rows = Collections.emptyList();
+
+        void setRows(List<ThreadMonitor.ThreadStats> rows) {
+            this.rows = rows;
+            fireTableDataChanged();
+        }
+
+        @Override
+        public int getRowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMNS.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMNS[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            switch (column) {
+                case 0:
+                case 1:
+                case 2:
+                    return String.class;
+                case 3:
+                    return Double.class;
+                default:
+                    return Long.class;
+            }
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            ThreadMonitor.ThreadStats s = rows.get(row);
+            switch (column) {
+                case 0: return s.name;
+                case 1: return s.group.getDisplayName();
+                case 2: return String.valueOf(s.state);
+                case 3: return Math.round(s.cpuPercent * 10) / 10.0;
+                case 4: return s.cpuMillisTotal;
+                case 5: return s.blockedCount;
+                case 6: return s.blockedMillis;
+                case 7: return s.waitedCount;
+                default: return s.allocatedBytesPerSecond < 0 ? -1L : s.allocatedBytesPerSecond / 1024;
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package monitor;
+
+import java.awt.EventQueue;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EDT卡顿监视器
+ * 后台线程定期向EDT投递心跳并测量其执行延迟；延迟超过阈值时，通过 ThreadMXBean
+ * 周期性采样EDT的调用栈，卡顿结束后按栈顶若干帧去重汇总，写入日志并计入运行指标。
+ */
+public class EdtWatchdog {
+    private static EdtWatchdog instance;
+
+    private static final long HEARTBEAT_INTERVAL_MS = 100;
+    private static final long SAMPLE_INTERVAL_MS = 20;
+    private static final long STALL_THRESHOLD_NANOS = Long.getLong("edt.stallThreshold", 500L) * 1_000_000L;
+    private static final int STACK_DEPTH = 64;
+    private static final int SIGNATURE_FRAMES = 5;
+    private static final int REPORTED_SIGNATURES = 3;
+    private static final String[] APP_PACKAGES = {"controller.", "model.", "view.", "storage.", "monitor.", "main."};
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final EnhancedFileLogger logger = EnhancedFileLogger.getInstance();
+    private final Runnable heartbeat = this::heartbeat;
+
+    private volatile long pendingSince;   // 未执行心跳的投递时间，0 表示没有未执行的心跳
+    private volatile long edtThreadId = -1;
+    private volatile long lastLatencyNanos;
+    private final AtomicLong intervalMaxLatency = new AtomicLong();
+    private final AtomicLong stallCount = new AtomicLong();
+    private final AtomicLong stallMillis = new AtomicLong();
+
+    // 以下字段只在监视线程中使用
+    private final Map<String, Integer> knownSignatures = new HashMap<>();
+    private final Map<String, StackSample> stallSamples = new HashMap<>();
+    private int stallSampleTotal;
+    private boolean stalled;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    private EdtWatchdog() {}
+
+    public static synchronized EdtWatchdog getInstance() {
+        if (instance == null) {
+            instance = new EdtWatchdog();
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (thread != null) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "EDT-Watchdog-Thread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    /**
+     * 在EDT上执行
+     */
+    private void heartbeat() {
+        edtThreadId = Thread.currentThread().threadId();
+        long latency = System.nanoTime() - pendingSince;
+        lastLatencyNanos = latency;
+        intervalMaxLatency.accumulateAndGet(latency, Math::max);
+        pendingSince = 0;
+    }
+
+    private void run() {
+        try {
+            while (running) {
+                long since = pendingSince;
+                if (since == 0) {
+                    if (stalled) {
+                        finishStall(lastLatencyNanos);
+                    }
+                    pendingSince = System.nanoTime();
+                    EventQueue.invokeLater(heartbeat);
+                } else if (System.nanoTime() - since >= STALL_THRESHOLD_NANOS && edtThreadId >= 0) {
+                    stalled = true;
+                    sampleEdt();
+                }
+                Thread.sleep(stalled ? SAMPLE_INTERVAL_MS : HEARTBEAT_INTERVAL_MS);
+            }
+        } catch (InterruptedException e) {
+            // 停止监视
+        }
+    }
+
+    private void sampleEdt() {
+        ThreadInfo info = threads.getThreadInfo(edtThreadId, STACK_DEPTH);
+        if (info == null) {
+            return;
+        }
+        StackTraceElement[] stack = info.getStackTrace();
+        if (stack.length == 0) {
+            return;
+        }
+        StringBuilder signature = new StringBuilder();
+        for (int i = 0; i < Math.min(SIGNATURE_FRAMES, stack.length); i++) {
+            if (i > 0) {
+                signature.append(" <- ");
+            }
+            String className = stack[i].getClassName();
+            int lambda = className.indexOf("$$Lambda");
+            if (lambda >= 0) {
+                className = className.substring(0, lambda + 8); // lambda类名每次生成都不同，去掉编号
+            }
+            signature.append(className).append('.').append(stack[i].getMethodName());
+        }
+        StackSample sample = stallSamples.computeIfAbsent(signature.toString(), k -> new StackSample(stack, info));
+        sample.count++;
+        stallSampleTotal++;
+    }
+
+    /**
+     * 卡顿结束：按出现次数输出采样到的调用栈，首次出现的栈输出完整的应用调用位置
+     */
+    private void finishStall(long latencyNanos) {
+        stalled = false;
+        long millis = latencyNanos / 1_000_000;
+        stallCount.incrementAndGet();
+        stallMillis.addAndGet(millis);
+
+        List<Map.Entry<String, StackSample>> entries = new ArrayList<>(stallSamples.entrySet());
+        entries.sort((a, b) -> Integer.compare(b.getValue().count, a.getValue().count));
+
+        StringBuilder message = new StringBuilder();
+        message.append("[EDT卡顿] 持续 ").append(millis).append("ms | 采样 ").append(stallSampleTotal).append(" 次");
+        for (int i = 0; i < Math.min(REPORTED_SIGNATURES, entries.size()); i++) {
+            String signature = entries.get(i).getKey();
+            StackSample sample = entries.get(i).getValue();
+            Integer id = knownSignatures.get(signature);
+            boolean first = id == null;
+            if (first) {
+                id = knownSignatures.size() + 1;
+                knownSignatures.put(signature, id);
+            }
+            message.append("\n  栈#").append(id)
+                .append(String.format(" %d%%", sample.count * 100 / Math.max(1, stallSampleTotal)))
+                .append(" [").append(sample.state).append("] ")
+                .append(sample.applicationFrame != null ? sample.applicationFrame : signature);
+            if (first) {
+                for (StackTraceElement frame : sample.stack) {
+                    message.append("\n      at ").append(frame);
+                }
+            }
+        }
+        logger.log(LogCategory.PERFORMANCE, LogLevel.WARN, message.toString());
+
+        stallSamples.clear();
+        stallSampleTotal = 0;
+    }
+
+    /**
+     * 取出并清零上次调用以来的最大心跳延迟（纳秒），供指标采样使用
+     */
+    public long drainMaxLatencyNanos() {
+        long max = intervalMaxLatency.getAndSet(0);
+        long since = pendingSince;
+        if (since != 0) {
+            max = Math.max(max, System.nanoTime() - since); // 仍在卡顿中
+        }
+        return max;
+    }
+
+    public long getStallCount() {
+        return stallCount.get();
+    }
+
+    public long getTotalStallMillis() {
+        return stallMillis.get();
+    }
+
+    /**
+     * 同一栈签名的采样
+     */
+    private static class StackSample {
+        final StackTraceElement[] stack;
+        final Thread.State state;
+        final String applicationFrame;
+        int count;
+
+        StackSample(StackTraceElement[] stack, ThreadInfo info) {
+            this.stack = stack;
+            this.state = info.getThreadState();
+            this.applicationFrame = findApplicationFrame(stack);
+        }
+
+        private static String findApplicationFrame(StackTraceElement[] stack) {
+            for (StackTraceElement frame : stack) {
+                for (String prefix : APP_PACKAGES) {
+                    if (frame.getClassName().startsWith(prefix)) {
+                        return frame.toString();
+                    }
+                }
+            }
+            return null;
+        }
+    }
+}
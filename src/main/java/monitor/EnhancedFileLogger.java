@@ -1,23 +1,59 @@
 package monitor;
 
 import java.io.*;
-import java.text.SimpleDateFormat;
 import java.util.Date;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.TimeZone;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import javax.swing.*;
 
+import static monitor.LogEvents.*;
+
 /**
  * 增强版简单文件日志系统
  * 支持多线程安全、自动滚动、性能监控
+ * 日志事件以原始类型参数写入预分配的环形缓冲区，由单个写入线程批量格式化并落盘
+ * 每个事件带有分类和级别，文件和控制台各自独立过滤，未启用的事件在格式化前即被丢弃
+ * 文件输出可选文本、二进制事件日志或两者（系统属性 log.format=text|binary|both）
  */
 public class EnhancedFileLogger {
     private static EnhancedFileLogger instance;
-    private File logFile;
-    private PrintWriter writer;
-    private final ConcurrentLinkedQueue<String> logQueue;
+    private FileChannelLogSink sink;
+    private BinaryEventLog binaryLog;
+    private final LogRingBuffer ringBuffer;
     private Thread logThread;
     private volatile boolean running;
+
+    // 各事件的编码（类型 + 分类 + 默认级别）
+    private static final int CODE_COLLISION = code(EVT_COLLISION, LogCategory.COLLISION, LogLevel.DEBUG);
+    private static final int CODE_OBJECT_CREATED = code(EVT_OBJECT_CREATED, LogCategory.OBJECT, LogLevel.INFO);
+    private static final int CODE_OBJECT_REMOVED = code(EVT_OBJECT_REMOVED, LogCategory.OBJECT, LogLevel.INFO);
+    private static final int CODE_FRAME = code(EVT_FRAME, LogCategory.PERFORMANCE, LogLevel.DEBUG);
+    private static final int CODE_MOUSE = code(EVT_MOUSE, LogCategory.MOUSE, LogLevel.INFO);
+    private static final int CODE_ERROR = code(EVT_ERROR, LogCategory.SYSTEM, LogLevel.ERROR);
+    private static final int CODE_PERFORMANCE = code(EVT_PERFORMANCE, LogCategory.PERFORMANCE, LogLevel.WARN);
+    private static final int CODE_SYSTEM_RAW = code(EVT_RAW, LogCategory.SYSTEM, LogLevel.INFO);
+
+    // 过滤器：文件和控制台分别配置，可在运行时修改
+    private final LogFilter fileFilter = LogFilter.fromProperties("log.level", LogLevel.INFO);
+    private final ConsoleAppender consoleAppender =
+        new ConsoleAppender(LogFilter.fromProperties("log.console.level", LogLevel.WARN));
+
+    // 时间戳换算基准（事件只记录nanoTime，由写入线程换算为墙上时间）
+    private final long baseEpochMillis;
+    private final long baseNanos;
+    private final TimeZone timeZone = TimeZone.getDefault();
+
+    // 写入线程专用的格式化缓冲
+    private final StringBuilder batch = new StringBuilder(16 * 1024);
+    private final StringBuilder consoleBatch = new StringBuilder(16 * 1024);
+    private final LogRingBuffer.EventHandler formatter = this::formatEvent;
+    private long reportedDrops;
+
+    // 碰撞聚合：按类型对计数，定期输出汇总行；逐条碰撞日志按 1/N 抽样输出
+    private final CollisionStatistics collisionStats = new CollisionStatistics();
+    private volatile long collisionSummaryIntervalMs = Long.getLong("log.collision.summaryInterval", 5000L);
+    private volatile int collisionSampleRate = Integer.getInteger("log.collision.sampleRate", 0);
     
     // 统计信息
     private AtomicInteger collisionCount;
@@ -26,22 +62,64 @@ public class EnhancedFileLogger {
     private Date startTime;
     
     // 配置
+    private static final String LOG_DIR = "logs";
     private static final int MAX_FILE_SIZE_MB = 10;
+    private static final long MAX_FILE_SIZE_BYTES = Long.getLong("log.maxFileBytes", MAX_FILE_SIZE_MB * 1024L * 1024L);
     private static final int MAX_LOG_FILES = 5;
-    private static final boolean ENABLE_AUTO_FLUSH = true;
-    private static final int FLUSH_INTERVAL_MS = 1000;
+    private static final int FLUSH_INTERVAL_MS = 200;
+    private static final int RETENTION_CHECK_INTERVAL_MS = 60_000;
+    private static final int BATCH_SIZE = 512;
+    private static final long IDLE_WAIT_NANOS = 10_000_000L;
+    private static final int RING_BUFFER_SIZE = Integer.getInteger("log.buffer.size", 16384);
+    private static final String OVERFLOW_POLICY = System.getProperty("log.overflow", "DROP");
+    private static final String LOG_FORMAT = System.getProperty("log.format", "text").trim().toLowerCase();
+    private static final boolean TEXT_FILE_ENABLED = !"binary".equals(LOG_FORMAT);
+    private static final boolean BINARY_FILE_ENABLED = "binary".equals(LOG_FORMAT) || "both".equals(LOG_FORMAT);
     
     private EnhancedFileLogger() {
-        logQueue = new ConcurrentLinkedQueue<>();
+        ringBuffer = new LogRingBuffer(RING_BUFFER_SIZE, parseOverflowPolicy(OVERFLOW_POLICY));
+        baseEpochMillis = System.currentTimeMillis();
+        baseNanos = System.nanoTime();
         collisionCount = new AtomicInteger(0);
         objectCount = new AtomicInteger(0);
         frameCount = new AtomicInteger(0);
         startTime = new Date();
         
         initializeLogger();
+        consoleAppender.start();
         startLogThread();
     }
     
+    /**
+     * 解析 -Dlog.overflow，无法识别的取值回退为 DROP
+     */
+    private static LogRingBuffer.OverflowPolicy parseOverflowPolicy(String value) {
+        try {
+            return LogRingBuffer.OverflowPolicy.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("未知的日志溢出策略 " + value + "，使用 DROP");
+            return LogRingBuffer.OverflowPolicy.DROP;
+        }
+    }
+    
+    /**
+     * 检查事件是否至少被一个输出端接受
+     */
+    private boolean accepts(int code) {
+        int category = categoryOf(code);
+        int level = levelOf(code);
+        return fileFilter.isEnabled(category, level)
+            || consoleAppender.getFilter().isEnabled(category, level);
+    }
+    
+    /**
+     * 检查指定分类和级别的日志是否会被输出
+     */
+    public boolean isEnabled(LogCategory category, LogLevel level) {
+        return fileFilter.isEnabled(category, level)
+            || consoleAppender.getFilter().isEnabled(category, level);
+    }
+    
     public static EnhancedFileLogger getInstance() {
         if (instance == null) {
             synchronized (EnhancedFileLogger.class) {
@@ -57,49 +135,49 @@ public class EnhancedFileLogger {
      * 初始化日志系统
      */
     private void initializeLogger() {
-        try {
-            // 创建日志目录
-            File logDir = new File("logs");
-            if (!logDir.exists()) {
-                logDir.mkdirs();
+        if (TEXT_FILE_ENABLED) {
+            try {
+                // 创建日志目录并打开第一个日志文件（同时清理旧日志文件）
+                sink = new FileChannelLogSink(new File(LOG_DIR), MAX_FILE_SIZE_BYTES,
+                    MAX_LOG_FILES, FLUSH_INTERVAL_MS, this::buildHeader);
+                sink.open();
+                
+                System.out.println("日志系统已初始化: " + sink.getActiveFile().getAbsolutePath());
+                
+            } catch (IOException e) {
+                System.err.println("日志系统初始化失败: " + e.getMessage());
+                // 如果文件写入失败，回退到控制台输出
+                sink = null;
+            }
+        }
+        if (BINARY_FILE_ENABLED) {
+            try {
+                binaryLog = new BinaryEventLog(new File(LOG_DIR), MAX_FILE_SIZE_BYTES,
+                    MAX_LOG_FILES, FLUSH_INTERVAL_MS, baseEpochMillis, baseNanos);
+                binaryLog.open();
+                System.out.println("二进制事件日志: " + binaryLog.getActiveFile().getAbsolutePath());
+            } catch (IOException e) {
+                System.err.println("二进制事件日志初始化失败: " + e.getMessage());
+                binaryLog = null;
             }
-            
-            // 清理旧日志文件
-            cleanupOldLogs(logDir);
-            
-            // 创建新日志文件
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss");
-            String fileName = "game_log_" + sdf.format(new Date()) + ".txt";
-            logFile = new File(logDir, fileName);
-            
-            writer = new PrintWriter(new BufferedWriter(new FileWriter(logFile, true)), ENABLE_AUTO_FLUSH);
-            
-            // 写入日志头
-            writeHeader();
-            
-            System.out.println("日志系统已初始化: " + logFile.getAbsolutePath());
-            
-        } catch (IOException e) {
-            System.err.println("日志系统初始化失败: " + e.getMessage());
-            // 如果文件写入失败，回退到控制台输出
-            writer = new PrintWriter(System.out);
         }
     }
     
     /**
-     * 写入日志头信息
+     * 生成日志头信息（每个新日志文件开头写入）
      */
-    private void writeHeader() {
-        writer.println("=".repeat(80));
-        writer.println("游戏日志系统 - 增强版");
-        writer.println("启动时间: " + startTime);
-        writer.println("日志文件: " + logFile.getName());
-        writer.println("系统信息: " + System.getProperty("os.name") + " " + 
-                      System.getProperty("os.version"));
-        writer.println("Java版本: " + System.getProperty("java.version"));
-        writer.println("=".repeat(80));
-        writer.println();
-        writer.flush();
+    private CharSequence buildHeader(File file) {
+        StringBuilder header = new StringBuilder();
+        header.append("=".repeat(80)).append('\n');
+        header.append("游戏日志系统 - 增强版\n");
+        header.append("启动时间: ").append(startTime).append('\n');
+        header.append("日志文件: ").append(file.getName()).append('\n');
+        header.append("系统信息: ").append(System.getProperty("os.name")).append(' ')
+            .append(System.getProperty("os.version")).append('\n');
+        header.append("Java版本: ").append(System.getProperty("java.version")).append('\n');
+        header.append("=".repeat(80)).append('\n');
+        header.append('\n');
+        return header;
     }
     
     /**
@@ -108,36 +186,53 @@ public class EnhancedFileLogger {
     private void startLogThread() {
         running = true;
         logThread = new Thread(() -> {
-            while (running || !logQueue.isEmpty()) {
+            long lastRetentionCheck = System.currentTimeMillis();
+            long lastSummary = System.nanoTime();
+            while (running || !ringBuffer.isEmpty()) {
                 try {
-                    // 批量写入日志
-                    StringBuilder batch = new StringBuilder();
-                    int count = 0;
+                    // 批量消费事件并格式化
+                    int count = ringBuffer.drain(formatter, BATCH_SIZE);
+                    reportDroppedEvents();
                     
-                    while (count < 100 && !logQueue.isEmpty()) {
-                        String log = logQueue.poll();
-                        if (log != null) {
-                            batch.append(log).append("\n");
-                            count++;
-                        }
+                    // 按间隔输出碰撞汇总
+                    long nowNanos = System.nanoTime();
+                    if (nowNanos - lastSummary >= collisionSummaryIntervalMs * 1_000_000L) {
+                        lastSummary = nowNanos;
+                        appendCollisionSummary(nowNanos);
                     }
+                    writeBatch();
                     
-                    if (batch.length() > 0) {
-                        writer.write(batch.toString());
-                        if (ENABLE_AUTO_FLUSH) {
-                            writer.flush();
-                        }
+                    if (sink != null) {
+                        sink.flushIfDue();
+                    }
+                    if (binaryLog != null) {
+                        binaryLog.flushIfDue();
                     }
                     
-                    // 定期强制刷新
-                    Thread.sleep(FLUSH_INTERVAL_MS);
+                    // 有积压时立即继续消费；空闲时最多等到下一次定时刷新
+                    if (count == 0) {
+                        if (Thread.currentThread().isInterrupted()) {
+                            break;
+                        }
+                        long wait = sink != null ? Math.min(IDLE_WAIT_NANOS, sink.nanosUntilFlush()) : IDLE_WAIT_NANOS;
+                        if (binaryLog != null) {
+                            wait = Math.min(wait, binaryLog.nanosUntilFlush());
+                        }
+                        ringBuffer.idleWait(Math.max(wait, 1_000_000L));
+                    }
                     
-                    // 检查文件大小
-                    checkFileSize();
+                    // 持续执行日志保留数量限制
+                    long now = System.currentTimeMillis();
+                    if (now - lastRetentionCheck >= RETENTION_CHECK_INTERVAL_MS) {
+                        lastRetentionCheck = now;
+                        if (sink != null) {
+                            sink.scheduleRetention();
+                        }
+                        if (binaryLog != null) {
+                            binaryLog.scheduleRetention();
+                        }
+                    }
                     
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    break;
                 } catch (Exception e) {
                     System.err.println("日志写入线程异常: " + e.getMessage());
                 }
@@ -152,121 +247,93 @@ public class EnhancedFileLogger {
     }
     
     /**
-     * 检查并限制日志文件大小
+     * 记录各种事件
      */
-    private void checkFileSize() {
-        if (logFile.length() > MAX_FILE_SIZE_MB * 1024 * 1024) {
-            rotateLogFile();
-        }
+    
+    public void logGameStart() {
+        log("游戏启动");
+        logSystemInfo();
     }
     
-    /**
-     * 轮转日志文件
-     */
-    private synchronized void rotateLogFile() {
-        try {
-            writer.close();
-            
-            // 重命名当前文件
-            SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss");
-            String newName = "game_log_" + sdf.format(new Date()) + "_full.txt";
-            File newFile = new File(logFile.getParent(), newName);
-            
-            if (logFile.renameTo(newFile)) {
-                // 创建新文件
-                writer = new PrintWriter(new BufferedWriter(new FileWriter(logFile, true)), ENABLE_AUTO_FLUSH);
-                writeHeader();
-                logQueue.offer("[系统] 日志文件已轮转: " + newFile.getName());
-            }
-            
-        } catch (IOException e) {
-            System.err.println("日志文件轮转失败: " + e.getMessage());
-        }
+    public void logGameEnd() {
+        logStatistics();
+        log("游戏结束");
     }
     
-    /**
-     * 清理旧的日志文件
-     */
-    private void cleanupOldLogs(File logDir) {
-        File[] logFiles = logDir.listFiles((dir, name) -> 
-            name.startsWith("game_log_") && name.endsWith(".txt"));
+    public void logCollision(String obj1Type, String obj2Type) {
+        int count = collisionCount.incrementAndGet();
+        collisionStats.record(obj1Type, obj2Type);
         
-        if (logFiles != null && logFiles.length > MAX_LOG_FILES) {
-            // 按修改时间排序
-            java.util.Arrays.sort(logFiles, (f1, f2) -> 
-                Long.compare(f1.lastModified(), f2.lastModified()));
-            
-            // 删除最旧的文件
-            for (int i = 0; i < logFiles.length - MAX_LOG_FILES; i++) {
-                if (logFiles[i].delete()) {
-                    System.out.println("删除旧日志文件: " + logFiles[i].getName());
-                }
-            }
+        // 抽样调试模式：每N次碰撞输出一条明细
+        int sampleRate = collisionSampleRate;
+        if (sampleRate > 0 && count % sampleRate == 0 && accepts(CODE_COLLISION)) {
+            ringBuffer.publish(CODE_COLLISION, count, 0, 0, obj1Type, obj2Type);
         }
     }
     
     /**
-     * 记录各种事件
+     * 设置碰撞明细的抽样率：0 表示只输出汇总，1 表示每次碰撞都输出，N 表示每N次输出一条
+     * 明细为 DEBUG 级别，还需要把碰撞分类的级别调到 DEBUG（如 -Dlog.level.collision=DEBUG）才会输出
      */
+    public void setCollisionSampleRate(int sampleRate) {
+        this.collisionSampleRate = Math.max(0, sampleRate);
+    }
     
-    public void logGameStart() {
-        log("游戏启动");
-        logSystemInfo();
+    public int getCollisionSampleRate() {
+        return collisionSampleRate;
     }
     
-    public void logGameEnd() {
-        logStatistics();
-        log("游戏结束");
+    /**
+     * 设置碰撞汇总的输出间隔（毫秒）
+     */
+    public void setCollisionSummaryInterval(long intervalMs) {
+        this.collisionSummaryIntervalMs = Math.max(100, intervalMs);
     }
     
-    public void logCollision(String obj1Type, String obj2Type) {
-        int count = collisionCount.incrementAndGet();
-        String entry = String.format("[碰撞#%d] %s ↔ %s | 时间: %s",
-            count, obj1Type, obj2Type, getCurrentTime());
-        log(entry);
+    public long getCollisionSummaryInterval() {
+        return collisionSummaryIntervalMs;
     }
     
     public void logObjectCreated(String type, double x, double y) {
         int count = objectCount.incrementAndGet();
-        String entry = String.format("[创建#%d] %s @ (%.1f, %.1f) | 时间: %s",
-            count, type, x, y, getCurrentTime());
-        log(entry);
+        if (!accepts(CODE_OBJECT_CREATED)) {
+            return;
+        }
+        ringBuffer.publish(CODE_OBJECT_CREATED, count,
+            Double.doubleToRawLongBits(x), Double.doubleToRawLongBits(y), type, null);
     }
     
     public void logObjectRemoved(String type) {
         int count = objectCount.decrementAndGet();
-        String entry = String.format("[移除] %s | 剩余: %d | 时间: %s",
-            type, count, getCurrentTime());
-        log(entry);
+        if (accepts(CODE_OBJECT_REMOVED)) {
+            ringBuffer.publish(CODE_OBJECT_REMOVED, count, 0, 0, type, null);
+        }
     }
     
     public void logFrameUpdate() {
-        frameCount.incrementAndGet();
+        int count = frameCount.incrementAndGet();
         // 每100帧记录一次
-        if (frameCount.get() % 100 == 0) {
-            log(String.format("[帧#%d] 运行中... | 时间: %s", 
-                frameCount.get(), getCurrentTime()));
+        if (count % 100 == 0 && accepts(CODE_FRAME)) {
+            ringBuffer.publish(CODE_FRAME, count, 0, 0, null, null);
         }
     }
     
     public void logMouseEvent(String eventType, int x, int y) {
-        String entry = String.format("[鼠标] %s @ (%d, %d) | 时间: %s",
-            eventType, x, y, getCurrentTime());
-        log(entry);
+        if (accepts(CODE_MOUSE)) {
+            ringBuffer.publish(CODE_MOUSE, x, y, 0, eventType, null);
+        }
     }
     
     public void logError(String message, Exception e) {
-        String entry = String.format("[错误] %s | 异常: %s | 时间: %s",
-            message, e.getMessage(), getCurrentTime());
-        log(entry);
-        e.printStackTrace(); // 同时输出到控制台
+        // 异常堆栈由写入线程输出到控制台
+        if (accepts(CODE_ERROR)) {
+            ringBuffer.publish(CODE_ERROR, 0, 0, 0, message, e);
+        }
     }
     
     public void logPerformance(long durationMs, String operation) {
-        if (durationMs > 100) { // 只记录耗时较长的操作
-            String entry = String.format("[性能] %s 耗时: %dms | 时间: %s",
-                operation, durationMs, getCurrentTime());
-            log(entry);
+        if (durationMs > 100 && accepts(CODE_PERFORMANCE)) { // 只记录耗时较长的操作
+            ringBuffer.publish(CODE_PERFORMANCE, durationMs, 0, 0, operation, null);
         }
     }
     
@@ -274,14 +341,247 @@ public class EnhancedFileLogger {
      * 通用日志方法
      */
     public void log(String message) {
-        String timestamp = getCurrentTime();
-        String fullMessage = String.format("[%s] %s", timestamp, message);
+        log(LogCategory.SYSTEM, LogLevel.INFO, message);
+    }
+    
+    /**
+     * 按分类和级别记录日志
+     */
+    public void log(LogCategory category, LogLevel level, String message) {
+        int code = code(EVT_MESSAGE, category, level);
+        if (accepts(code)) {
+            ringBuffer.publish(code, 0, 0, 0, message, null);
+        }
+    }
+    
+    /**
+     * 按分类和级别记录日志，消息只在启用时才构造
+     */
+    public void log(LogCategory category, LogLevel level, Supplier<String> message) {
+        int code = code(EVT_MESSAGE, category, level);
+        if (accepts(code)) {
+            ringBuffer.publish(code, 0, 0, 0, message.get(), null);
+        }
+    }
+    
+    /**
+     * 记录"标签: 数值"形式的日志，数值以原始类型传递，由写入线程格式化
+     */
+    public void log(LogCategory category, LogLevel level, String label, long value) {
+        int code = code(EVT_LABELED, category, level);
+        if (accepts(code)) {
+            ringBuffer.publish(code, value, 0, 0, label, null);
+        }
+    }
+    
+    /**
+     * 格式化单个事件（仅在写入线程中调用）
+     */
+    private void formatEvent(int code, long nanos, long arg0, long arg1, long arg2, Object ref0, Object ref1) {
+        int type = typeOf(code);
+        int category = categoryOf(code);
+        int level = levelOf(code);
+        boolean toFile = fileFilter.isEnabled(category, level);
+        boolean toConsole = consoleAppender.getFilter().isEnabled(category, level);
+        if (toFile && binaryLog != null) {
+            // 二进制日志直接编码原始参数，不经过文本格式化
+            try {
+                binaryLog.append(code, nanos, arg0, arg1, arg2, ref0, ref1);
+            } catch (IOException e) {
+                System.err.println("写入二进制事件日志失败: " + e.getMessage());
+            }
+        }
+        toFile &= TEXT_FILE_ENABLED;
+        if (!toFile && !toConsole) {
+            return; // 过滤配置在发布后被修改，或文件只输出二进制日志
+        }
         
-        // 添加到队列
-        logQueue.offer(fullMessage);
+        int lineStart = batch.length();
+        if (type == EVT_RAW) {
+            batch.append(ref0).append('\n');
+            routeLine(lineStart, toFile, toConsole);
+            return;
+        }
+        
+        batch.append('[');
+        appendTime(batch, nanos);
+        batch.append("] ");
+        if (level != LogLevel.INFO.ordinal() && type != EVT_ERROR && type != EVT_PERFORMANCE) {
+            batch.append('[').append(LogLevel.values()[level]).append("] ");
+        }
         
-        // 同时输出到控制台（可选）
-        System.out.println(fullMessage);
+        switch (type) {
+            case EVT_COLLISION:
+                batch.append("[碰撞#").append(arg0).append("] ")
+                    .append(ref0).append(" ↔ ").append(ref1);
+                appendTimeSuffix(nanos);
+                break;
+            case EVT_OBJECT_CREATED:
+                batch.append("[创建#").append(arg0).append("] ").append(ref0).append(" @ (");
+                appendFixed1(batch, Double.longBitsToDouble(arg1));
+                batch.append(", ");
+                appendFixed1(batch, Double.longBitsToDouble(arg2));
+                batch.append(')');
+                appendTimeSuffix(nanos);
+                break;
+            case EVT_OBJECT_REMOVED:
+                batch.append("[移除] ").append(ref0).append(" | 剩余: ").append(arg0);
+                appendTimeSuffix(nanos);
+                break;
+            case EVT_FRAME:
+                batch.append("[帧#").append(arg0).append("] 运行中...");
+                appendTimeSuffix(nanos);
+                break;
+            case EVT_MOUSE:
+                batch.append("[鼠标] ").append(ref0).append(" @ (")
+                    .append(arg0).append(", ").append(arg1).append(')');
+                appendTimeSuffix(nanos);
+                break;
+            case EVT_ERROR:
+                Throwable error = (Throwable) ref1;
+                batch.append("[错误] ").append(ref0).append(" | 异常: ")
+                    .append(error != null ? error.getMessage() : null);
+                appendTimeSuffix(nanos);
+                if (error != null && toConsole) {
+                    error.printStackTrace(); // 同时输出到控制台
+                }
+                break;
+            case EVT_PERFORMANCE:
+                batch.append("[性能] ").append(ref0).append(" 耗时: ").append(arg0).append("ms");
+                appendTimeSuffix(nanos);
+                break;
+            case EVT_LABELED:
+                batch.append(ref0).append(": ").append(arg0);
+                break;
+            case EVT_MESSAGE:
+            default:
+                batch.append(ref0);
+                break;
+        }
+        batch.append('\n');
+        routeLine(lineStart, toFile, toConsole);
+    }
+    
+    /**
+     * 将刚格式化的一行分发到控制台和/或文件
+     */
+    private void routeLine(int lineStart, boolean toFile, boolean toConsole) {
+        if (toConsole) {
+            consoleBatch.append(batch, lineStart, batch.length());
+        }
+        if (!toFile) {
+            batch.setLength(lineStart);
+        }
+    }
+    
+    private void appendTimeSuffix(long nanos) {
+        batch.append(" | 时间: ");
+        appendTime(batch, nanos);
+    }
+    
+    /**
+     * 将纳秒时间戳格式化为 HH:mm:ss.SSS（无对象分配）
+     */
+    private void appendTime(StringBuilder sb, long nanos) {
+        long millis = baseEpochMillis + (nanos - baseNanos) / 1_000_000L;
+        long local = millis + timeZone.getOffset(millis);
+        int msOfDay = (int) Math.floorMod(local, 86_400_000L);
+        appendPadded(sb, msOfDay / 3_600_000, 2);
+        sb.append(':');
+        appendPadded(sb, msOfDay / 60_000 % 60, 2);
+        sb.append(':');
+        appendPadded(sb, msOfDay / 1000 % 60, 2);
+        sb.append('.');
+        appendPadded(sb, msOfDay % 1000, 3);
+    }
+    
+    private static void appendPadded(StringBuilder sb, int value, int width) {
+        if (width == 3 && value < 100) sb.append('0');
+        if (value < 10) sb.append('0');
+        sb.append(value);
+    }
+    
+    /**
+     * 保留一位小数输出
+     */
+    private static void appendFixed1(StringBuilder sb, double value) {
+        long scaled = Math.round(value * 10);
+        if (scaled < 0) {
+            sb.append('-');
+            scaled = -scaled;
+        }
+        sb.append(scaled / 10).append('.').append(scaled % 10);
+    }
+    
+    /**
+     * 将格式化好的批次写入文件和控制台
+     */
+    private void writeBatch() throws IOException {
+        if (batch.length() > 0) {
+            if (sink != null) {
+                sink.write(batch);
+            } else {
+                consoleAppender.append(batch);
+            }
+            batch.setLength(0);
+        }
+        if (consoleBatch.length() > 0) {
+            consoleAppender.append(consoleBatch);
+            consoleBatch.setLength(0);
+        }
+    }
+    
+    /**
+     * 追加碰撞汇总行（仅在写入线程中调用）
+     */
+    private void appendCollisionSummary(long nowNanos) {
+        int lineStart = batch.length();
+        batch.append('[');
+        appendTime(batch, nowNanos);
+        batch.append("] ");
+        int summaryStart = batch.length();
+        if (collisionStats.appendSummary(batch, nowNanos)) {
+            boolean toFile = fileFilter.isEnabled(LogCategory.COLLISION, LogLevel.INFO);
+            if (toFile) {
+                appendBinaryMessage(LogCategory.COLLISION, LogLevel.INFO, nowNanos, summaryStart);
+            }
+            batch.append('\n');
+            routeLine(lineStart, toFile && TEXT_FILE_ENABLED,
+                consoleAppender.getFilter().isEnabled(LogCategory.COLLISION, LogLevel.INFO));
+        } else {
+            batch.setLength(lineStart);
+        }
+    }
+    
+    /**
+     * 缓冲区溢出时记录丢弃的事件数
+     */
+    private void reportDroppedEvents() {
+        long dropped = ringBuffer.getDroppedCount();
+        if (dropped > reportedDrops) {
+            int lineStart = batch.length();
+            batch.append("[系统] 日志缓冲区已满，丢弃事件 ").append(dropped - reportedDrops)
+                .append(" 条（累计 ").append(dropped).append(" 条）");
+            appendBinaryMessage(LogCategory.SYSTEM, LogLevel.WARN, System.nanoTime(), lineStart);
+            batch.append('\n');
+            routeLine(lineStart, TEXT_FILE_ENABLED,
+                consoleAppender.getFilter().isEnabled(LogCategory.SYSTEM, LogLevel.WARN));
+            reportedDrops = dropped;
+        }
+    }
+    
+    /**
+     * 将批次中从 start 开始的已格式化文本写入二进制日志
+     */
+    private void appendBinaryMessage(LogCategory category, LogLevel level, long nanos, int start) {
+        if (binaryLog == null) {
+            return;
+        }
+        try {
+            binaryLog.appendMessage(category, level, nanos, batch.subSequence(start, batch.length()));
+        } catch (IOException e) {
+            System.err.println("写入二进制事件日志失败: " + e.getMessage());
+        }
     }
     
     /**
@@ -305,13 +605,16 @@ public class EnhancedFileLogger {
             frameCount.get() / (runTime / 1000.0)));
         stats.append("=".repeat(80)).append("\n");
         
-        logQueue.offer(stats.toString());
+        ringBuffer.publish(CODE_SYSTEM_RAW, 0, 0, 0, stats.toString(), null);
     }
     
     /**
      * 记录系统信息
      */
     private void logSystemInfo() {
+        if (!accepts(CODE_SYSTEM_RAW)) {
+            return;
+        }
         Runtime runtime = Runtime.getRuntime();
         
         StringBuilder info = new StringBuilder();
@@ -321,14 +624,7 @@ public class EnhancedFileLogger {
         info.append(String.format("总内存: %.1f MB\n", runtime.totalMemory() / 1024.0 / 1024.0));
         info.append(String.format("空闲内存: %.1f MB\n", runtime.freeMemory() / 1024.0 / 1024.0));
         
-        logQueue.offer(info.toString());
-    }
-    
-    /**
-     * 获取当前时间戳
-     */
-    private String getCurrentTime() {
-        return new SimpleDateFormat("HH:mm:ss.SSS").format(new Date());
+        ringBuffer.publish(CODE_SYSTEM_RAW, 0, 0, 0, info.toString(), null);
     }
     
     /**
@@ -336,13 +632,18 @@ public class EnhancedFileLogger {
      */
     private void flushRemainingLogs() {
         try {
-            while (!logQueue.isEmpty()) {
-                String log = logQueue.poll();
-                if (log != null) {
-                    writer.println(log);
-                }
+            while (ringBuffer.drain(formatter, BATCH_SIZE) > 0) {
+                writeBatch();
+            }
+            reportDroppedEvents();
+            appendCollisionSummary(System.nanoTime());
+            writeBatch();
+            if (sink != null) {
+                sink.flush();
+            }
+            if (binaryLog != null) {
+                binaryLog.flush();
             }
-            writer.flush();
         } catch (Exception e) {
             System.err.println("刷新日志失败: " + e.getMessage());
         }
@@ -362,17 +663,110 @@ public class EnhancedFileLogger {
             }
         }
         
-        if (writer != null) {
-            writer.close();
+        if (sink != null) {
+            sink.close();
+        }
+        if (binaryLog != null) {
+            binaryLog.close();
         }
+        consoleAppender.shutdown();
         
         System.out.println("日志系统已关闭");
     }
     
+    /**
+     * 获取待写入的事件数
+     */
+    public int getQueueSize() {
+        return ringBuffer.size();
+    }
+    
+    /**
+     * 获取因缓冲区溢出而丢弃的事件数
+     */
+    public long getDroppedEventCount() {
+        return ringBuffer.getDroppedCount();
+    }
+    
+    /**
+     * 获取文件输出的过滤器（可在运行时调整级别）
+     */
+    public LogFilter getFileFilter() {
+        return fileFilter;
+    }
+    
+    /**
+     * 获取控制台输出的过滤器（可在运行时调整级别）
+     */
+    public LogFilter getConsoleFilter() {
+        return consoleAppender.getFilter();
+    }
+    
+    /**
+     * 按名称设置文件日志级别，category 为 null 或 "ALL" 时作用于所有分类
+     * @return 设置是否成功
+     */
+    public boolean setLevel(String category, String level) {
+        return applyLevel(fileFilter, category, level);
+    }
+    
+    /**
+     * 按名称设置控制台日志级别
+     */
+    public boolean setConsoleLevel(String category, String level) {
+        return applyLevel(consoleAppender.getFilter(), category, level);
+    }
+    
+    private boolean applyLevel(LogFilter filter, String category, String level) {
+        LogLevel parsed = LogLevel.parse(level, null);
+        if (parsed == null) {
+            return false;
+        }
+        if (category == null || category.isBlank() || "ALL".equalsIgnoreCase(category.trim())) {
+            filter.setLevel(parsed);
+            return true;
+        }
+        LogCategory parsedCategory = LogCategory.parse(category);
+        if (parsedCategory == null) {
+            return false;
+        }
+        filter.setLevel(parsedCategory, parsed);
+        return true;
+    }
+    
+    /**
+     * 设置缓冲区溢出策略（丢弃或阻塞）
+     */
+    public void setOverflowPolicy(LogRingBuffer.OverflowPolicy policy) {
+        ringBuffer.setOverflowPolicy(policy);
+    }
+    
+    /**
+     * 获取当前正在写入的日志文件（轮转后会变化）
+     */
+    public File getLogFile() {
+        return sink != null ? sink.getActiveFile() : null;
+    }
+    
+    /**
+     * 获取当前正在写入的二进制事件日志文件（未启用时返回 null）
+     */
+    public File getBinaryLogFile() {
+        return binaryLog != null ? binaryLog.getActiveFile() : null;
+    }
+    
+    /**
+     * 获取日志目录
+     */
+    public File getLogDirectory() {
+        return new File(LOG_DIR);
+    }
+    
     /**
      * 获取日志文件路径
      */
     public String getLogFilePath() {
+        File logFile = getLogFile();
         return logFile != null ? logFile.getAbsolutePath() : "未创建日志文件";
     }
     
@@ -381,6 +775,7 @@ public class EnhancedFileLogger {
      */
     public void openLogDirectory() {
         try {
+            File logFile = getLogFile();
             if (logFile != null && logFile.exists()) {
                 java.awt.Desktop.getDesktop().open(logFile.getParentFile());
             }
@@ -395,29 +790,16 @@ public class EnhancedFileLogger {
      * 查看最近日志
      */
     public String getRecentLogs(int lines) {
+        File logFile = getLogFile();
         if (logFile == null || !logFile.exists()) {
             return "日志文件不存在";
         }
         
-        StringBuilder recent = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new FileReader(logFile))) {
-            java.util.List<String> logLines = new java.util.ArrayList<>();
-            String line;
-            
-            while ((line = reader.readLine()) != null) {
-                logLines.add(line);
-            }
-            
-            // 获取最后几行
-            int start = Math.max(0, logLines.size() - lines);
-            for (int i = start; i < logLines.size(); i++) {
-                recent.append(logLines.get(i)).append("\n");
-            }
-            
+        try {
+            // 从文件末尾向前读取，开销只与行数有关
+            return LogTailReader.tail(logFile, lines);
         } catch (IOException e) {
             return "读取日志失败: " + e.getMessage();
         }
-        
-        return recent.toString();
     }
 }
\ No newline at end of file
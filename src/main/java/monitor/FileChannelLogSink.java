@@ -0,0 +1,320 @@
+package monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 基于FileChannel的日志文件输出
+ * 使用可复用的直接缓冲区批量写入，按缓冲字节数或距上次刷新的时间自适应刷新；
+ * 写入前按行计算编码后的字节数，保证单个文件不超过大小上限；
+ * 轮转出的旧文件在后台线程中压缩为 .gz，并持续执行保留数量限制。
+ * 本类只允许日志写入线程调用（压缩和清理在内部后台线程中完成）。
+ * 文本日志按行写入；二进制事件日志按记录写入，单条记录同样不会跨文件。
+ */
+public class FileChannelLogSink {
+    public static final String FILE_PREFIX = "game_log_";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FLUSH_THRESHOLD_BYTES = 32 * 1024;
+
+    private final File logDir;
+    private final String filePrefix;
+    private final String fileSuffix;
+    private final long maxFileBytes;
+    private final int maxLogFiles;
+    private final long flushIntervalNanos;
+    private final Function<File, CharSequence> textHeaderProvider;
+    private final Function<File, ByteBuffer> headerProvider;
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer lineBuffer = ByteBuffer.allocate(4096);
+
+    private volatile File activeFile;
+    private FileChannel channel;
+    private long fileBytes;
+    private long lastFlushNanos = System.nanoTime();
+    private long totalBytesWritten;
+
+    private final ExecutorService compressor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Log-Compress-Thread");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FileChannelLogSink(File logDir, long maxFileBytes, int maxLogFiles,
+                              long flushIntervalMillis, Function<File, CharSequence> headerProvider) {
+        this(logDir, FILE_PREFIX, ".txt", maxFileBytes, maxLogFiles, flushIntervalMillis, headerProvider, null);
+    }
+
+    /**
+     * 创建任意文件名前缀和后缀的输出，headerProvider 返回每个新文件开头的字节（可为 null）
+     */
+    public FileChannelLogSink(File logDir, String filePrefix, String fileSuffix, long maxFileBytes,
+                              int maxLogFiles, long flushIntervalMillis,
+                              Function<File, ByteBuffer> headerProvider) {
+        this(logDir, filePrefix, fileSuffix, maxFileBytes, maxLogFiles, flushIntervalMillis, null, headerProvider);
+    }
+
+    private FileChannelLogSink(File logDir, String filePrefix, String fileSuffix, long maxFileBytes,
+                               int maxLogFiles, long flushIntervalMillis,
+                               Function<File, CharSequence> textHeaderProvider,
+                               Function<File, ByteBuffer> headerProvider) {
+        this.logDir = logDir;
+        this.filePrefix = filePrefix;
+        this.fileSuffix = fileSuffix;
+        this.maxFileBytes = maxFileBytes;
+        this.maxLogFiles = maxLogFiles;
+        this.flushIntervalNanos = flushIntervalMillis * 1_000_000L;
+        this.textHeaderProvider = textHeaderProvider;
+        this.headerProvider = headerProvider;
+    }
+
+    /**
+     * 创建第一个日志文件
+     */
+    public void open() throws IOException {
+        if (!logDir.exists()) {
+            logDir.mkdirs();
+        }
+        openNewFile();
+        enforceRetention();
+    }
+
+    /**
+     * 写入若干完整的行（每行以换行符结尾）
+     */
+    public void write(CharSequence text) throws IOException {
+        int length = text.length();
+        int lineStart = 0;
+        for (int i = 0; i < length; i++) {
+            if (text.charAt(i) == '\n') {
+                writeLine(text, lineStart, i + 1);
+                lineStart = i + 1;
+            }
+        }
+        if (lineStart < length) {
+            writeLine(text, lineStart, length);
+        }
+    }
+
+    /**
+     * 编码一行并写入缓冲区；写入后会超过大小上限时先轮转文件
+     */
+    private void writeLine(CharSequence text, int start, int end) throws IOException {
+        write(encode(text, start, end));
+    }
+
+    /**
+     * 写入一条完整的二进制记录；写入后会超过大小上限时先轮转文件
+     */
+    public void write(ByteBuffer encoded) throws IOException {
+        if (!fits(encoded.remaining())) {
+            rotate();
+        }
+        while (encoded.hasRemaining()) {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            int chunk = Math.min(buffer.remaining(), encoded.remaining());
+            int limit = encoded.limit();
+            encoded.limit(encoded.position() + chunk);
+            buffer.put(encoded);
+            encoded.limit(limit);
+        }
+    }
+
+    /**
+     * 当前文件是否还能容纳指定字节数（空文件总能容纳）
+     */
+    public boolean fits(int bytes) {
+        long used = fileBytes + buffer.position();
+        return used + bytes <= maxFileBytes || used == 0;
+    }
+
+    private ByteBuffer encode(CharSequence text, int start, int end) {
+        CharBuffer chars = CharBuffer.wrap(text, start, end);
+        int maxBytes = (int) ((end - start) * encoder.maxBytesPerChar()) + 1;
+        if (lineBuffer.capacity() < maxBytes) {
+            lineBuffer = ByteBuffer.allocate(Math.max(maxBytes, lineBuffer.capacity() * 2));
+        }
+        lineBuffer.clear();
+        encoder.reset();
+        encoder.encode(chars, lineBuffer, true);
+        encoder.flush(lineBuffer);
+        lineBuffer.flip();
+        return lineBuffer;
+    }
+
+    /**
+     * 自适应刷新：缓冲字节数达到阈值或距上次刷新超过间隔时写入文件
+     */
+    public void flushIfDue() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        if (buffer.position() >= FLUSH_THRESHOLD_BYTES
+            || System.nanoTime() - lastFlushNanos >= flushIntervalNanos) {
+            flush();
+        }
+    }
+
+    /**
+     * 距离下一次定时刷新的纳秒数（缓冲区为空时返回 Long.MAX_VALUE）
+     */
+    public long nanosUntilFlush() {
+        if (buffer.position() == 0) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, flushIntervalNanos - (System.nanoTime() - lastFlushNanos));
+    }
+
+    public void flush() throws IOException {
+        JfrEvents.LogFlush event = new JfrEvents.LogFlush();
+        event.begin();
+        int bytes = buffer.position();
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            int written = channel.write(buffer);
+            fileBytes += written;
+            totalBytesWritten += written;
+        }
+        buffer.clear();
+        lastFlushNanos = System.nanoTime();
+        event.end();
+        if (bytes > 0 && event.shouldCommit()) {
+            event.file = activeFile.getName();
+            event.bytes = bytes;
+            event.commit();
+        }
+    }
+
+    /**
+     * 轮转：关闭当前文件，打开新文件，并在后台压缩旧文件
+     */
+    public void rotate() throws IOException {
+        flush();
+        channel.close();
+        File rotated = activeFile;
+        openNewFile();
+        compressor.execute(() -> {
+            compress(rotated);
+            enforceRetention();
+        });
+    }
+
+    private void openNewFile() throws IOException {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss");
+        String base = filePrefix + sdf.format(new Date());
+        File file = new File(logDir, base + fileSuffix);
+        for (int seq = 1; file.exists() || new File(logDir, file.getName() + ".gz").exists(); seq++) {
+            file = new File(logDir, base + "_" + seq + fileSuffix);
+        }
+
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+        activeFile = file;
+        if (textHeaderProvider != null) {
+            // 文件头单独编码：轮转可能发生在写入一行的途中，此时 lineBuffer 中还是待写入的行
+            write(StandardCharsets.UTF_8.encode(CharBuffer.wrap(textHeaderProvider.apply(file))));
+        } else if (headerProvider != null) {
+            write(headerProvider.apply(file));
+        }
+    }
+
+    /**
+     * 将轮转出的文件压缩为 .gz 并删除原文件
+     */
+    private void compress(File source) {
+        File target = new File(source.getParentFile(), source.getName() + ".gz");
+        try (InputStream in = Files.newInputStream(source.toPath());
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(target.toPath()), BUFFER_SIZE)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            System.err.println("压缩日志文件失败: " + e.getMessage());
+            target.delete();
+            return;
+        }
+        target.setLastModified(source.lastModified());
+        source.delete();
+    }
+
+    /**
+     * 保留最新的若干个日志文件（含当前文件），删除更早的文件
+     */
+    public void enforceRetention() {
+        File current = activeFile;
+        File[] logFiles = logDir.listFiles((dir, name) ->
+            name.startsWith(filePrefix) && (name.endsWith(fileSuffix) || name.endsWith(fileSuffix + ".gz")));
+        if (logFiles == null || logFiles.length <= maxLogFiles) {
+            return;
+        }
+
+        // 按修改时间从新到旧排序
+        Arrays.sort(logFiles, (f1, f2) -> Long.compare(f2.lastModified(), f1.lastModified()));
+        int kept = 1; // 当前文件始终保留
+        for (File file : logFiles) {
+            if (file.equals(current)) {
+                continue;
+            }
+            if (kept < maxLogFiles) {
+                kept++;
+            } else if (file.delete()) {
+                System.out.println("删除旧日志文件: " + file.getName());
+            }
+        }
+    }
+
+    /**
+     * 提交一次后台保留检查
+     */
+    public void scheduleRetention() {
+        compressor.execute(this::enforceRetention);
+    }
+
+    public File getActiveFile() {
+        return activeFile;
+    }
+
+    public long getTotalBytesWritten() {
+        return totalBytesWritten;
+    }
+
+    public void close() {
+        try {
+            if (channel != null && channel.isOpen()) {
+                flush();
+                channel.close();
+            }
+        } catch (IOException e) {
+            System.err.println("关闭日志文件失败: " + e.getMessage());
+        }
+        compressor.shutdown();
+        try {
+            compressor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
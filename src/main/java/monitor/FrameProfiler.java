@@ -0,0 +1,238 @@
+package monitor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 帧耗时分析器
+ * 每一帧拆分为若干阶段，各阶段用 System.nanoTime 计时并记录到对数-线性直方图；
+ * 每秒滚动一次窗口，得到上一秒的帧率、各阶段 p50/p99/最大值和碰撞速率，供性能浮层显示；
+ * 滚动时同时生成一份不可变的百分位汇总，供JMX等其他线程读取。
+ */
+public class FrameProfiler {
+    private static FrameProfiler instance;
+
+    /**
+     * 帧内阶段
+     */
+    public enum Phase {
+        MOVE("移动"),
+        FORCES("力场"),
+        BROADPHASE("粗检测"),
+        NARROWPHASE("精检测"),
+        RESOLVE("碰撞响应"),
+        SNAPSHOT("录制"),
+        PAINT("绘制");
+
+        private final String displayName;
+
+        Phase(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /** 汇总值下标 */
+    public static final int STAT_P50 = 0;
+    public static final int STAT_P99 = 1;
+    public static final int STAT_MAX = 2;
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+    private static final Phase[] PHASES = Phase.values();
+    private static final int FRAME = PHASES.length; // 整帧耗时放在各阶段之后
+
+    private final LatencyHistogram[] histograms = new LatencyHistogram[PHASES.length + 1];
+    private final LatencyHistogram.Snapshot[] snapshots = new LatencyHistogram.Snapshot[PHASES.length + 1];
+    private final LongAdder collisions = new LongAdder();
+
+    // 以下字段只在模拟帧线程（EDT）中写入
+    private long windowStart = System.nanoTime();
+    private int windowTicks;
+    private int windowPaints;
+    private volatile double tickRate;
+    private volatile double paintRate;
+    private volatile double collisionRate;
+    private volatile int objectCount;
+    private volatile long pairChecks;
+    private volatile int candidatePairs;
+    private volatile long filteredPairs;
+    private volatile long[][] summary = new long[PHASES.length + 1][3];
+    private final long[] lastPhaseNanos = new long[PHASES.length];
+    private long tickCount;
+    private long lastPaintedTick;
+
+    private FrameProfiler() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+            snapshots[i] = new LatencyHistogram.Snapshot();
+        }
+    }
+
+    public static synchronized FrameProfiler getInstance() {
+        if (instance == null) {
+            instance = new FrameProfiler();
+        }
+        return instance;
+    }
+
+    /**
+     * 记录阶段耗时，startNanos 为阶段开始时的 System.nanoTime()（任意线程均可调用）
+     * @return 本次耗时（纳秒）
+     */
+    public long record(Phase phase, long startNanos) {
+        long elapsed = System.nanoTime() - startNanos;
+        histograms[phase.ordinal()].record(elapsed);
+        lastPhaseNanos[phase.ordinal()] = elapsed;
+        return elapsed;
+    }
+
+    /**
+     * 最近一次记录的阶段耗时（用于填充本帧的JFR事件，只对模拟帧线程上的阶段有意义）
+     */
+    public long getLastPhaseNanos(Phase phase) {
+        return lastPhaseNanos[phase.ordinal()];
+    }
+
+    public void addCollisions(int count) {
+        if (count > 0) {
+            collisions.add(count);
+        }
+    }
+
+    /**
+     * 一次绘制结束
+     * @return 自上次绘制以来被合并掉（未单独绘制）的模拟帧数
+     */
+    public int paintCompleted(long startNanos) {
+        record(Phase.PAINT, startNanos);
+        windowPaints++;
+        int dropped = (int) Math.max(0, tickCount - lastPaintedTick - 1);
+        lastPaintedTick = tickCount;
+        return dropped;
+    }
+
+    /**
+     * 记录本帧碰撞检测的对数：两两组合的总对数和通过包围盒粗检测的候选对数
+     */
+    public void recordPairs(long checked, int candidates) {
+        pairChecks = checked;
+        candidatePairs = candidates;
+    }
+
+    /**
+     * 记录本帧因碰撞层和掩码不匹配而跳过的对数
+     */
+    public void recordFilteredPairs(long filtered) {
+        filteredPairs = filtered;
+    }
+
+    /**
+     * 一帧模拟结束，tickStartNanos 为本帧开始时的 System.nanoTime()；满一秒时滚动统计窗口
+     */
+    public void tickCompleted(int objects, long tickStartNanos) {
+        long now = System.nanoTime();
+        histograms[FRAME].record(now - tickStartNanos);
+        tickCount++;
+        windowTicks++;
+        objectCount = objects;
+        long elapsed = now - windowStart;
+        if (elapsed < WINDOW_NANOS) {
+            return;
+        }
+        double seconds = elapsed / 1e9;
+        tickRate = windowTicks / seconds;
+        paintRate = windowPaints / seconds;
+        collisionRate = collisions.sumThenReset() / seconds;
+        long[][] next = new long[histograms.length][3];
+        for (int i = 0; i < histograms.length; i++) {
+            snapshots[i].clear();
+            histograms[i].drainTo(snapshots[i]);
+            next[i][STAT_P50] = snapshots[i].getPercentile(50);
+            next[i][STAT_P99] = snapshots[i].getPercentile(99);
+            next[i][STAT_MAX] = snapshots[i].getMax();
+        }
+        summary = next;
+        windowTicks = 0;
+        windowPaints = 0;
+        windowStart = now;
+    }
+
+    /**
+     * 上一个窗口中某阶段的分布
+     */
+    public LatencyHistogram.Snapshot getSnapshot(Phase phase) {
+        return snapshots[phase.ordinal()];
+    }
+
+    /**
+     * 上一个窗口中某阶段的耗时汇总（纳秒，任意线程可调用）
+     * @param stat STAT_P50、STAT_P99 或 STAT_MAX
+     */
+    public long getPhaseNanos(Phase phase, int stat) {
+        return summary[phase.ordinal()][stat];
+    }
+
+    /**
+     * 上一个窗口中整帧模拟耗时的汇总（纳秒，任意线程可调用）
+     */
+    public long getFrameNanos(int stat) {
+        return summary[FRAME][stat];
+    }
+
+    public long getPairChecks() {
+        return pairChecks;
+    }
+
+    public int getCandidatePairs() {
+        return candidatePairs;
+    }
+
+    public long getFilteredPairs() {
+        return filteredPairs;
+    }
+
+    public double getTickRate() {
+        return tickRate;
+    }
+
+    public double getPaintRate() {
+        return paintRate;
+    }
+
+    public double getCollisionRate() {
+        return collisionRate;
+    }
+
+    public int getObjectCount() {
+        return objectCount;
+    }
+
+    /**
+     * 生成浮层显示的文本行
+     */
+    public String[] describe() {
+        String[] lines = new String[PHASES.length + 2];
+        lines[0] = String.format("帧率 %.1f | 绘制 %.1f/s | 对象 %d | 碰撞 %.1f/s",
+            tickRate, paintRate, objectCount, collisionRate);
+        LatencyHistogram.Snapshot frame = snapshots[FRAME];
+        lines[PHASES.length + 1] = String.format("%-5s p50 %7s  p99 %7s  max %7s  (%d次)",
+            "整帧", formatNanos(frame.getPercentile(50)), formatNanos(frame.getPercentile(99)),
+            formatNanos(frame.getMax()), frame.getCount());
+        for (int i = 0; i < PHASES.length; i++) {
+            LatencyHistogram.Snapshot s = snapshots[i];
+            lines[i + 1] = String.format("%-5s p50 %7s  p99 %7s  max %7s  (%d次)",
+                PHASES[i].getDisplayName(), formatNanos(s.getPercentile(50)),
+                formatNanos(s.getPercentile(99)), formatNanos(s.getMax()), s.getCount());
+        }
+        return lines;
+    }
+
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000_000L) {
+            return String.format("%.1fμs", nanos / 1e3);
+        }
+        return String.format("%.2fms", nanos / 1e6);
+    }
+}
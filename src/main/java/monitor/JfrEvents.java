@@ -0,0 +1,135 @@
+package monitor;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 自定义的JDK Flight Recorder事件
+ * 在 src/main/resources/jfr/simulation.jfc 中配置启用和阈值；
+ * 未启用时 shouldCommit() 直接返回false，调用方只在其为true时才填充字段。
+ */
+public final class JfrEvents {
+    private JfrEvents() {}
+
+    @Name("bounce.SimulationTick")
+    @Label("Simulation Tick")
+    @Description("一帧模拟（运动、力场、碰撞检测、响应和录制）")
+    @Category({"Bounce", "Simulation"})
+    @StackTrace(false)
+    public static class SimulationTick extends Event {
+        @Label("Object Count")
+        public int objectCount;
+
+        @Label("Move")
+        @Timespan(Timespan.NANOSECONDS)
+        public long move;
+
+        @Label("Forces")
+        @Timespan(Timespan.NANOSECONDS)
+        public long forces;
+
+        @Label("Broadphase")
+        @Timespan(Timespan.NANOSECONDS)
+        public long broadphase;
+
+        @Label("Narrowphase")
+        @Timespan(Timespan.NANOSECONDS)
+        public long narrowphase;
+
+        @Label("Resolve")
+        @Timespan(Timespan.NANOSECONDS)
+        public long resolve;
+
+        @Label("Snapshot")
+        @Timespan(Timespan.NANOSECONDS)
+        public long snapshot;
+    }
+
+    @Name("bounce.CollisionBatch")
+    @Label("Collision Batch")
+    @Description("一帧内的碰撞检测批次")
+    @Category({"Bounce", "Simulation"})
+    @StackTrace(false)
+    public static class CollisionBatch extends Event {
+        @Label("Object Count")
+        public int objectCount;
+
+        @Label("Pair Checks")
+        public long pairChecks;
+
+        @Label("Candidate Pairs")
+        public int candidatePairs;
+
+        @Label("Filtered Pairs")
+        @Description("因碰撞层和掩码不匹配而跳过的对数")
+        public long filteredPairs;
+
+        @Label("Hits")
+        public int hits;
+    }
+
+    @Name("bounce.Save")
+    @Label("Save Game State")
+    @Category({"Bounce", "Persistence"})
+    public static class Save extends Event {
+        @Label("Object Count")
+        public int objectCount;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+
+        @Label("Success")
+        public boolean success;
+    }
+
+    @Name("bounce.Load")
+    @Label("Load Game State")
+    @Category({"Bounce", "Persistence"})
+    public static class Load extends Event {
+        @Label("Object Count")
+        public int objectCount;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("bounce.LogFlush")
+    @Label("Log Flush")
+    @Description("日志缓冲区写入文件")
+    @Category({"Bounce", "Logging"})
+    @StackTrace(false)
+    public static class LogFlush extends Event {
+        @Label("File")
+        public String file;
+
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    @Name("bounce.RenderFrame")
+    @Label("Render Frame")
+    @Description("一次画布绘制")
+    @Category({"Bounce", "Rendering"})
+    @StackTrace(false)
+    public static class RenderFrame extends Event {
+        @Label("Dirty Area")
+        @Description("本次重绘区域的像素数")
+        public long dirtyArea;
+
+        @Label("Dropped Frames")
+        @Description("自上次绘制以来被合并掉的模拟帧数")
+        public int droppedFrames;
+
+        @Label("Object Count")
+        public int objectCount;
+    }
+}
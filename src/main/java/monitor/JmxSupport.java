@@ -0,0 +1,28 @@
+package monitor;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * 在平台MBeanServer上注册管理接口，本地JConsole/VisualVM连接进程即可查看
+ */
+public final class JmxSupport {
+    private JmxSupport() {}
+
+    /**
+     * 注册（已存在同名MBean时先注销），失败只记录日志
+     */
+    public static void register(Object mbean, String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+        } catch (Exception e) {
+            EnhancedFileLogger.getInstance().logError("注册MBean失败: " + name, e);
+        }
+    }
+}
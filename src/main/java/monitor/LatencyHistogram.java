@@ -0,0 +1,104 @@
+package monitor;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 对数-线性分桶的耗时直方图（纳秒）
+ * 每个2的幂区间再线性细分为16个桶，相对误差约6%；记录只是一次原子自增，
+ * 可以被多个线程同时调用。读取时按桶取出并清零，得到上一个时间窗口的分布。
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40; // 约1100秒
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(bucketOf(nanos));
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) Math.max(value, 0);
+        }
+        int exponent = Math.min(63 - Long.numberOfLeadingZeros(value), MAX_EXPONENT);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * 桶的上界（该桶内的最大值）
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return (SUB_BUCKETS + sub) * width + width - 1;
+    }
+
+    /**
+     * 取出当前计数并清零，结果累加到快照中
+     */
+    public void drainTo(Snapshot snapshot) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts.get(i) != 0) {
+                snapshot.add(i, counts.getAndSet(i, 0));
+            }
+        }
+    }
+
+    /**
+     * 一个时间窗口内的分布（只由读取方线程使用）
+     */
+    public static class Snapshot {
+        private final long[] buckets = new long[BUCKET_COUNT];
+        private long total;
+        private int maxBucket = -1;
+
+        void add(int bucket, long count) {
+            buckets[bucket] += count;
+            total += count;
+            maxBucket = Math.max(maxBucket, bucket);
+        }
+
+        public void clear() {
+            if (total > 0) {
+                Arrays.fill(buckets, 0, maxBucket + 1, 0);
+            }
+            total = 0;
+            maxBucket = -1;
+        }
+
+        public long getCount() {
+            return total;
+        }
+
+        /**
+         * 百分位数（0-100），没有样本时返回0
+         */
+        public long getPercentile(double percentile) {
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int i = 0; i <= maxBucket; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return upperBoundOf(i);
+                }
+            }
+            return upperBoundOf(maxBucket);
+        }
+
+        public long getMax() {
+            return maxBucket < 0 ? 0 : upperBoundOf(maxBucket);
+        }
+    }
+}
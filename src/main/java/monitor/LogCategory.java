@@ -0,0 +1,37 @@
+package monitor;
+
+/**
+ * 日志分类
+ */
+public enum LogCategory {
+    COLLISION("碰撞"),
+    MOUSE("鼠标"),
+    OBJECT("对象"),
+    PERFORMANCE("性能"),
+    SYSTEM("系统");
+
+    private final String displayName;
+
+    LogCategory(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * 解析分类名称（不区分大小写），无法识别时返回null
+     */
+    public static LogCategory parse(String name) {
+        if (name == null) {
+            return null;
+        }
+        for (LogCategory category : values()) {
+            if (category.name().equalsIgnoreCase(name.trim()) || category.displayName.equals(name.trim())) {
+                return category;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,49 @@
+package monitor;
+
+/**
+ * 日志事件类型与事件编码
+ * 事件编码的低8位为事件类型，其后4位为分类，再后4位为级别；
+ * 文本日志、二进制日志和解码工具共用这些定义。
+ */
+final class LogEvents {
+    static final int EVT_MESSAGE = 1;
+    static final int EVT_RAW = 2;
+    static final int EVT_COLLISION = 3;
+    static final int EVT_OBJECT_CREATED = 4;
+    static final int EVT_OBJECT_REMOVED = 5;
+    static final int EVT_FRAME = 6;
+    static final int EVT_MOUSE = 7;
+    static final int EVT_ERROR = 8;
+    static final int EVT_PERFORMANCE = 9;
+    static final int EVT_LABELED = 10;
+
+    static final int CATEGORY_SHIFT = 8;
+    static final int LEVEL_SHIFT = 12;
+
+    private static final String[] TYPE_NAMES = {
+        "?", "MESSAGE", "RAW", "COLLISION", "OBJECT_CREATED", "OBJECT_REMOVED",
+        "FRAME", "MOUSE", "ERROR", "PERFORMANCE", "LABELED"
+    };
+
+    private LogEvents() {}
+
+    static int code(int type, LogCategory category, LogLevel level) {
+        return type | (category.ordinal() << CATEGORY_SHIFT) | (level.ordinal() << LEVEL_SHIFT);
+    }
+
+    static int typeOf(int code) {
+        return code & 0xFF;
+    }
+
+    static int categoryOf(int code) {
+        return (code >>> CATEGORY_SHIFT) & 0xF;
+    }
+
+    static int levelOf(int code) {
+        return (code >>> LEVEL_SHIFT) & 0xF;
+    }
+
+    static String typeName(int type) {
+        return type > 0 && type < TYPE_NAMES.length ? TYPE_NAMES[type] : "?";
+    }
+}
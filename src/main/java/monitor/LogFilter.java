@@ -0,0 +1,78 @@
+package monitor;
+
+/**
+ * 按分类设置最低级别的日志过滤器
+ * 级别阈值保存在不可变数组中，修改时整体替换（写少读多），
+ * 因此可以在运行时随时调整而无需加锁读取。
+ */
+public class LogFilter {
+    private volatile int[] thresholds;
+
+    public LogFilter(LogLevel defaultLevel) {
+        int[] initial = new int[LogCategory.values().length];
+        java.util.Arrays.fill(initial, defaultLevel.ordinal());
+        this.thresholds = initial;
+    }
+
+    /**
+     * 从系统属性读取配置：prefix 为整体级别，prefix.分类名 为单个分类的级别
+     * 例如 -Dlog.level=INFO -Dlog.level.collision=DEBUG
+     */
+    public static LogFilter fromProperties(String prefix, LogLevel defaultLevel) {
+        LogFilter filter = new LogFilter(LogLevel.parse(System.getProperty(prefix), defaultLevel));
+        for (LogCategory category : LogCategory.values()) {
+            String value = System.getProperty(prefix + "." + category.name().toLowerCase());
+            if (value != null) {
+                filter.setLevel(category, LogLevel.parse(value, filter.getLevel(category)));
+            }
+        }
+        return filter;
+    }
+
+    /**
+     * 检查指定分类和级别是否启用
+     */
+    public boolean isEnabled(LogCategory category, LogLevel level) {
+        return level.ordinal() >= thresholds[category.ordinal()];
+    }
+
+    boolean isEnabled(int categoryOrdinal, int levelOrdinal) {
+        return levelOrdinal >= thresholds[categoryOrdinal];
+    }
+
+    public LogLevel getLevel(LogCategory category) {
+        return LogLevel.values()[thresholds[category.ordinal()]];
+    }
+
+    /**
+     * 设置单个分类的最低级别
+     */
+    public synchronized void setLevel(LogCategory category, LogLevel level) {
+        int[] updated = thresholds.clone();
+        updated[category.ordinal()] = level.ordinal();
+        thresholds = updated;
+    }
+
+    /**
+     * 设置所有分类的最低级别
+     */
+    public synchronized void setLevel(LogLevel level) {
+        int[] updated = new int[thresholds.length];
+        java.util.Arrays.fill(updated, level.ordinal());
+        thresholds = updated;
+    }
+
+    /**
+     * 以文本形式描述当前配置，例如 COLLISION=INFO,MOUSE=DEBUG,...
+     */
+    public String describe() {
+        StringBuilder sb = new StringBuilder();
+        for (LogCategory category : LogCategory.values()) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(category.name()).append('=').append(getLevel(category));
+        }
+        return sb.toString();
+    }
+}
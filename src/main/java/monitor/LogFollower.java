@@ -0,0 +1,194 @@
+package monitor;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 日志跟随器
+ * 在后台线程中记住上次读取到的字节位置，只读取新增的完整行；
+ * 新内容累积后合并为一次EDT更新，日志轮转时自动切换到新文件。
+ */
+public class LogFollower {
+    private static final long POLL_INTERVAL_MS = 200;
+    private static final int READ_CHUNK = 256 * 1024;
+    private static final long INITIAL_BYTES = 64 * 1024;
+    private static final long MAX_BACKLOG_BYTES = 4 * 1024 * 1024;
+
+    private final Supplier<File> fileSupplier;
+    private final Consumer<String> edtConsumer;
+
+    private Thread thread;
+    private volatile boolean running;
+
+    private File currentFile;
+    private long offset;
+    private final ByteBuffer readBuffer = ByteBuffer.allocate(READ_CHUNK);
+
+    // 待投递到EDT的文本，合并多次读取，只调度一次invokeLater
+    private final StringBuilder pending = new StringBuilder();
+    private final AtomicBoolean deliveryScheduled = new AtomicBoolean(false);
+
+    /**
+     * @param fileSupplier 返回当前正在写入的日志文件
+     * @param edtConsumer  在EDT上接收新增文本
+     */
+    public LogFollower(Supplier<File> fileSupplier, Consumer<String> edtConsumer) {
+        this.fileSupplier = fileSupplier;
+        this.edtConsumer = edtConsumer;
+    }
+
+    public void start() {
+        running = true;
+        thread = new Thread(() -> {
+            while (running) {
+                try {
+                    poll();
+                    Thread.sleep(POLL_INTERVAL_MS);
+                } catch (InterruptedException e) {
+                    break;
+                } catch (IOException e) {
+                    // 文件可能正在轮转或已被压缩删除，下次轮询重试
+                }
+            }
+        }, "Log-Follow-Thread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * 读取一次新增内容
+     */
+    private void poll() throws IOException {
+        File file = fileSupplier.get();
+        if (file == null) {
+            return;
+        }
+
+        if (!file.equals(currentFile)) {
+            if (currentFile != null) {
+                // 轮转：先读完旧文件的剩余内容（如果尚未被压缩删除），再从新文件开头读起
+                if (currentFile.exists()) {
+                    readNewBytes(currentFile);
+                }
+                offset = 0;
+                append("[查看器] 已切换到新日志文件: " + file.getName() + "\n");
+            } else {
+                offset = Math.max(0, file.length() - INITIAL_BYTES);
+            }
+            currentFile = file;
+        }
+        readNewBytes(file);
+    }
+
+    private void readNewBytes(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < offset) {
+                offset = 0; // 文件被截断
+            }
+            if (size - offset > MAX_BACKLOG_BYTES) {
+                // 积压过多时跳到接近末尾的位置，避免一次性灌入大量文本
+                offset = size - MAX_BACKLOG_BYTES;
+            }
+            if (offset > 0 && !atLineStart(channel)) {
+                skipToNextLine(channel, size);
+            }
+
+            StringBuilder text = null;
+            while (offset < size) {
+                readBuffer.clear();
+                int read = channel.read(readBuffer, offset);
+                if (read <= 0) {
+                    break;
+                }
+                // 只取到最后一个换行为止，不完整的行留到下次读取
+                int end = read;
+                while (end > 0 && readBuffer.get(end - 1) != '\n') {
+                    end--;
+                }
+                if (end == 0) {
+                    if (read < READ_CHUNK) {
+                        break;
+                    }
+                    // 整块都没有换行（超长的一行），按块输出；末尾的多字节字符可能不完整，留到下一块
+                    int lead = read - 1;
+                    while (lead > 0 && (readBuffer.get(lead) & 0xC0) == 0x80) {
+                        lead--;
+                    }
+                    end = (readBuffer.get(lead) & 0x80) != 0 && lead > 0 ? lead : read;
+                }
+                if (text == null) {
+                    text = new StringBuilder();
+                }
+                text.append(new String(readBuffer.array(), 0, end, StandardCharsets.UTF_8));
+                offset += end;
+            }
+            if (text != null) {
+                append(text);
+            }
+        }
+    }
+
+    private boolean atLineStart(FileChannel channel) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        return channel.read(one, offset - 1) == 1 && one.get(0) == '\n';
+    }
+
+    private void skipToNextLine(FileChannel channel, long size) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(4096);
+        while (offset < size) {
+            block.clear();
+            int read = channel.read(block, offset);
+            if (read <= 0) {
+                return;
+            }
+            for (int i = 0; i < read; i++) {
+                if (block.get(i) == '\n') {
+                    offset += i + 1;
+                    return;
+                }
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * 累积文本并在需要时调度一次EDT投递
+     */
+    private void append(CharSequence text) {
+        synchronized (pending) {
+            pending.append(text);
+        }
+        if (deliveryScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::deliver);
+        }
+    }
+
+    private void deliver() {
+        // 先清除标记再取文本，保证之后追加的内容一定会触发新的投递
+        deliveryScheduled.set(false);
+        String text;
+        synchronized (pending) {
+            text = pending.toString();
+            pending.setLength(0);
+        }
+        if (!text.isEmpty() && running) {
+            edtConsumer.accept(text);
+        }
+    }
+}
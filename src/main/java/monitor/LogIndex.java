@@ -0,0 +1,148 @@
+package monitor;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * 单个日志文件的稀疏索引
+ * 每 STRIDE 行记录一次起始字节偏移，并记录该块内时间戳的最小值和最大值，
+ * 按时间窗口搜索时可以跳过整块；文件增长时从上次索引到的位置继续扫描。
+ */
+class LogIndex implements Closeable {
+    static final int STRIDE = 256;
+
+    private final String displayName;
+    private final MappedLogFile data;
+
+    private long[] blockOffsets = new long[64];
+    private int[] blockMinTime = new int[64];
+    private int[] blockMaxTime = new int[64];
+    private int blockCount;
+    private long lineCount;
+    private long indexedLength;
+
+    /* 引用数：索引器持有一个，每个仍在显示的搜索结果各持有一个，降为0时才关闭映射 */
+    private int references = 1;
+
+    LogIndex(String displayName, File file) throws IOException {
+        this.displayName = displayName;
+        this.data = new MappedLogFile(file);
+    }
+
+    /**
+     * 索引新增的完整行
+     */
+    void extend() throws IOException {
+        data.remap();
+        long length = data.length();
+        long offset = indexedLength;
+        while (offset < length) {
+            int len = data.lineLength(offset);
+            if (offset + len >= length) {
+                break; // 最后一行尚未写完
+            }
+            if (lineCount % STRIDE == 0) {
+                startBlock(offset);
+            }
+            int time = data.parseTimeOfDay(offset, len);
+            if (time >= 0) {
+                int block = blockCount - 1;
+                if (blockMinTime[block] < 0 || time < blockMinTime[block]) blockMinTime[block] = time;
+                if (time > blockMaxTime[block]) blockMaxTime[block] = time;
+            }
+            lineCount++;
+            offset += len + 1;
+        }
+        indexedLength = offset;
+    }
+
+    private void startBlock(long offset) {
+        if (blockCount == blockOffsets.length) {
+            int capacity = blockCount * 2;
+            blockOffsets = Arrays.copyOf(blockOffsets, capacity);
+            blockMinTime = Arrays.copyOf(blockMinTime, capacity);
+            blockMaxTime = Arrays.copyOf(blockMaxTime, capacity);
+        }
+        blockOffsets[blockCount] = offset;
+        blockMinTime[blockCount] = -1;
+        blockMaxTime[blockCount] = -1;
+        blockCount++;
+    }
+
+    /**
+     * 在时间窗口内按分类标记和关键字搜索（均在映射内存中按UTF-8字节比较，null 表示不限），命中的行偏移交给收集器
+     * @param fromTime 当天毫秒数，-1 表示不限
+     * @param toTime   当天毫秒数，-1 表示不限
+     */
+    void search(byte[] token, byte[] keyword, int fromTime, int toTime, HitCollector collector) {
+        boolean timeFilter = fromTime >= 0 || toTime >= 0;
+        int from = fromTime >= 0 ? fromTime : 0;
+        int to = toTime >= 0 ? toTime : Integer.MAX_VALUE;
+
+        for (int block = 0; block < blockCount; block++) {
+            if (timeFilter && (blockMinTime[block] < 0
+                    || blockMaxTime[block] < from || blockMinTime[block] > to)) {
+                continue; // 整块不在时间窗口内
+            }
+            long offset = blockOffsets[block];
+            long end = block + 1 < blockCount ? blockOffsets[block + 1] : indexedLength;
+            while (offset < end) {
+                int len = data.lineLength(offset);
+                boolean match = data.lineContains(offset, len, token) && data.lineContains(offset, len, keyword);
+                if (match && timeFilter) {
+                    int time = data.parseTimeOfDay(offset, len);
+                    match = time >= from && time <= to;
+                }
+                if (match && !collector.accept(offset)) {
+                    return;
+                }
+                offset += len + 1;
+            }
+        }
+    }
+
+    /**
+     * 命中收集器，返回false时停止搜索
+     */
+    interface HitCollector {
+        boolean accept(long offset);
+    }
+
+    synchronized void retain() {
+        references++;
+    }
+
+    /**
+     * 释放一个引用，返回是否已没有引用（此时应关闭）
+     */
+    synchronized boolean release() {
+        return --references == 0;
+    }
+
+    String readLine(long offset) {
+        return data.readLine(offset);
+    }
+
+    String getDisplayName() {
+        return displayName;
+    }
+
+    File getFile() {
+        return data.getFile();
+    }
+
+    long getLineCount() {
+        return lineCount;
+    }
+
+    long getIndexedLength() {
+        return indexedLength;
+    }
+
+    @Override
+    public void close() throws IOException {
+        data.close();
+    }
+}
@@ -0,0 +1,243 @@
+package monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 后台日志索引器
+ * 为日志目录中的每个文件（包括轮转压缩后的 .gz 文件）建立稀疏索引，
+ * 并在同一后台线程中执行搜索，索引只由该线程修改。
+ * 压缩文件先解压到缓存目录，再以内存映射方式读取。
+ * 搜索结果引用其中的索引，文件轮转或删除后，旧索引要等所有引用它的结果释放后才关闭。
+ */
+public class LogIndexer {
+    private static final String CACHE_DIR = ".cache";
+    static final int MAX_HITS = 100_000; // 每次搜索最多保留的命中数（约800KB）
+
+    private final File logDir;
+    private final File cacheDir;
+    private final Map<String, LogIndex> indices = new LinkedHashMap<>();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Log-Index-Thread");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public LogIndexer(File logDir) {
+        this.logDir = logDir;
+        this.cacheDir = new File(logDir, CACHE_DIR);
+    }
+
+    /**
+     * 在后台更新所有文件的索引
+     */
+    public void refreshAsync() {
+        executor.execute(this::refresh);
+    }
+
+    /**
+     * 在后台先更新索引再执行搜索，结果在后台线程中交给回调
+     * @param token    分类或关键字（可为空）
+     * @param keyword  额外的关键字（可为空）
+     * @param fromTime 当天毫秒数，-1 表示不限
+     * @param toTime   当天毫秒数，-1 表示不限
+     */
+    public void searchAsync(String token, String keyword, int fromTime, int toTime,
+                            Consumer<SearchResult> callback) {
+        executor.execute(() -> {
+            refresh();
+            callback.accept(search(token, keyword, fromTime, toTime));
+        });
+    }
+
+    private void refresh() {
+        File[] files = logDir.listFiles((dir, name) -> name.startsWith(FileChannelLogSink.FILE_PREFIX)
+            && (name.endsWith(".txt") || name.endsWith(".txt.gz")));
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, (f1, f2) -> f1.getName().compareTo(f2.getName()));
+
+        Map<String, LogIndex> current = new LinkedHashMap<>();
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                LogIndex index = indices.remove(name);
+                if (index == null) {
+                    File source = name.endsWith(".gz") ? decompressToCache(file) : file;
+                    index = new LogIndex(name, source);
+                }
+                index.extend();
+                current.put(name, index);
+            } catch (IOException e) {
+                // 文件可能刚被轮转压缩或删除，跳过
+            }
+        }
+
+        // 释放已不存在的文件的索引（仍被搜索结果引用的在结果释放后关闭）
+        for (LogIndex stale : indices.values()) {
+            releaseIndex(stale);
+        }
+        indices.clear();
+        indices.putAll(current);
+    }
+
+    private File decompressToCache(File gzFile) throws IOException {
+        if (!cacheDir.exists()) {
+            cacheDir.mkdirs();
+        }
+        String name = gzFile.getName();
+        File cached = new File(cacheDir, name.substring(0, name.length() - 3));
+        if (!cached.exists() || cached.lastModified() < gzFile.lastModified()) {
+            try (InputStream in = new GZIPInputStream(Files.newInputStream(gzFile.toPath()))) {
+                Files.copy(in, cached.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        return cached;
+    }
+
+    private SearchResult search(String token, String keyword, int fromTime, int toTime) {
+        List<LogIndex> files = new ArrayList<>(indices.values());
+        SearchResult result = new SearchResult(files);
+        byte[] tokenBytes = toBytes(token);
+        byte[] keywordBytes = toBytes(keyword);
+
+        for (int i = 0; i < files.size(); i++) {
+            int fileIndex = i;
+            LogIndex index = files.get(i);
+            index.search(tokenBytes, keywordBytes, fromTime, toTime, offset -> result.add(fileIndex, offset));
+            if (result.isTruncated()) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void releaseIndex(LogIndex index) {
+        if (index.release()) {
+            closeQuietly(index);
+            if (index.getFile().getParentFile().equals(cacheDir)) {
+                index.getFile().delete();
+            }
+        }
+    }
+
+    /**
+     * 不再显示搜索结果时调用，释放它引用的索引（可在任意线程调用）
+     */
+    public void release(SearchResult result) {
+        if (result != null && !executor.isShutdown() && result.markReleased()) {
+            executor.execute(() -> result.files.forEach(this::releaseIndex));
+        }
+    }
+
+    private static byte[] toBytes(String text) {
+        return text == null || text.isEmpty() ? null : text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void closeQuietly(LogIndex index) {
+        try {
+            index.close();
+        } catch (IOException e) {
+            // 忽略
+        }
+    }
+
+    public void shutdown() {
+        executor.execute(() -> {
+            for (LogIndex index : indices.values()) {
+                releaseIndex(index);
+            }
+            indices.clear();
+        });
+        executor.shutdown();
+    }
+
+    /**
+     * 搜索结果：命中行以"文件序号(高16位) + 字节偏移(低48位)"打包存放在long数组中，
+     * 显示时再按需从映射文件读取对应行；结果持有所涉及索引的引用，不再显示时交给 LogIndexer.release
+     */
+    public static class SearchResult {
+        private final List<LogIndex> files;
+        private long[] hits = new long[1024];
+        private int count;
+        private boolean truncated;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        SearchResult(List<LogIndex> files) {
+            this.files = files;
+            for (LogIndex index : files) {
+                index.retain();
+            }
+        }
+
+        boolean markReleased() {
+            return released.compareAndSet(false, true);
+        }
+
+        boolean add(int fileIndex, long offset) {
+            if (count >= MAX_HITS) {
+                truncated = true;
+                return false;
+            }
+            if (count == hits.length) {
+                hits = Arrays.copyOf(hits, count * 2);
+            }
+            hits[count++] = ((long) fileIndex << 48) | offset;
+            return true;
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public boolean isTruncated() {
+            return truncated;
+        }
+
+        public int getFileCount() {
+            return files.size();
+        }
+
+        /**
+         * 被搜索的文件涉及的日期数（按文件名中的日期，文件跨越午夜时不计入第二天）
+         */
+        public int getDayCount() {
+            Set<String> days = new HashSet<>();
+            int start = FileChannelLogSink.FILE_PREFIX.length();
+            for (LogIndex index : files) {
+                String name = index.getDisplayName();
+                if (name.length() >= start + 8) {
+                    days.add(name.substring(start, start + 8));
+                }
+            }
+            return days.size();
+        }
+
+        /**
+         * 读取第i条命中的行，前面加上所在文件名
+         */
+        public String getLine(int i) {
+            long hit = hits[i];
+            LogIndex index = files.get((int) (hit >>> 48));
+            return index.getDisplayName() + " | " + index.readLine(hit & 0xFFFF_FFFF_FFFFL);
+        }
+    }
+}
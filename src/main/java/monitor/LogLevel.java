@@ -0,0 +1,27 @@
+package monitor;
+
+/**
+ * 日志级别（由低到高）
+ */
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    /** 关闭：高于所有级别，用于屏蔽整个分类 */
+    OFF;
+
+    /**
+     * 解析级别名称（不区分大小写），无法识别时返回默认值
+     */
+    public static LogLevel parse(String name, LogLevel defaultLevel) {
+        if (name == null) {
+            return defaultLevel;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return defaultLevel;
+        }
+    }
+}
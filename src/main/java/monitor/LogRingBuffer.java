@@ -0,0 +1,157 @@
+package monitor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 多生产者单消费者的日志环形缓冲区
+ * 槽位在构造时一次性分配并循环复用，每个槽位保存事件类型、纳秒时间戳、
+ * 若干原始类型参数和对象引用（只保存已有对象的引用，不产生新分配）。
+ * 生产者通过CAS申请序号，写完槽位后以release语义发布；消费者按序号顺序读取。
+ */
+public class LogRingBuffer {
+
+    /**
+     * 缓冲区满时的处理策略
+     */
+    public enum OverflowPolicy {
+        /** 丢弃新事件并计数，生产者永不阻塞 */
+        DROP,
+        /** 自旋等待消费者腾出空间 */
+        BLOCK
+    }
+
+    /**
+     * 事件处理器（由消费者线程调用）
+     */
+    public interface EventHandler {
+        void onEvent(int type, long nanos, long arg0, long arg1, long arg2, Object ref0, Object ref1);
+    }
+
+    private static final VarHandle PUBLISHED = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final int capacity;
+    private final int mask;
+
+    // 槽位数据（结构数组形式）
+    private final long[] published;
+    private final int[] types;
+    private final long[] timestamps;
+    private final long[] args;
+    private final Object[] refs;
+
+    private final AtomicLong tail = new AtomicLong(0);
+    private volatile long head = 0;
+
+    private volatile OverflowPolicy overflowPolicy;
+    private final LongAdder droppedCount = new LongAdder();
+
+    public LogRingBuffer(int requestedCapacity, OverflowPolicy overflowPolicy) {
+        int size = Integer.highestOneBit(Math.max(2, requestedCapacity - 1)) << 1;
+        this.capacity = size;
+        this.mask = size - 1;
+        this.published = new long[size];
+        Arrays.fill(published, -1L);
+        this.types = new int[size];
+        this.timestamps = new long[size];
+        this.args = new long[size * 3];
+        this.refs = new Object[size * 2];
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * 发布一个事件
+     * @return 事件是否写入（DROP策略下缓冲区满时返回false）
+     */
+    public boolean publish(int type, long arg0, long arg1, long arg2, Object ref0, Object ref1) {
+        long seq;
+        while (true) {
+            seq = tail.get();
+            if (seq - head >= capacity) {
+                if (overflowPolicy == OverflowPolicy.DROP) {
+                    droppedCount.increment();
+                    return false;
+                }
+                Thread.onSpinWait();
+                continue;
+            }
+            if (tail.compareAndSet(seq, seq + 1)) {
+                break;
+            }
+        }
+
+        int slot = (int) (seq & mask);
+        types[slot] = type;
+        timestamps[slot] = System.nanoTime();
+        args[slot * 3] = arg0;
+        args[slot * 3 + 1] = arg1;
+        args[slot * 3 + 2] = arg2;
+        refs[slot * 2] = ref0;
+        refs[slot * 2 + 1] = ref1;
+        PUBLISHED.setRelease(published, slot, seq);
+        return true;
+    }
+
+    /**
+     * 按顺序消费已发布的事件（仅允许单个消费者线程调用）
+     * @return 本次处理的事件数
+     */
+    public int drain(EventHandler handler, int maxEvents) {
+        long h = head;
+        int count = 0;
+        while (count < maxEvents) {
+            int slot = (int) (h & mask);
+            if ((long) PUBLISHED.getAcquire(published, slot) != h) {
+                break;
+            }
+            handler.onEvent(types[slot], timestamps[slot],
+                    args[slot * 3], args[slot * 3 + 1], args[slot * 3 + 2],
+                    refs[slot * 2], refs[slot * 2 + 1]);
+            // 释放引用，避免槽位长期持有对象
+            refs[slot * 2] = null;
+            refs[slot * 2 + 1] = null;
+            h++;
+            head = h;
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 消费者空闲时短暂等待
+     */
+    public void idleWait(long nanos) {
+        LockSupport.parkNanos(nanos);
+    }
+
+    /**
+     * 当前待消费的事件数
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getDroppedCount() {
+        return droppedCount.sum();
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+}
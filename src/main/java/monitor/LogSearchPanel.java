@@ -0,0 +1,132 @@
+package monitor;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+
+/**
+ * 日志搜索面板
+ * 按分类、时间窗口和关键字搜索所有日志文件（含已轮转的文件），
+ * 结果列表是虚拟化的：只保存命中行的偏移，显示到的行才从映射文件中读取。
+ * 时间窗口按每天的时刻匹配：日志行只记录时分秒，搜索多天的日志时各天同一时段的行都会命中。
+ */
+public class LogSearchPanel extends JPanel {
+    private static final String[] CATEGORY_NAMES = {"全部", "碰撞", "错误", "性能", "鼠标", "系统"};
+    private static final String[] CATEGORY_TOKENS = {null, "[碰撞", "[错误]", "[性能]", "[鼠标]", "[系统]"};
+
+    private final LogIndexer indexer;
+    private final JComboBox<String> categoryBox = new JComboBox<>(CATEGORY_NAMES);
+    private final JTextField fromField = new JTextField(8);
+    private final JTextField toField = new JTextField(8);
+    private final JTextField keywordField = new JTextField(12);
+    private final JButton searchButton = new JButton("搜索");
+    private final JLabel statusLabel = new JLabel("输入条件后点击搜索");
+    private final JList<String> resultList = new JList<>();
+    private LogIndexer.SearchResult currentResult;
+
+    public LogSearchPanel(File logDir) {
+        super(new BorderLayout());
+        indexer = new LogIndexer(logDir);
+        indexer.refreshAsync();
+
+        JPanel conditionPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        conditionPanel.add(new JLabel("分类:"));
+        conditionPanel.add(categoryBox);
+        conditionPanel.add(new JLabel("时间 从"));
+        fromField.setToolTipText("HH:mm:ss，留空表示不限；按每天的时刻匹配，不区分日期");
+        conditionPanel.add(fromField);
+        conditionPanel.add(new JLabel("到"));
+        toField.setToolTipText("HH:mm:ss，留空表示不限；按每天的时刻匹配，不区分日期");
+        conditionPanel.add(toField);
+        conditionPanel.add(new JLabel("关键字:"));
+        conditionPanel.add(keywordField);
+        conditionPanel.add(searchButton);
+
+        searchButton.addActionListener(e -> search());
+        keywordField.addActionListener(e -> search());
+
+        // 固定行高，JList只为可见行调用getElementAt
+        resultList.setFont(new Font("Monospaced", Font.PLAIN, 12));
+        resultList.setPrototypeCellValue("game_log_00000000_000000.txt | [00:00:00.000] [碰撞汇总] 000000");
+
+        add(conditionPanel, BorderLayout.NORTH);
+        add(new JScrollPane(resultList), BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+    }
+
+    private void search() {
+        int from;
+        int to;
+        try {
+            from = parseTime(fromField.getText(), false);
+            to = parseTime(toField.getText(), true);
+        } catch (IllegalArgumentException e) {
+            statusLabel.setText("时间格式应为 HH:mm:ss");
+            return;
+        }
+
+        String token = CATEGORY_TOKENS[categoryBox.getSelectedIndex()];
+        String keyword = keywordField.getText().trim();
+        searchButton.setEnabled(false);
+        statusLabel.setText("正在索引并搜索...");
+        long start = System.nanoTime();
+
+        boolean timeFilter = from >= 0 || to >= 0;
+        indexer.searchAsync(token, keyword, from, to, result -> SwingUtilities.invokeLater(() -> {
+            resultList.setModel(new ResultListModel(result));
+            indexer.release(currentResult);
+            currentResult = result;
+            statusLabel.setText(String.format("%d 个文件中找到 %d 条%s%s | 耗时 %dms",
+                result.getFileCount(), result.size(),
+                result.isTruncated() ? "（只保留前 " + LogIndexer.MAX_HITS + " 条）" : "",
+                timeFilter && result.getDayCount() > 1 ? "（时间按时刻匹配，包含 " + result.getDayCount() + " 天的日志）" : "",
+                (System.nanoTime() - start) / 1_000_000));
+            searchButton.setEnabled(true);
+        }));
+    }
+
+    /**
+     * 解析 HH:mm[:ss] 为当天毫秒数，空白返回-1
+     */
+    private static int parseTime(String text, boolean endOfSecond) {
+        text = text.trim();
+        if (text.isEmpty()) {
+            return -1;
+        }
+        String[] parts = text.split(":");
+        if (parts.length < 2 || parts.length > 3) {
+            throw new IllegalArgumentException(text);
+        }
+        int h = Integer.parseInt(parts[0]);
+        int m = Integer.parseInt(parts[1]);
+        int s = parts.length == 3 ? Integer.parseInt(parts[2]) : (endOfSecond ? 59 : 0);
+        return ((h * 60 + m) * 60 + s) * 1000 + (endOfSecond ? 999 : 0);
+    }
+
+    public void shutdown() {
+        indexer.release(currentResult);
+        currentResult = null;
+        indexer.shutdown();
+    }
+
+    /**
+     * 按需读取行内容的列表模型
+     */
+    private static class ResultListModel extends AbstractListModel<String> {
+        private final LogIndexer.SearchResult result;
+
+        ResultListModel(LogIndexer.SearchResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public int getSize() {
+            return result.size();
+        }
+
+        @Override
+        public String getElementAt(int index) {
+            return result.getLine(index);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package monitor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 日志尾部读取器
+ * 从文件末尾按固定大小的块向前扫描，直到找到所需的换行数，
+ * 读取开销只与输出的行数有关，与文件大小无关。
+ */
+public class LogTailReader {
+    private static final int BLOCK_SIZE = 8 * 1024;
+
+    private LogTailReader() {}
+
+    /**
+     * 读取文件的最后若干行（每行以换行符结尾）
+     */
+    public static String tail(File file, int lines) throws IOException {
+        if (lines <= 0) {
+            return "";
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size == 0) {
+                return "";
+            }
+            long start = findTailStart(channel, size, lines);
+
+            ByteBuffer content = ByteBuffer.allocate((int) (size - start));
+            readFully(channel, content, start);
+            String text = new String(content.array(), 0, content.position(), StandardCharsets.UTF_8);
+            return text.endsWith("\n") ? text : text + "\n";
+        }
+    }
+
+    /**
+     * 向前扫描，返回倒数第 lines 行的起始位置
+     */
+    private static long findTailStart(FileChannel channel, long size, int lines) throws IOException {
+        ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+        long position = size;
+        int newlines = 0;
+        while (position > 0) {
+            int length = (int) Math.min(BLOCK_SIZE, position);
+            position -= length;
+            block.clear().limit(length);
+            readFully(channel, block, position);
+
+            for (int i = length - 1; i >= 0; i--) {
+                if (block.get(i) != '\n' || position + i == size - 1) {
+                    continue; // 文件末尾的换行不算作行分隔
+                }
+                if (++newlines == lines) {
+                    return position + i + 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+    }
+}
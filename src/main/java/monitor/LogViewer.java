@@ -1,83 +1,162 @@
 package monitor;
 
 import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.DefaultCaret;
+import javax.swing.text.Document;
 import java.awt.*;
 import java.awt.event.*;
 
 /**
  * 简单的日志查看器
+ * 跟随模式下只追加新写入的行，文档行数超过上限时从头部裁剪；
+ * "搜索"页可按分类和时间窗口检索所有已轮转的日志，"指标"页显示运行指标的历史曲线
  */
 public class LogViewer extends JFrame {
+    private static final int MAX_LINES = 5000;
+
     private EnhancedFileLogger logger;
     private JTextArea logArea;
     private JButton refreshBtn;
     private JButton openDirBtn;
-    
+    private JCheckBox followBox;
+    private JLabel statusLabel;
+    private LogFollower follower;
+    private LogSearchPanel searchPanel;
+
     public LogViewer() {
         logger = EnhancedFileLogger.getInstance();
-        
+
         setTitle("日志查看器");
         setSize(800, 600);
         setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
         setLocationRelativeTo(null);
-        
+
         initUI();
     }
-    
+
     private void initUI() {
         // 控制面板
         JPanel controlPanel = new JPanel(new FlowLayout());
-        
+
         refreshBtn = new JButton("刷新");
         openDirBtn = new JButton("打开日志目录");
         JButton clearBtn = new JButton("清空显示");
         JButton closeBtn = new JButton("关闭");
-        
+        followBox = new JCheckBox("跟随", true);
+
         refreshBtn.addActionListener(e -> refreshLogs());
         openDirBtn.addActionListener(e -> logger.openLogDirectory());
         clearBtn.addActionListener(e -> logArea.setText(""));
         closeBtn.addActionListener(e -> dispose());
-        
+        followBox.addActionListener(e -> {
+            if (followBox.isSelected()) {
+                scrollToEnd();
+            }
+        });
+
+        controlPanel.add(followBox);
         controlPanel.add(refreshBtn);
         controlPanel.add(openDirBtn);
         controlPanel.add(clearBtn);
         controlPanel.add(closeBtn);
-        
-        // 日志显示区域
+
+        // 日志显示区域（光标不随文档更新移动，由跟随模式决定是否滚动）
         logArea = new JTextArea();
         logArea.setFont(new Font("Monospaced", Font.PLAIN, 12));
         logArea.setEditable(false);
+        ((DefaultCaret) logArea.getCaret()).setUpdatePolicy(DefaultCaret.NEVER_UPDATE);
         JScrollPane scrollPane = new JScrollPane(logArea);
-        
+
         // 状态栏
         JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
-        JLabel statusLabel = new JLabel("日志文件: " + logger.getLogFilePath());
+        statusLabel = new JLabel("日志文件: " + logger.getLogFilePath());
         statusPanel.add(statusLabel);
-        
-        // 自动刷新定时器
-        Timer refreshTimer = new Timer(5000, e -> refreshLogs());
-        refreshTimer.start();
-        
+
+        // 实时日志页
+        JPanel livePanel = new JPanel(new BorderLayout());
+        livePanel.add(controlPanel, BorderLayout.NORTH);
+        livePanel.add(scrollPane, BorderLayout.CENTER);
+        livePanel.add(statusPanel, BorderLayout.SOUTH);
+
+        // 搜索页
+        searchPanel = new LogSearchPanel(logger.getLogDirectory());
+
+        JTabbedPane tabs = new JTabbedPane();
+        tabs.addTab("实时", livePanel);
+        tabs.addTab("搜索", searchPanel);
+        tabs.addTab("指标", new MetricsChartPanel());
+
         // 布局
         setLayout(new BorderLayout());
-        add(controlPanel, BorderLayout.NORTH);
-        add(scrollPane, BorderLayout.CENTER);
-        add(statusPanel, BorderLayout.SOUTH);
-        
-        // 初始刷新
-        refreshLogs();
+        add(tabs, BorderLayout.CENTER);
+
+        // 后台跟随日志文件，新内容批量追加到文档
+        follower = new LogFollower(logger::getLogFile, this::appendLogs);
+        follower.start();
     }
-    
-    private void refreshLogs() {
-        String recentLogs = logger.getRecentLogs(100); // 显示最近100行
-        logArea.setText(recentLogs);
+
+    /**
+     * 追加新日志并裁剪超出上限的头部行（在EDT上调用）
+     */
+    private void appendLogs(String text) {
+        Document document = logArea.getDocument();
+        try {
+            document.insertString(document.getLength(), text, null);
+            int excess = logArea.getLineCount() - 1 - MAX_LINES;
+            if (excess > 0) {
+                document.remove(0, logArea.getLineStartOffset(excess));
+            }
+        } catch (BadLocationException e) {
+            logArea.setText(text);
+        }
+        statusLabel.setText("日志文件: " + logger.getLogFilePath());
+        if (followBox.isSelected()) {
+            scrollToEnd();
+        }
+    }
+
+    private void scrollToEnd() {
         logArea.setCaretPosition(logArea.getDocument().getLength()); // 滚动到底部
     }
-    
+
+    /**
+     * 重新加载最近的日志（在后台读取，读取完成后替换显示内容）
+     */
+    private void refreshLogs() {
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return logger.getRecentLogs(100); // 显示最近100行
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    logArea.setText(get());
+                    scrollToEnd();
+                } catch (Exception e) {
+                    logArea.setText("读取日志失败: " + e.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    @Override
+    public void dispose() {
+        if (follower != null) {
+            follower.stop();
+        }
+        if (searchPanel != null) {
+            searchPanel.shutdown();
+        }
+        super.dispose();
+    }
+
     public static void showViewer() {
         SwingUtilities.invokeLater(() -> {
             LogViewer viewer = new LogViewer();
             viewer.setVisible(true);
         });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package monitor;
+
+/**
+ * 日志系统的JMX接口（ObjectName: bounce:type=Logging）
+ */
+public interface LoggingMXBean {
+    int getQueueSize();
+
+    long getDroppedEventCount();
+
+    String getLogFile();
+
+    String getFileLevels();
+
+    String getConsoleLevels();
+
+    int getCollisionSampleRate();
+
+    void setCollisionSampleRate(int sampleRate);
+
+    /**
+     * 设置文件日志级别，category 为 ALL 时作用于所有分类
+     */
+    boolean setLevel(String category, String level);
+
+    boolean setConsoleLevel(String category, String level);
+}
@@ -0,0 +1,55 @@
+package monitor;
+
+/**
+ * 日志系统的JMX实现
+ */
+public class LoggingMetrics implements LoggingMXBean {
+    public static final String OBJECT_NAME = "bounce:type=Logging";
+
+    private final EnhancedFileLogger logger = EnhancedFileLogger.getInstance();
+
+    @Override
+    public int getQueueSize() {
+        return logger.getQueueSize();
+    }
+
+    @Override
+    public long getDroppedEventCount() {
+        return logger.getDroppedEventCount();
+    }
+
+    @Override
+    public String getLogFile() {
+        return logger.getLogFilePath();
+    }
+
+    @Override
+    public String getFileLevels() {
+        return logger.getFileFilter().describe();
+    }
+
+    @Override
+    public String getConsoleLevels() {
+        return logger.getConsoleFilter().describe();
+    }
+
+    @Override
+    public int getCollisionSampleRate() {
+        return logger.getCollisionSampleRate();
+    }
+
+    @Override
+    public void setCollisionSampleRate(int sampleRate) {
+        logger.setCollisionSampleRate(sampleRate);
+    }
+
+    @Override
+    public boolean setLevel(String category, String level) {
+        return logger.setLevel(category, level);
+    }
+
+    @Override
+    public boolean setConsoleLevel(String category, String level) {
+        return logger.setConsoleLevel(category, level);
+    }
+}
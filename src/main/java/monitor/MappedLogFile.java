@@ -0,0 +1,156 @@
+package monitor;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射的只读日志文件
+ * 按固定大小分段映射（相邻段之间有重叠，保证一行不会跨段），
+ * 支持多GB文件；按字节偏移读取单行，不占用堆内存保存文件内容。
+ */
+class MappedLogFile implements Closeable {
+    private static final long SEGMENT_SIZE = 1L << 28; // 256MB
+    private static final int OVERLAP = 64 * 1024;      // 单行最大长度
+
+    private final File file;
+    private final FileChannel channel;
+    private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+    private volatile long length;
+
+    MappedLogFile(File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        remap();
+    }
+
+    /**
+     * 文件增长后重新映射（只在长度变化时执行）
+     */
+    boolean remap() throws IOException {
+        long size = channel.size();
+        if (size == length && segments.length > 0) {
+            return false;
+        }
+        int count = (int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        MappedByteBuffer[] mapped = new MappedByteBuffer[count];
+        for (int i = 0; i < count; i++) {
+            long start = i * SEGMENT_SIZE;
+            long end = Math.min(size, start + SEGMENT_SIZE + OVERLAP);
+            mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        }
+        segments = mapped;
+        length = size;
+        return true;
+    }
+
+    File getFile() {
+        return file;
+    }
+
+    long length() {
+        return length;
+    }
+
+    byte get(long position) {
+        int segment = (int) (position / SEGMENT_SIZE);
+        return segments[segment].get((int) (position - segment * SEGMENT_SIZE));
+    }
+
+    /**
+     * 从指定偏移开始的行长度（不含换行符），最长不超过段重叠区大小
+     */
+    int lineLength(long offset) {
+        MappedByteBuffer[] mapped = segments;
+        int segment = (int) (offset / SEGMENT_SIZE);
+        MappedByteBuffer buffer = mapped[segment];
+        int start = (int) (offset - segment * SEGMENT_SIZE);
+        int limit = Math.min(buffer.limit(), start + OVERLAP);
+        int i = start;
+        while (i < limit && buffer.get(i) != '\n') {
+            i++;
+        }
+        return i - start;
+    }
+
+    /**
+     * 读取一行文本（用于界面显示）
+     */
+    String readLine(long offset) {
+        MappedByteBuffer[] mapped = segments;
+        int segment = (int) (offset / SEGMENT_SIZE);
+        if (offset >= length || segment >= mapped.length) {
+            return ""; // 文件已关闭
+        }
+        int len = lineLength(offset);
+        MappedByteBuffer buffer = mapped[segment];
+        byte[] bytes = new byte[len];
+        buffer.get((int) (offset - segment * SEGMENT_SIZE), bytes, 0, len);
+        if (len > 0 && bytes[len - 1] == '\r') {
+            len--;
+        }
+        return new String(bytes, 0, len, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 在一行的字节中查找子串（直接比较UTF-8字节，不解码）
+     */
+    boolean lineContains(long offset, int len, byte[] token) {
+        if (token == null || token.length == 0) {
+            return true;
+        }
+        int segment = (int) (offset / SEGMENT_SIZE);
+        MappedByteBuffer buffer = segments[segment];
+        int start = (int) (offset - segment * SEGMENT_SIZE);
+        int last = start + len - token.length;
+        outer:
+        for (int i = start; i <= last; i++) {
+            for (int j = 0; j < token.length; j++) {
+                if (buffer.get(i + j) != token[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 解析行首的 [HH:mm:ss.SSS] 时间戳，返回当天的毫秒数；没有时间戳时返回-1
+     */
+    int parseTimeOfDay(long offset, int len) {
+        if (len < 14 || get(offset) != '[' || get(offset + 13) != ']') {
+            return -1;
+        }
+        int h = digits(offset + 1, 2);
+        int m = digits(offset + 4, 2);
+        int s = digits(offset + 7, 2);
+        int ms = digits(offset + 10, 3);
+        if (h < 0 || m < 0 || s < 0 || ms < 0) {
+            return -1;
+        }
+        return ((h * 60 + m) * 60 + s) * 1000 + ms;
+    }
+
+    private int digits(long offset, int count) {
+        int value = 0;
+        for (int i = 0; i < count; i++) {
+            int d = get(offset + i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    @Override
+    public void close() throws IOException {
+        segments = new MappedByteBuffer[0];
+        channel.close();
+    }
+}
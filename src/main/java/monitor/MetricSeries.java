@@ -0,0 +1,96 @@
+package monitor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Date;
+
+/**
+ * 一段时间内的指标采样序列（时间戳 + 每个指标一列定点数值）
+ */
+public class MetricSeries {
+    private static final MetricsRecorder.Metric[] METRICS = MetricsRecorder.Metric.values();
+
+    private long[] timestamps;
+    private final long[][] values = new long[METRICS.length][];
+    private int size;
+
+    public MetricSeries(int capacity) {
+        capacity = Math.max(capacity, 16);
+        timestamps = new long[capacity];
+        for (int m = 0; m < values.length; m++) {
+            values[m] = new long[capacity];
+        }
+    }
+
+    /**
+     * 追加一个采样，sample 按 Metric 的顺序排列
+     */
+    void add(long timestamp, long[] sample) {
+        if (size == timestamps.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            for (int m = 0; m < values.length; m++) {
+                values[m] = Arrays.copyOf(values[m], capacity);
+            }
+        }
+        timestamps[size] = timestamp;
+        for (int m = 0; m < values.length; m++) {
+            values[m][size] = sample[m];
+        }
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getTimestamp(int i) {
+        return timestamps[i];
+    }
+
+    public long getLastTimestamp() {
+        return size > 0 ? timestamps[size - 1] : Long.MIN_VALUE;
+    }
+
+    /**
+     * 指标的显示值（已按比例还原小数）
+     */
+    public double getValue(MetricsRecorder.Metric metric, int i) {
+        return values[metric.ordinal()][i] / (double) metric.getScale();
+    }
+
+    long getRaw(MetricsRecorder.Metric metric, int i) {
+        return values[metric.ordinal()][i];
+    }
+
+    /**
+     * 导出为CSV：第一列为本地时间，其余每个指标一列
+     */
+    public void writeCsv(Writer out) throws IOException {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        out.write("time");
+        for (MetricsRecorder.Metric metric : METRICS) {
+            out.write(',');
+            out.write(metric.name().toLowerCase());
+        }
+        out.write('\n');
+        StringBuilder line = new StringBuilder(128);
+        for (int i = 0; i < size; i++) {
+            line.setLength(0);
+            line.append(sdf.format(new Date(timestamps[i])));
+            for (MetricsRecorder.Metric metric : METRICS) {
+                line.append(',');
+                long raw = values[metric.ordinal()][i];
+                if (metric.getScale() == 1) {
+                    line.append(raw);
+                } else {
+                    line.append(raw / (double) metric.getScale());
+                }
+            }
+            line.append('\n');
+            out.append(line);
+        }
+    }
+}
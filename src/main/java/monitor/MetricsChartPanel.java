@@ -0,0 +1,183 @@
+package monitor;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * 运行指标图表面板
+ * 选择指标和时间范围后在后台读取历史数据；绘制时按像素列取最小/最大值，
+ * 数据点再多也只画与宽度相当的线段。
+ */
+public class MetricsChartPanel extends JPanel {
+    private static final String[] RANGE_NAMES = {"最近10分钟", "最近1小时", "最近6小时", "最近24小时"};
+    private static final long[] RANGE_MILLIS = {10 * 60_000L, 3_600_000L, 6 * 3_600_000L, 24 * 3_600_000L};
+
+    private final JComboBox<MetricsRecorder.Metric> metricBox = new JComboBox<>(MetricsRecorder.Metric.values());
+    private final JComboBox<String> rangeBox = new JComboBox<>(RANGE_NAMES);
+    private final JLabel statusLabel = new JLabel(" ");
+    private final Chart chart = new Chart();
+    private MetricSeries series;
+
+    public MetricsChartPanel() {
+        super(new BorderLayout());
+        metricBox.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                MetricsRecorder.Metric metric = (MetricsRecorder.Metric) value;
+                String text = metric.getDisplayName() + (metric.getUnit().isEmpty() ? "" : " (" + metric.getUnit() + ")");
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        rangeBox.setSelectedIndex(1);
+
+        JButton refreshButton = new JButton("刷新");
+        JButton exportButton = new JButton("导出CSV");
+        metricBox.addActionListener(e -> chart.repaint());
+        rangeBox.addActionListener(e -> reload());
+        refreshButton.addActionListener(e -> reload());
+        exportButton.addActionListener(e -> exportCsv());
+
+        JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controlPanel.add(new JLabel("指标:"));
+        controlPanel.add(metricBox);
+        controlPanel.add(rangeBox);
+        controlPanel.add(refreshButton);
+        controlPanel.add(exportButton);
+
+        add(controlPanel, BorderLayout.NORTH);
+        add(chart, BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+        reload();
+    }
+
+    private void reload() {
+        long since = System.currentTimeMillis() - RANGE_MILLIS[rangeBox.getSelectedIndex()];
+        statusLabel.setText("正在读取...");
+        new SwingWorker<MetricSeries, Void>() {
+            @Override
+            protected MetricSeries doInBackground() {
+                return MetricsRecorder.getInstance().getHistory(since);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    series = get();
+                    statusLabel.setText(series.size() + " 个采样");
+                } catch (Exception e) {
+                    statusLabel.setText("读取指标失败: " + e.getMessage());
+                }
+                chart.repaint();
+            }
+        }.execute();
+    }
+
+    private void exportCsv() {
+        if (series == null || series.size() == 0) {
+            statusLabel.setText("没有可导出的数据");
+            return;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("metrics.csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try (Writer out = Files.newBufferedWriter(chooser.getSelectedFile().toPath(), StandardCharsets.UTF_8)) {
+            series.writeCsv(out);
+            statusLabel.setText("已导出 " + series.size() + " 行到 " + chooser.getSelectedFile().getName());
+        } catch (Exception e) {
+            statusLabel.setText("导出失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 折线图
+     */
+    private class Chart extends JComponent {
+        private static final int MARGIN_LEFT = 60;
+        private static final int MARGIN = 20;
+
+        Chart() {
+            setBackground(Color.WHITE);
+            setOpaque(true);
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            Graphics2D g2 = (Graphics2D) g;
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            MetricSeries data = series;
+            if (data == null || data.size() < 2) {
+                g2.setColor(Color.GRAY);
+                g2.drawString("暂无数据", getWidth() / 2 - 24, getHeight() / 2);
+                return;
+            }
+            MetricsRecorder.Metric metric = (MetricsRecorder.Metric) metricBox.getSelectedItem();
+            int plotWidth = getWidth() - MARGIN_LEFT - MARGIN;
+            int plotHeight = getHeight() - 2 * MARGIN;
+            if (plotWidth <= 0 || plotHeight <= 0) {
+                return;
+            }
+
+            // 按像素列聚合最小/最大值
+            long t0 = data.getTimestamp(0);
+            long span = Math.max(1, data.getLastTimestamp() - t0);
+            double[] columnMin = new double[plotWidth];
+            double[] columnMax = new double[plotWidth];
+            java.util.Arrays.fill(columnMin, Double.NaN);
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            for (int i = 0; i < data.size(); i++) {
+                double value = data.getValue(metric, i);
+                int x = (int) ((data.getTimestamp(i) - t0) * (plotWidth - 1) / span);
+                if (Double.isNaN(columnMin[x])) {
+                    columnMin[x] = columnMax[x] = value;
+                } else {
+                    columnMin[x] = Math.min(columnMin[x], value);
+                    columnMax[x] = Math.max(columnMax[x], value);
+                }
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max == min) {
+                max = min + 1;
+            }
+
+            // 坐标轴和刻度
+            g2.setColor(Color.LIGHT_GRAY);
+            g2.drawRect(MARGIN_LEFT, MARGIN, plotWidth, plotHeight);
+            g2.setColor(Color.DARK_GRAY);
+            g2.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 11));
+            g2.drawString(String.format("%.1f", max), 4, MARGIN + 10);
+            g2.drawString(String.format("%.1f", min), 4, MARGIN + plotHeight);
+            SimpleDateFormat sdf = new SimpleDateFormat("HH:mm:ss");
+            g2.drawString(sdf.format(new Date(t0)), MARGIN_LEFT, getHeight() - 4);
+            String end = sdf.format(new Date(data.getLastTimestamp()));
+            g2.drawString(end, MARGIN_LEFT + plotWidth - g2.getFontMetrics().stringWidth(end), getHeight() - 4);
+
+            g2.setColor(new Color(30, 110, 200));
+            int lastY = -1;
+            for (int x = 0; x < plotWidth; x++) {
+                if (Double.isNaN(columnMin[x])) {
+                    continue;
+                }
+                int yMin = MARGIN + (int) ((max - columnMin[x]) * plotHeight / (max - min));
+                int yMax = MARGIN + (int) ((max - columnMax[x]) * plotHeight / (max - min));
+                int px = MARGIN_LEFT + x;
+                g2.drawLine(px, yMax, px, yMin);
+                if (lastY >= 0) {
+                    g2.drawLine(px - 1, lastY, px, (yMin + yMax) / 2);
+                }
+                lastY = (yMin + yMax) / 2;
+            }
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package monitor;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * 运行指标的时间序列记录器
+ * 按固定间隔采样各项计数器和测量值，写入预分配的环形缓冲区；
+ * 每攒够一块就以增量编码（相邻采样之差，zigzag 变长整数）追加到滚动的二进制文件，
+ * 文件头记录指标名，因此旧文件在指标增减后仍可读取。
+ */
+public class MetricsRecorder {
+    private static MetricsRecorder instance;
+
+    /**
+     * 采样的指标；数值以定点整数保存，显示时除以 scale
+     */
+    public enum Metric {
+        OBJECT_COUNT("对象数", "", 1),
+        TICK_RATE("帧率", "FPS", 10),
+        COLLISION_RATE("碰撞速率", "次/秒", 10),
+        HEAP_USED("堆内存", "MB", 10),
+        GC_PAUSE("GC暂停", "ms/间隔", 1),
+        LOG_QUEUE("日志队列", "条", 1),
+        FRAME_P99("帧耗时p99", "ms", 100),
+        EDT_LATENCY("EDT延迟", "ms", 10),
+        EDT_STALLS("EDT卡顿次数", "", 1),
+        SIMULATION_CPU("模拟CPU", "%", 10),
+        LOGGING_CPU("日志线程CPU", "%", 10),
+        BLOCKED_RATE("线程阻塞", "次/秒", 10),
+        ALLOCATION_RATE("分配速率", "MB/s", 10);
+
+        private final String displayName;
+        private final String unit;
+        private final int scale;
+
+        Metric(String displayName, String unit, int scale) {
+            this.displayName = displayName;
+            this.unit = unit;
+            this.scale = scale;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public int getScale() {
+            return scale;
+        }
+    }
+
+    public static final String FILE_PREFIX = "metrics_";
+    public static final String FILE_SUFFIX = ".bin";
+
+    private static final int MAGIC = 0x49414D54; // "IAMT"
+    private static final int VERSION = 1;
+    private static final Metric[] METRICS = Metric.values();
+
+    private static final long INTERVAL_MS = Long.getLong("metrics.interval", 1000L);
+    private static final int CAPACITY = Integer.getInteger("metrics.capacity", 86_400); // 默认间隔下为24小时
+    private static final int BLOCK_SAMPLES = 60;
+    private static final long MAX_FILE_BYTES = 4L * 1024 * 1024;
+    private static final int MAX_FILES = 10;
+
+    // 环形缓冲区（写入只在采样线程中进行，读取时加锁复制）
+    private final long[] timestamps = new long[CAPACITY];
+    private final long[][] values = new long[METRICS.length][CAPACITY];
+    private long total;      // 累计采样数
+    private long persisted;  // 已写入文件的采样数
+
+    private final long[] sample = new long[METRICS.length];
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private long lastGcMillis;
+
+    private final File logDir;
+    private FileChannelLogSink sink;
+    private ByteBuffer block = ByteBuffer.allocate(4096);
+    private ScheduledExecutorService sampler;
+
+    private MetricsRecorder() {
+        logDir = EnhancedFileLogger.getInstance().getLogDirectory();
+    }
+
+    public static synchronized MetricsRecorder getInstance() {
+        if (instance == null) {
+            instance = new MetricsRecorder();
+        }
+        return instance;
+    }
+
+    /**
+     * 打开指标文件并开始定时采样
+     */
+    public synchronized void start() {
+        if (sampler != null) {
+            return;
+        }
+        try {
+            sink = new FileChannelLogSink(logDir, FILE_PREFIX, FILE_SUFFIX, MAX_FILE_BYTES,
+                MAX_FILES, INTERVAL_MS, file -> buildHeader());
+            sink.open();
+        } catch (IOException e) {
+            EnhancedFileLogger.getInstance().logError("指标文件打开失败，只在内存中记录", e);
+            sink = null;
+        }
+        lastGcMillis = totalGcMillis();
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Metrics-Sampler-Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::sampleSafely, INTERVAL_MS, INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 文件头：魔数、版本、采样间隔、指标数和各指标名
+     */
+    private static ByteBuffer buildHeader() {
+        ByteBuffer header = ByteBuffer.allocate(256);
+        header.putInt(MAGIC);
+        header.put((byte) VERSION);
+        header.putInt((int) INTERVAL_MS);
+        header.put((byte) METRICS.length);
+        for (Metric metric : METRICS) {
+            byte[] name = metric.name().getBytes(StandardCharsets.UTF_8);
+            header.put((byte) name.length);
+            header.put(name);
+        }
+        header.flip();
+        return header;
+    }
+
+    private void sampleSafely() {
+        try {
+            sample();
+        } catch (Exception e) {
+            System.err.println("指标采样失败: " + e.getMessage());
+        }
+    }
+
+    private void sample() throws IOException {
+        FrameProfiler profiler = FrameProfiler.getInstance();
+        EnhancedFileLogger logger = EnhancedFileLogger.getInstance();
+        long gcMillis = totalGcMillis();
+
+        sample[Metric.OBJECT_COUNT.ordinal()] = profiler.getObjectCount();
+        sample[Metric.TICK_RATE.ordinal()] = Math.round(profiler.getTickRate() * Metric.TICK_RATE.scale);
+        sample[Metric.COLLISION_RATE.ordinal()] = Math.round(profiler.getCollisionRate() * Metric.COLLISION_RATE.scale);
+        sample[Metric.HEAP_USED.ordinal()] = memory.getHeapMemoryUsage().getUsed() * Metric.HEAP_USED.scale / (1024 * 1024);
+        sample[Metric.GC_PAUSE.ordinal()] = gcMillis - lastGcMillis;
+        sample[Metric.LOG_QUEUE.ordinal()] = logger.getQueueSize();
+        sample[Metric.FRAME_P99.ordinal()] =
+            profiler.getFrameNanos(FrameProfiler.STAT_P99) * Metric.FRAME_P99.scale / 1_000_000;
+        EdtWatchdog watchdog = EdtWatchdog.getInstance();
+        sample[Metric.EDT_LATENCY.ordinal()] =
+            watchdog.drainMaxLatencyNanos() * Metric.EDT_LATENCY.scale / 1_000_000;
+        sample[Metric.EDT_STALLS.ordinal()] = watchdog.getStallCount();
+        ThreadMonitor threadMonitor = ThreadMonitor.getInstance();
+        sample[Metric.SIMULATION_CPU.ordinal()] =
+            Math.round(threadMonitor.getGroupCpuPercent(ThreadMonitor.Group.SIMULATION) * Metric.SIMULATION_CPU.scale);
+        sample[Metric.LOGGING_CPU.ordinal()] =
+            Math.round(threadMonitor.getGroupCpuPercent(ThreadMonitor.Group.LOGGING) * Metric.LOGGING_CPU.scale);
+        sample[Metric.BLOCKED_RATE.ordinal()] =
+            Math.round(threadMonitor.getBlockedPerSecond() * Metric.BLOCKED_RATE.scale);
+        sample[Metric.ALLOCATION_RATE.ordinal()] =
+            Math.round(threadMonitor.getAllocatedBytesPerSecond() * Metric.ALLOCATION_RATE.scale / (1024 * 1024));
+        lastGcMillis = gcMillis;
+
+        synchronized (this) {
+            int slot = (int) (total % CAPACITY);
+            timestamps[slot] = System.currentTimeMillis();
+            for (int m = 0; m < METRICS.length; m++) {
+                values[m][slot] = sample[m];
+            }
+            total++;
+        }
+        if (total - persisted >= BLOCK_SAMPLES) {
+            persistBlock();
+        }
+    }
+
+    private long totalGcMillis() {
+        long sum = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            sum += Math.max(0, collector.getCollectionTime());
+        }
+        return sum;
+    }
+
+    /**
+     * 将尚未写入的采样编码为一块追加到文件：
+     * 块长度(int) + 采样数 + 首个时间戳，之后每个采样依次为时间差和各指标与上一采样之差
+     */
+    private void persistBlock() throws IOException {
+        if (sink == null) {
+            persisted = total;
+            return;
+        }
+        long from = Math.max(persisted, total - CAPACITY);
+        int count = (int) (total - from);
+        if (count == 0) {
+            return;
+        }
+        int maxBytes = 4 + 2 * VarInt.MAX_BYTES + count * (METRICS.length + 1) * VarInt.MAX_BYTES;
+        if (block.capacity() < maxBytes) {
+            block = ByteBuffer.allocate(maxBytes);
+        }
+        block.clear();
+        block.putInt(0); // 稍后回填长度
+        synchronized (this) {
+            int first = (int) (from % CAPACITY);
+            VarInt.putVarLong(block, count);
+            VarInt.putVarLong(block, timestamps[first]);
+            long previousTime = timestamps[first];
+            long[] previous = new long[METRICS.length];
+            for (long i = from; i < total; i++) {
+                int slot = (int) (i % CAPACITY);
+                VarInt.putZigZag(block, timestamps[slot] - previousTime);
+                previousTime = timestamps[slot];
+                for (int m = 0; m < METRICS.length; m++) {
+                    VarInt.putZigZag(block, values[m][slot] - previous[m]);
+                    previous[m] = values[m][slot];
+                }
+            }
+        }
+        block.putInt(0, block.position() - 4);
+        block.flip();
+        sink.write(block);
+        sink.flush();
+        persisted = total;
+    }
+
+    /**
+     * 内存中最近一段时间的采样
+     */
+    public synchronized MetricSeries getRecent(long sinceMillis) {
+        long from = Math.max(0, total - CAPACITY);
+        MetricSeries series = new MetricSeries((int) Math.min(total - from, 4096));
+        long[] row = new long[METRICS.length];
+        for (long i = from; i < total; i++) {
+            int slot = (int) (i % CAPACITY);
+            if (timestamps[slot] < sinceMillis) {
+                continue;
+            }
+            for (int m = 0; m < METRICS.length; m++) {
+                row[m] = values[m][slot];
+            }
+            series.add(timestamps[slot], row);
+        }
+        return series;
+    }
+
+    /**
+     * 读取指定时间之后的全部历史：先读日志目录中的指标文件，再补上内存中尚未写入文件的采样
+     */
+    public MetricSeries getHistory(long sinceMillis) {
+        MetricSeries series = readFiles(logDir, sinceMillis);
+        MetricSeries recent = getRecent(Math.max(sinceMillis, series.getLastTimestamp() + 1));
+        long[] row = new long[METRICS.length];
+        for (int i = 0; i < recent.size(); i++) {
+            for (Metric metric : METRICS) {
+                row[metric.ordinal()] = recent.getRaw(metric, i);
+            }
+            series.add(recent.getTimestamp(i), row);
+        }
+        return series;
+    }
+
+    /**
+     * 按文件名（即时间）顺序解码目录中的所有指标文件（含 .gz）
+     */
+    public static MetricSeries readFiles(File dir, long sinceMillis) {
+        MetricSeries series = new MetricSeries(4096);
+        File[] files = dir.listFiles((d, name) -> name.startsWith(FILE_PREFIX)
+            && (name.endsWith(FILE_SUFFIX) || name.endsWith(FILE_SUFFIX + ".gz")));
+        if (files == null) {
+            return series;
+        }
+        Arrays.sort(files, (f1, f2) -> f1.getName().compareTo(f2.getName()));
+        for (File file : files) {
+            try {
+                readFile(file, sinceMillis, series);
+            } catch (IOException e) {
+                System.err.println("读取指标文件失败: " + file.getName() + " " + e.getMessage());
+            }
+        }
+        return series;
+    }
+
+    private static void readFile(File file, long sinceMillis, MetricSeries series) throws IOException {
+        InputStream input = Files.newInputStream(file.toPath());
+        if (file.getName().endsWith(".gz")) {
+            input = new GZIPInputStream(input);
+        }
+        try (DataInputStream in = new DataInputStream(new java.io.BufferedInputStream(input))) {
+            if (in.readInt() != MAGIC || in.readUnsignedByte() != VERSION) {
+                throw new IOException("文件格式错误");
+            }
+            in.readInt(); // 采样间隔
+            int fileMetrics = in.readUnsignedByte();
+            int[] mapping = new int[fileMetrics];
+            for (int i = 0; i < fileMetrics; i++) {
+                byte[] name = new byte[in.readUnsignedByte()];
+                in.readFully(name);
+                mapping[i] = indexOf(new String(name, StandardCharsets.UTF_8));
+            }
+
+            long[] current = new long[fileMetrics];
+            long[] row = new long[METRICS.length];
+            byte[] data = new byte[4096];
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                    if (data.length < length) {
+                        data = new byte[length];
+                    }
+                    in.readFully(data, 0, length);
+                } catch (EOFException e) {
+                    return; // 文件末尾（或正在写入的不完整块）
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(data, 0, length);
+                int count = (int) VarInt.getVarLong(buffer);
+                long time = VarInt.getVarLong(buffer);
+                Arrays.fill(current, 0);
+                for (int s = 0; s < count; s++) {
+                    time += VarInt.getZigZag(buffer);
+                    for (int m = 0; m < fileMetrics; m++) {
+                        current[m] += VarInt.getZigZag(buffer);
+                    }
+                    if (time < sinceMillis) {
+                        continue;
+                    }
+                    Arrays.fill(row, 0);
+                    for (int m = 0; m < fileMetrics; m++) {
+                        if (mapping[m] >= 0) {
+                            row[mapping[m]] = current[m];
+                        }
+                    }
+                    series.add(time, row);
+                }
+            }
+        }
+    }
+
+    private static int indexOf(String name) {
+        if ("ANIMATION_CPU".equals(name)) {
+            name = Metric.SIMULATION_CPU.name(); // 旧版本文件中的名称
+        }
+        for (Metric metric : METRICS) {
+            if (metric.name().equals(name)) {
+                return metric.ordinal();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 停止采样并写入剩余的采样
+     */
+    public void shutdown() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = sampler;
+            sampler = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            running.awaitTermination(2, TimeUnit.SECONDS);
+            persistBlock();
+        } catch (Exception e) {
+            System.err.println("写入指标文件失败: " + e.getMessage());
+        }
+        if (sink != null) {
+            sink.close();
+        }
+    }
+}
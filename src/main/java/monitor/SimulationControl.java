@@ -0,0 +1,27 @@
+package monitor;
+
+/**
+ * 模拟控制接口
+ * 由界面组件实现，供JMX等外部管理入口查询状态和执行操作（可在任意线程调用）。
+ */
+public interface SimulationControl {
+    int getObjectCount();
+
+    /**
+     * 当前存活的模拟工作线程数（运动、力场和碰撞求解共用的并行线程池）
+     */
+    int getSimulationThreadCount();
+
+    boolean isSimulationPaused();
+
+    /**
+     * 暂停或恢复整个模拟（碰撞检测帧和所有对象的运动）
+     */
+    void setSimulationPaused(boolean paused);
+
+    /**
+     * 立即保存当前状态
+     * @return 保存是否成功
+     */
+    boolean saveNow();
+}
@@ -0,0 +1,55 @@
+package monitor;
+
+import java.util.Map;
+
+/**
+ * 模拟运行状态的JMX接口（ObjectName: bounce:type=Simulation）
+ * 耗时类指标为上一秒窗口内的统计值
+ */
+public interface SimulationMXBean {
+    int getObjectCount();
+
+    int getSimulationThreadCount();
+
+    double getTicksPerSecond();
+
+    double getPaintsPerSecond();
+
+    double getCollisionsPerSecond();
+
+    long getPairChecksPerTick();
+
+    int getCandidatePairsPerTick();
+
+    long getFilteredPairsPerTick();
+
+    double getFrameTimeP50Millis();
+
+    double getFrameTimeP99Millis();
+
+    double getFrameTimeMaxMillis();
+
+    Map<String, Double> getPhaseP50Millis();
+
+    Map<String, Double> getPhaseP99Millis();
+
+    Map<String, Double> getPhaseMaxMillis();
+
+    int getLiveThreadCount();
+
+    int getDaemonThreadCount();
+
+    int getPeakThreadCount();
+
+    long getEdtStallCount();
+
+    long getEdtStallTotalMillis();
+
+    boolean isPaused();
+
+    void pause();
+
+    void resume();
+
+    boolean saveNow();
+}
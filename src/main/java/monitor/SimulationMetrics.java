@@ -0,0 +1,146 @@
+package monitor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 模拟运行状态的JMX实现，数据来自 FrameProfiler 和界面提供的 SimulationControl
+ */
+public class SimulationMetrics implements SimulationMXBean {
+    public static final String OBJECT_NAME = "bounce:type=Simulation";
+
+    private final SimulationControl control;
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    public SimulationMetrics(SimulationControl control) {
+        this.control = control;
+    }
+
+    @Override
+    public int getObjectCount() {
+        return control.getObjectCount();
+    }
+
+    @Override
+    public int getSimulationThreadCount() {
+        return control.getSimulationThreadCount();
+    }
+
+    @Override
+    public double getTicksPerSecond() {
+        return profiler.getTickRate();
+    }
+
+    @Override
+    public double getPaintsPerSecond() {
+        return profiler.getPaintRate();
+    }
+
+    @Override
+    public double getCollisionsPerSecond() {
+        return profiler.getCollisionRate();
+    }
+
+    @Override
+    public long getPairChecksPerTick() {
+        return profiler.getPairChecks();
+    }
+
+    @Override
+    public int getCandidatePairsPerTick() {
+        return profiler.getCandidatePairs();
+    }
+
+    @Override
+    public long getFilteredPairsPerTick() {
+        return profiler.getFilteredPairs();
+    }
+
+    @Override
+    public double getFrameTimeP50Millis() {
+        return profiler.getFrameNanos(FrameProfiler.STAT_P50) / 1e6;
+    }
+
+    @Override
+    public double getFrameTimeP99Millis() {
+        return profiler.getFrameNanos(FrameProfiler.STAT_P99) / 1e6;
+    }
+
+    @Override
+    public double getFrameTimeMaxMillis() {
+        return profiler.getFrameNanos(FrameProfiler.STAT_MAX) / 1e6;
+    }
+
+    @Override
+    public Map<String, Double> getPhaseP50Millis() {
+        return phaseMillis(FrameProfiler.STAT_P50);
+    }
+
+    @Override
+    public Map<String, Double> getPhaseP99Millis() {
+        return phaseMillis(FrameProfiler.STAT_P99);
+    }
+
+    @Override
+    public Map<String, Double> getPhaseMaxMillis() {
+        return phaseMillis(FrameProfiler.STAT_MAX);
+    }
+
+    private Map<String, Double> phaseMillis(int stat) {
+        Map<String, Double> result = new LinkedHashMap<>();
+        for (FrameProfiler.Phase phase : FrameProfiler.Phase.values()) {
+            result.put(phase.name(), profiler.getPhaseNanos(phase, stat) / 1e6);
+        }
+        return result;
+    }
+
+    @Override
+    public int getLiveThreadCount() {
+        return threads.getThreadCount();
+    }
+
+    @Override
+    public int getDaemonThreadCount() {
+        return threads.getDaemonThreadCount();
+    }
+
+    @Override
+    public int getPeakThreadCount() {
+        return threads.getPeakThreadCount();
+    }
+
+    @Override
+    public long getEdtStallCount() {
+        return EdtWatchdog.getInstance().getStallCount();
+    }
+
+    @Override
+    public long getEdtStallTotalMillis() {
+        return EdtWatchdog.getInstance().getTotalStallMillis();
+    }
+
+    @Override
+    public boolean isPaused() {
+        return control.isSimulationPaused();
+    }
+
+    @Override
+    public void pause() {
+        control.setSimulationPaused(true);
+        EnhancedFileLogger.getInstance().log("[JMX] 模拟已暂停");
+    }
+
+    @Override
+    public void resume() {
+        control.setSimulationPaused(false);
+        EnhancedFileLogger.getInstance().log("[JMX] 模拟已恢复");
+    }
+
+    @Override
+    public boolean saveNow() {
+        return control.saveNow();
+    }
+}
@@ -0,0 +1,296 @@
+package monitor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 线程CPU与争用监视器
+ * 定期通过 ThreadMXBean 批量读取所有线程的CPU时间、阻塞/等待次数和分配字节数，
+ * 与上一次采样做差得到区间内的速率，并按线程名归入模拟、日志、界面等分组。
+ * 模拟帧在EDT上执行，帧内消耗的CPU时间由模拟帧线程通过 addSimulationCpu 上报，采样时从界面分组转入模拟分组。
+ * 采样间隔随单次采样的耗时自适应调整，保证监视开销不超过约1%。
+ */
+public class ThreadMonitor {
+    private static ThreadMonitor instance;
+
+    private static final long MIN_INTERVAL_MS = 1000;
+    private static final long MAX_INTERVAL_MS = 10_000;
+    private static final int MAX_OVERHEAD_RATIO = 100; // 间隔至少为采样耗时的100倍
+
+    /**
+     * 线程分组（按线程名判断）
+     */
+    public enum Group {
+        SIMULATION("模拟"),
+        LOGGING("日志"),
+        IO("I/O"),
+        UI("界面"),
+        MONITORING("监控"),
+        OTHER("其他");
+
+        private final String displayName;
+
+        Group(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        static Group of(String name) {
+            if (name.startsWith("Simulation-")) {
+                return SIMULATION;
+            }
+            if (name.startsWith("Log-")) {
+                return name.startsWith("Log-Compress") || name.startsWith("Log-Index") ? IO : LOGGING;
+            }
+            if (name.startsWith("AWT-") || name.startsWith("Java2D") || name.startsWith("TimerQueue")) {
+                return UI;
+            }
+            if (name.startsWith("Metrics-") || name.startsWith("EDT-Watchdog") || name.startsWith("Thread-Monitor")
+                    || name.startsWith("RMI") || name.startsWith("JMX")) {
+                return MONITORING;
+            }
+            return OTHER;
+        }
+    }
+
+    /**
+     * 单个线程在上一个采样区间内的统计
+     */
+    public static class ThreadStats {
+        public final long id;
+        public final String name;
+        public final Group group;
+        public final Thread.State state;
+        public final double cpuPercent;
+        public final long cpuMillisTotal;
+        public final long blockedCount;   // 区间内
+        public final long blockedMillis;  // 区间内，未开启争用监视时为-1
+        public final long waitedCount;    // 区间内
+        public final long allocatedBytesPerSecond; // 不支持时为-1
+
+        ThreadStats(long id, String name, Group group, Thread.State state, double cpuPercent, long cpuMillisTotal,
+                    long blockedCount, long blockedMillis, long waitedCount, long allocatedBytesPerSecond) {
+            this.id = id;
+            this.name = name;
+            this.group = group;
+            this.state = state;
+            this.cpuPercent = cpuPercent;
+            this.cpuMillisTotal = cpuMillisTotal;
+            this.blockedCount = blockedCount;
+            this.blockedMillis = blockedMillis;
+            this.waitedCount = waitedCount;
+            this.allocatedBytesPerSecond = allocatedBytesPerSecond;
+        }
+    }
+
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final com.sun.management.ThreadMXBean extended =
+        threads instanceof com.sun.management.ThreadMXBean ? (com.sun.management.ThreadMXBean) threads : null;
+    private final boolean contentionMonitoring;
+
+    // 上一次采样的原始值：cpu纳秒、阻塞次数、阻塞毫秒、等待次数、分配字节（只在采样线程中使用）
+    private Map<Long, long[]> previous = new HashMap<>();
+    private long previousNanos;
+    private long previousSimulationCpu;
+
+    /* 模拟帧线程（EDT）上报的模拟帧CPU时间累计（纳秒） */
+    private final AtomicLong simulationCpuNanos = new AtomicLong();
+
+    private volatile List<ThreadStats> snapshot = Collections.emptyList();
+    private volatile double[] groupCpuPercent = new double[Group.values().length];
+    private volatile double blockedPerSecond;
+    private volatile double allocatedBytesPerSecond;
+    private volatile long lastSampleCostNanos;
+    private long averageCostNanos;
+    private boolean first = true;
+    private volatile long intervalMillis = MIN_INTERVAL_MS;
+
+    private ScheduledExecutorService sampler;
+
+    private ThreadMonitor() {
+        if (threads.isThreadCpuTimeSupported() && !threads.isThreadCpuTimeEnabled()) {
+            threads.setThreadCpuTimeEnabled(true);
+        }
+        boolean contention = threads.isThreadContentionMonitoringSupported();
+        if (contention) {
+            threads.setThreadContentionMonitoringEnabled(true);
+        }
+        contentionMonitoring = contention;
+        if (extended != null && extended.isThreadAllocatedMemorySupported()) {
+            extended.setThreadAllocatedMemoryEnabled(true);
+        }
+    }
+
+    public static synchronized ThreadMonitor getInstance() {
+        if (instance == null) {
+            instance = new ThreadMonitor();
+        }
+        return instance;
+    }
+
+    public synchronized void start() {
+        if (sampler != null) {
+            return;
+        }
+        sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "Thread-Monitor-Thread");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.execute(this::sampleAndReschedule);
+    }
+
+    public synchronized void stop() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+    }
+
+    private void sampleAndReschedule() {
+        long start = System.nanoTime();
+        try {
+            sample();
+        } catch (Exception e) {
+            System.err.println("线程采样失败: " + e.getMessage());
+        }
+        long cost = System.nanoTime() - start;
+        lastSampleCostNanos = cost;
+        // 平滑采样耗时，首次采样（类加载、JIT预热）不计入
+        averageCostNanos = averageCostNanos == 0 ? (first ? 0 : cost) : (averageCostNanos * 7 + cost) / 8;
+        first = false;
+        cost = averageCostNanos;
+        long interval = Math.min(MAX_INTERVAL_MS,
+            Math.max(MIN_INTERVAL_MS, cost * MAX_OVERHEAD_RATIO / 1_000_000L));
+        intervalMillis = interval;
+        synchronized (this) {
+            if (sampler != null) {
+                sampler.schedule(this::sampleAndReschedule, interval, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void sample() {
+        long now = System.nanoTime();
+        long[] ids = threads.getAllThreadIds();
+        ThreadInfo[] infos = threads.getThreadInfo(ids, 0);
+        long[] cpu = extended != null ? extended.getThreadCpuTime(ids) : null;
+        long[] allocated = extended != null && extended.isThreadAllocatedMemoryEnabled()
+            ? extended.getThreadAllocatedBytes(ids) : null;
+
+        double seconds = previousNanos > 0 ? (now - previousNanos) / 1e9 : 0;
+        Map<Long, long[]> current = new HashMap<>(ids.length * 2);
+        List<ThreadStats> stats = new ArrayList<>(ids.length);
+        double[] groupCpu = new double[Group.values().length];
+        long blocked = 0;
+        long allocatedTotal = 0;
+
+        for (int i = 0; i < ids.length; i++) {
+            ThreadInfo info = infos[i];
+            if (info == null) {
+                continue; // 线程已结束
+            }
+            long cpuNanos = cpu != null ? cpu[i] : threads.getThreadCpuTime(ids[i]);
+            long[] raw = {Math.max(cpuNanos, 0), info.getBlockedCount(), info.getBlockedTime(),
+                info.getWaitedCount(), allocated != null ? allocated[i] : -1};
+            current.put(ids[i], raw);
+
+            long[] last = previous.get(ids[i]);
+            if (last == null || seconds <= 0) {
+                continue; // 首次出现的线程下一次采样才有区间数据
+            }
+            double cpuPercent = (raw[0] - last[0]) / 1e7 / seconds;
+            long blockedDelta = raw[1] - last[1];
+            long allocRate = raw[4] >= 0 ? (long) ((raw[4] - last[4]) / seconds) : -1;
+            Group group = Group.of(info.getThreadName());
+            stats.add(new ThreadStats(ids[i], info.getThreadName(), group, info.getThreadState(),
+                cpuPercent, raw[0] / 1_000_000, blockedDelta,
+                contentionMonitoring ? raw[2] - last[2] : -1, raw[3] - last[3], allocRate));
+            groupCpu[group.ordinal()] += cpuPercent;
+            blocked += blockedDelta;
+            allocatedTotal += Math.max(allocRate, 0);
+        }
+
+        // EDT 上执行模拟帧的CPU时间已计入界面分组，转入模拟分组
+        long simulationCpu = simulationCpuNanos.get();
+        if (seconds > 0) {
+            double tickPercent = Math.min((simulationCpu - previousSimulationCpu) / 1e7 / seconds,
+                groupCpu[Group.UI.ordinal()]);
+            groupCpu[Group.SIMULATION.ordinal()] += tickPercent;
+            groupCpu[Group.UI.ordinal()] -= tickPercent;
+        }
+        previousSimulationCpu = simulationCpu;
+
+        previous = current;
+        previousNanos = now;
+        if (seconds > 0) {
+            snapshot = Collections.unmodifiableList(stats);
+            groupCpuPercent = groupCpu;
+            blockedPerSecond = blocked / seconds;
+            allocatedBytesPerSecond = allocatedTotal;
+        }
+    }
+
+    /**
+     * 当前线程已消耗的CPU时间（纳秒），不支持时返回-1
+     */
+    public long getCurrentThreadCpuNanos() {
+        return threads.isCurrentThreadCpuTimeSupported() ? threads.getCurrentThreadCpuTime() : -1;
+    }
+
+    /**
+     * 上报模拟帧在模拟帧线程中消耗的CPU时间（纳秒）
+     */
+    public void addSimulationCpu(long nanos) {
+        if (nanos > 0) {
+            simulationCpuNanos.addAndGet(nanos);
+        }
+    }
+
+    /**
+     * 上一个采样区间内各线程的统计
+     */
+    public List<ThreadStats> getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 分组的CPU占用（100 表示占满一个核）
+     */
+    public double getGroupCpuPercent(Group group) {
+        return groupCpuPercent[group.ordinal()];
+    }
+
+    public double getBlockedPerSecond() {
+        return blockedPerSecond;
+    }
+
+    public double getAllocatedBytesPerSecond() {
+        return allocatedBytesPerSecond;
+    }
+
+    public long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    public long getLastSampleCostNanos() {
+        return lastSampleCostNanos;
+    }
+
+    public boolean isContentionMonitoring() {
+        return contentionMonitoring;
+    }
+}
@@ -0,0 +1,69 @@
+package monitor;
+
+import java.io.DataInput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * 变长整数编码（LEB128）
+ * 每字节低7位存数据、最高位表示后面还有字节；有符号数先做 ZigZag 变换，
+ * 使绝对值小的负数也只占很少的字节。
+ */
+public final class VarInt {
+    /** 编码后的最大字节数 */
+    public static final int MAX_BYTES = 10;
+
+    private VarInt() {}
+
+    public static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    public static void putZigZag(ByteBuffer buffer, long value) {
+        putVarLong(buffer, (value << 1) ^ (value >> 63));
+    }
+
+    public static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("变长整数格式错误");
+    }
+
+    public static long getZigZag(ByteBuffer buffer) {
+        return decodeZigZag(getVarLong(buffer));
+    }
+
+    /**
+     * 从流中读取变长整数；在记录边界处遇到文件末尾时抛出 EOFException
+     */
+    public static long readVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new EOFException("变长整数格式错误");
+    }
+
+    public static long readZigZag(DataInput in) throws IOException {
+        return decodeZigZag(readVarLong(in));
+    }
+
+    private static long decodeZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,384 @@
+package storage;
+
+import model.Ball;
+import model.GameObject;
+import model.Rectangle;
+import model.Triangle;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 模拟帧录制器
+ * 将每个模拟帧的位置、速度和碰撞事件写入内存映射的二进制文件，
+ * 采用"关键帧 + 增量帧"编码：关键帧保存完整状态，增量帧只保存量化后的位移。
+ *
+ * 文件格式：
+ * 文件头(28字节)：魔数 | 版本 | 关键帧间隔 | 帧间隔毫秒 | 开始时间 | 数据结束位置
+ * 帧：帧长度 | 帧类型 | 帧序号 | 经过毫秒 | 对象数 | 对象记录... | 碰撞数 | 碰撞对...
+ * 回放器以 int 偏移映射整个文件，单个文件写到 2GB 时换到下一个文件（run_时间_2.rec ...）继续录制，
+ * 每个文件从关键帧开始，帧序号和经过时间从0重新计数，可以独立回放。
+ */
+public class FrameRecorder {
+    public static final int MAGIC = 0x49415352; // "IASR"
+    public static final short VERSION = 1;
+    public static final int HEADER_SIZE = 28;
+    static final int DATA_END_OFFSET = 20;
+
+    public static final byte FRAME_KEY = 1;
+    public static final byte FRAME_DELTA = 2;
+
+    public static final byte TYPE_BALL = 0;
+    public static final byte TYPE_RECTANGLE = 1;
+    public static final byte TYPE_TRIANGLE = 2;
+
+    public static final byte FLAG_PAUSED = 1;
+    public static final byte FLAG_COLLIDING = 2;
+
+    /** 位移增量的量化精度（1/32像素） */
+    public static final float POSITION_SCALE = 32f;
+    /** 速度的量化精度（1/1024像素/步） */
+    public static final float VELOCITY_SCALE = 1024f;
+
+    static final int FRAME_HEADER_SIZE = 17;
+    static final int KEY_RECORD_SIZE = 34;
+    static final int DELTA_RECORD_SIZE = 9;
+
+    private static final String RECORD_DIR = "recordings";
+    private static final int MAP_CHUNK_SIZE = 8 * 1024 * 1024;
+    private static final int DEFAULT_KEYFRAME_INTERVAL = 50;
+    private static final int MAX_COLLISIONS_PER_FRAME = 4096;
+    static final long MAX_FILE_SIZE = Integer.MAX_VALUE; // 回放器可以映射的最大文件
+
+    private final File dir;
+    private final String baseName;
+    private int part = 1;
+    private File file;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long mappedBase;
+
+    private final int keyframeInterval;
+    private final int tickIntervalMillis;
+    private long startNanos;
+    private int frameIndex;     // 当前文件中的帧序号
+    private int totalFrames;
+    private int framesSinceKey;
+
+    // 上一帧的重建状态（增量编码以重建值为基准，避免误差累积）
+    private int prevCount = -1;
+    private int[] prevIds = new int[64];
+    private float[] prevX = new float[64];
+    private float[] prevY = new float[64];
+
+    // 当前帧的碰撞对
+    private final int[] collisionIds = new int[MAX_COLLISIONS_PER_FRAME * 2];
+    private int collisionCount;
+
+    // 录制开销统计
+    private long encodeNanos;
+
+    private FrameRecorder(File dir, String baseName, int keyframeInterval, int tickIntervalMillis) throws IOException {
+        this.dir = dir;
+        this.baseName = baseName;
+        this.keyframeInterval = keyframeInterval;
+        this.tickIntervalMillis = tickIntervalMillis;
+        openFile(new File(dir, baseName + ".rec"));
+    }
+
+    /**
+     * 创建录制文件并写入文件头，下一帧从关键帧开始
+     */
+    private void openFile(File file) throws IOException {
+        this.file = file;
+        this.startNanos = System.nanoTime();
+        this.channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+        this.mappedBase = 0;
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, MAP_CHUNK_SIZE);
+        this.frameIndex = 0;
+        this.prevCount = -1;
+
+        // 写入文件头
+        buffer.putInt(MAGIC);
+        buffer.putShort(VERSION);
+        buffer.putShort((short) keyframeInterval);
+        buffer.putInt(tickIntervalMillis);
+        buffer.putLong(System.currentTimeMillis());
+        buffer.putLong(0L);
+    }
+
+    /**
+     * 在录制目录中创建新的录制文件
+     */
+    public static FrameRecorder start(int tickIntervalMillis) throws IOException {
+        File dir = new File(RECORD_DIR);
+        if (!dir.exists()) {
+            dir.mkdirs();
+        }
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd_HHmmss");
+        return new FrameRecorder(dir, "run_" + sdf.format(new Date()), DEFAULT_KEYFRAME_INTERVAL, tickIntervalMillis);
+    }
+
+    /**
+     * 记录当前帧内发生的一次碰撞
+     */
+    public void recordCollision(int id1, int id2) {
+        if (collisionCount < MAX_COLLISIONS_PER_FRAME) {
+            collisionIds[collisionCount * 2] = id1;
+            collisionIds[collisionCount * 2 + 1] = id2;
+            collisionCount++;
+        }
+    }
+
+    /**
+     * 结束当前帧，写入所有对象的状态和本帧碰撞
+     */
+    public void endFrame(List<GameObject> objects) {
+        if (buffer == null) {
+            return;
+        }
+        long begin = System.nanoTime();
+        int count = objects.size();
+
+        // 按关键帧估算，写入后会超过回放上限时换到下一个文件
+        int keyFrameSize = FRAME_HEADER_SIZE + count * KEY_RECORD_SIZE + 2 + collisionCount * 8;
+        if (mappedBase + buffer.position() + keyFrameSize + 4 > MAX_FILE_SIZE) {
+            try {
+                rollOver();
+            } catch (IOException e) {
+                System.err.println("✗ 创建下一个录制文件失败: " + e.getMessage());
+                buffer = null;
+                return;
+            }
+        }
+
+        boolean key = framesSinceKey >= keyframeInterval || !sameObjects(objects, count)
+                || !deltaFits(objects, count);
+
+        int frameSize = FRAME_HEADER_SIZE
+                + count * (key ? KEY_RECORD_SIZE : DELTA_RECORD_SIZE)
+                + 2 + collisionCount * 8;
+        try {
+            ensureMapped(frameSize);
+        } catch (IOException e) {
+            System.err.println("✗ 录制映射失败: " + e.getMessage());
+            stop();
+            return;
+        }
+
+        buffer.putInt(frameSize);
+        buffer.put(key ? FRAME_KEY : FRAME_DELTA);
+        buffer.putInt(frameIndex);
+        buffer.putInt((int) ((begin - startNanos) / 1_000_000L));
+        buffer.putInt(count);
+
+        ensureStateCapacity(count);
+        if (key) {
+            writeKeyRecords(objects, count);
+            framesSinceKey = 0;
+        } else {
+            writeDeltaRecords(objects, count);
+            framesSinceKey++;
+        }
+        prevCount = count;
+
+        buffer.putShort((short) collisionCount);
+        for (int i = 0; i < collisionCount * 2; i++) {
+            buffer.putInt(collisionIds[i]);
+        }
+        collisionCount = 0;
+        frameIndex++;
+        totalFrames++;
+
+        encodeNanos += System.nanoTime() - begin;
+    }
+
+    private void writeKeyRecords(List<GameObject> objects, int count) {
+        for (int i = 0; i < count; i++) {
+            GameObject obj = objects.get(i);
+            float x = (float) obj.getX();
+            float y = (float) obj.getY();
+            buffer.putInt(obj.getId());
+            buffer.put(typeOf(obj));
+            buffer.putFloat(x);
+            buffer.putFloat(y);
+            buffer.putFloat((float) obj.getDx());
+            buffer.putFloat((float) obj.getDy());
+            buffer.putFloat((float) obj.getObjectWidth());
+            buffer.putFloat((float) obj.getObjectHeight());
+            buffer.putInt(obj.getBaseColor().getRGB());
+            buffer.put(flagsOf(obj));
+
+            prevIds[i] = obj.getId();
+            prevX[i] = x;
+            prevY[i] = y;
+        }
+    }
+
+    private void writeDeltaRecords(List<GameObject> objects, int count) {
+        for (int i = 0; i < count; i++) {
+            GameObject obj = objects.get(i);
+            short qx = (short) Math.round((obj.getX() - prevX[i]) * POSITION_SCALE);
+            short qy = (short) Math.round((obj.getY() - prevY[i]) * POSITION_SCALE);
+            buffer.putShort(qx);
+            buffer.putShort(qy);
+            buffer.putShort(quantizeVelocity(obj.getDx()));
+            buffer.putShort(quantizeVelocity(obj.getDy()));
+            buffer.put(flagsOf(obj));
+
+            // 与回放端相同的重建计算
+            prevX[i] = prevX[i] + qx / POSITION_SCALE;
+            prevY[i] = prevY[i] + qy / POSITION_SCALE;
+        }
+    }
+
+    /**
+     * 检查对象序列是否与上一帧一致（增量帧要求对象顺序不变）
+     */
+    private boolean sameObjects(List<GameObject> objects, int count) {
+        if (count != prevCount) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (objects.get(i).getId() != prevIds[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 检查本帧位移是否能用16位量化值表示
+     */
+    private boolean deltaFits(List<GameObject> objects, int count) {
+        float limit = Short.MAX_VALUE / POSITION_SCALE;
+        for (int i = 0; i < count; i++) {
+            GameObject obj = objects.get(i);
+            if (Math.abs(obj.getX() - prevX[i]) >= limit || Math.abs(obj.getY() - prevY[i]) >= limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void ensureStateCapacity(int count) {
+        if (count > prevIds.length) {
+            int capacity = Math.max(count, prevIds.length * 2);
+            prevIds = java.util.Arrays.copyOf(prevIds, capacity);
+            prevX = java.util.Arrays.copyOf(prevX, capacity);
+            prevY = java.util.Arrays.copyOf(prevY, capacity);
+        }
+    }
+
+    /**
+     * 映射区剩余空间不足时，从当前写入位置映射下一段
+     */
+    private void ensureMapped(int needed) throws IOException {
+        if (buffer.remaining() < needed + 4) {
+            mappedBase += buffer.position();
+            // 映射区不超过回放上限，即使关闭时截断失败文件也能回放
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, mappedBase,
+                    Math.min(Math.max(MAP_CHUNK_SIZE, needed + 4), MAX_FILE_SIZE - mappedBase));
+        }
+    }
+
+    private static short quantizeVelocity(double v) {
+        long q = Math.round(v * VELOCITY_SCALE);
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, q));
+    }
+
+    private static byte flagsOf(GameObject obj) {
+        byte flags = 0;
+        if (obj.isPaused()) flags |= FLAG_PAUSED;
+        if (obj.isColliding()) flags |= FLAG_COLLIDING;
+        return flags;
+    }
+
+    private static byte typeOf(GameObject obj) {
+        if (obj instanceof Rectangle) return TYPE_RECTANGLE;
+        if (obj instanceof Triangle) return TYPE_TRIANGLE;
+        if (obj instanceof Ball) return TYPE_BALL;
+        return TYPE_BALL;
+    }
+
+    /**
+     * 结束当前文件，在同一目录中创建下一个编号的文件
+     */
+    private void rollOver() throws IOException {
+        finishFile();
+        part++;
+        openFile(new File(dir, baseName + "_" + part + ".rec"));
+    }
+
+    /**
+     * 停止录制：写入数据结束位置并截断未使用的映射区
+     */
+    public void stop() {
+        if (buffer == null) {
+            return;
+        }
+        finishFile();
+    }
+
+    private void finishFile() {
+        long dataEnd = mappedBase + buffer.position();
+        try {
+            buffer.force();
+            buffer = null;
+
+            ByteBuffer end = ByteBuffer.allocate(8);
+            end.putLong(dataEnd).flip();
+            channel.write(end, DATA_END_OFFSET);
+            try {
+                channel.truncate(dataEnd);
+            } catch (IOException e) {
+                // 部分平台在映射未释放时不允许截断，回放以文件头中的结束位置为准
+            }
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("✗ 关闭录制文件失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 当前写入的文件（达到大小上限换文件后为最新的一个）
+     */
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * 本次录制写入的文件数
+     */
+    public int getFileCount() {
+        return part;
+    }
+
+    public int getFrameCount() {
+        return totalFrames;
+    }
+
+    /**
+     * 平均每帧编码耗时（微秒）
+     */
+    public double getAverageEncodeMicros() {
+        return totalFrames == 0 ? 0 : encodeNanos / 1000.0 / totalFrames;
+    }
+
+    /**
+     * 录制开销：平均每帧编码耗时占帧间隔的百分比
+     */
+    public double getOverheadPercent() {
+        return getAverageEncodeMicros() / 10.0 / tickIntervalMillis;
+    }
+}
@@ -0,0 +1,209 @@
+package storage;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * 录制文件回放器
+ * 以只读方式映射录制文件，建立帧索引，支持顺序播放、跳转和单步
+ */
+public class FrameReplayer implements Closeable {
+    private final File file;
+    private final FileChannel channel;
+    private final MappedByteBuffer data;
+
+    private final int keyframeInterval;
+    private final int tickIntervalMillis;
+    private final long startEpochMillis;
+
+    // 帧索引
+    private int frameCount;
+    private int[] frameOffsets = new int[1024];
+    private int keyframeCount;
+    private int[] keyframes = new int[64];
+
+    private final ReplayFrame frame = new ReplayFrame();
+
+    private FrameReplayer(File file) throws IOException {
+        this.file = file;
+        this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("录制文件过大: " + file.getName());
+        }
+        if (size < FrameRecorder.HEADER_SIZE) {
+            channel.close();
+            throw new IOException("录制文件不完整: " + file.getName());
+        }
+        this.data = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+        if (data.getInt(0) != FrameRecorder.MAGIC) {
+            channel.close();
+            throw new IOException("不是有效的录制文件: " + file.getName());
+        }
+        this.keyframeInterval = data.getShort(6);
+        this.tickIntervalMillis = data.getInt(8);
+        this.startEpochMillis = data.getLong(12);
+
+        long dataEnd = data.getLong(FrameRecorder.DATA_END_OFFSET);
+        buildIndex(dataEnd > 0 ? (int) Math.min(dataEnd, size) : (int) size);
+    }
+
+    public static FrameReplayer open(File file) throws IOException {
+        return new FrameReplayer(file);
+    }
+
+    /**
+     * 扫描帧头建立帧偏移索引和关键帧索引
+     * 录制中断时文件尾部为零填充，遇到长度为0的帧即停止
+     */
+    private void buildIndex(int limit) {
+        int offset = FrameRecorder.HEADER_SIZE;
+        while (offset + FrameRecorder.FRAME_HEADER_SIZE <= limit) {
+            int length = data.getInt(offset);
+            if (length <= 0 || offset + length > limit) {
+                break;
+            }
+            if (frameCount == frameOffsets.length) {
+                frameOffsets = Arrays.copyOf(frameOffsets, frameCount * 2);
+            }
+            if (data.get(offset + 4) == FrameRecorder.FRAME_KEY) {
+                if (keyframeCount == keyframes.length) {
+                    keyframes = Arrays.copyOf(keyframes, keyframeCount * 2);
+                }
+                keyframes[keyframeCount++] = frameCount;
+            }
+            frameOffsets[frameCount++] = offset;
+            offset += length;
+        }
+    }
+
+    /**
+     * 跳转到指定帧
+     * 向后跳转且中间没有关键帧时继续顺序解码，否则从最近的关键帧开始解码
+     */
+    public boolean seek(int index) {
+        if (frameCount == 0 || keyframeCount == 0) {
+            return false;
+        }
+        index = Math.max(keyframes[0], Math.min(index, frameCount - 1));
+        int current = frame.frameIndex;
+        if (index == current) {
+            return true;
+        }
+
+        int keyframe = nearestKeyframe(index);
+        int from = (current >= keyframe && current < index) ? current + 1 : keyframe;
+        for (int i = from; i <= index; i++) {
+            decodeFrame(i);
+        }
+        return true;
+    }
+
+    /**
+     * 单步前进或后退
+     */
+    public boolean step(int delta) {
+        int target = frame.frameIndex + delta;
+        if (target < 0 || target >= frameCount) {
+            return false;
+        }
+        return seek(target);
+    }
+
+    private int nearestKeyframe(int index) {
+        int pos = Arrays.binarySearch(keyframes, 0, keyframeCount, index);
+        if (pos >= 0) {
+            return keyframes[pos];
+        }
+        int insertion = -pos - 1;
+        return keyframes[Math.max(0, insertion - 1)];
+    }
+
+    /**
+     * 解码单帧；增量帧基于当前帧状态累加
+     */
+    private void decodeFrame(int index) {
+        int p = frameOffsets[index];
+        byte type = data.get(p + 4);
+        frame.frameIndex = data.getInt(p + 5);
+        frame.elapsedMillis = data.getInt(p + 9);
+        int count = data.getInt(p + 13);
+        p += FrameRecorder.FRAME_HEADER_SIZE;
+
+        frame.ensureCapacity(count);
+        frame.count = count;
+        if (type == FrameRecorder.FRAME_KEY) {
+            for (int i = 0; i < count; i++) {
+                frame.ids[i] = data.getInt(p);
+                frame.types[i] = data.get(p + 4);
+                frame.x[i] = data.getFloat(p + 5);
+                frame.y[i] = data.getFloat(p + 9);
+                frame.dx[i] = data.getFloat(p + 13);
+                frame.dy[i] = data.getFloat(p + 17);
+                frame.width[i] = data.getFloat(p + 21);
+                frame.height[i] = data.getFloat(p + 25);
+                frame.rgb[i] = data.getInt(p + 29);
+                frame.flags[i] = data.get(p + 33);
+                p += FrameRecorder.KEY_RECORD_SIZE;
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                frame.x[i] = frame.x[i] + data.getShort(p) / FrameRecorder.POSITION_SCALE;
+                frame.y[i] = frame.y[i] + data.getShort(p + 2) / FrameRecorder.POSITION_SCALE;
+                frame.dx[i] = data.getShort(p + 4) / FrameRecorder.VELOCITY_SCALE;
+                frame.dy[i] = data.getShort(p + 6) / FrameRecorder.VELOCITY_SCALE;
+                frame.flags[i] = data.get(p + 8);
+                p += FrameRecorder.DELTA_RECORD_SIZE;
+            }
+        }
+
+        int collisions = data.getShort(p) & 0xFFFF;
+        p += 2;
+        frame.ensureCollisionCapacity(collisions);
+        frame.collisionCount = collisions;
+        for (int i = 0; i < collisions * 2; i++) {
+            frame.collisionIds[i] = data.getInt(p);
+            p += 4;
+        }
+    }
+
+    public ReplayFrame getFrame() {
+        return frame;
+    }
+
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    public int getCurrentFrameIndex() {
+        return frame.frameIndex;
+    }
+
+    public int getKeyframeInterval() {
+        return keyframeInterval;
+    }
+
+    public int getTickIntervalMillis() {
+        return tickIntervalMillis;
+    }
+
+    public long getStartEpochMillis() {
+        return startEpochMillis;
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -3,6 +3,7 @@ package storage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import model.GameObject;
+import monitor.JfrEvents;
 import model.Ball;
 import model.Rectangle;
 import model.Triangle;
@@ -12,6 +13,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * JSON格式的游戏数据管理器
@@ -22,6 +24,13 @@ public class GameDataManager {
     private static final String DATA_FILE = "animation_data.json"; // 修改为主数据文件路径
     private static final String BACKUP_DIR = "backups\\"; // 修改为绝对路径
 
+    /* 保存统计（供JMX查看） */
+    private volatile long lastSaveDurationMillis;
+    private volatile long lastSaveBytes;
+    private volatile long lastSaveTime;
+    private final AtomicLong saveCount = new AtomicLong();
+    private final AtomicLong failedSaveCount = new AtomicLong();
+
     // 其余代码保持不变
     
     private GameDataManager() {
@@ -41,6 +50,10 @@ public class GameDataManager {
      * 保存游戏状态到JSON文件
      */
     public boolean saveGameState(List<GameObject> objects) {
+        long start = System.nanoTime();
+        JfrEvents.Save event = new JfrEvents.Save();
+        event.begin();
+        event.objectCount = objects.size();
         try {
             // 创建备份目录
             Files.createDirectories(Paths.get(BACKUP_DIR));
@@ -68,19 +81,53 @@ public class GameDataManager {
             gameData.setObjects(objectList);
             
             // 写入JSON文件
-            objectMapper.writeValue(new File(DATA_FILE), gameData);
+            File dataFile = new File(DATA_FILE);
+            objectMapper.writeValue(dataFile, gameData);
+            
+            lastSaveDurationMillis = (System.nanoTime() - start) / 1_000_000;
+            lastSaveBytes = dataFile.length();
+            lastSaveTime = System.currentTimeMillis();
+            saveCount.incrementAndGet();
+            event.bytes = lastSaveBytes;
+            event.success = true;
+            event.commit();
             
             System.out.println("✓ 游戏状态已保存到: " + DATA_FILE);
             System.out.println("✓ 保存了 " + objects.size() + " 个对象");
             return true;
             
         } catch (Exception e) {
+            failedSaveCount.incrementAndGet();
+            event.commit();
             System.err.println("✗ 保存失败: " + e.getMessage());
             e.printStackTrace();
             return false;
         }
     }
     
+    public long getLastSaveDurationMillis() {
+        return lastSaveDurationMillis;
+    }
+    
+    public long getLastSaveBytes() {
+        return lastSaveBytes;
+    }
+    
+    /**
+     * 最近一次成功保存的时间（毫秒时间戳，从未保存时为0）
+     */
+    public long getLastSaveTime() {
+        return lastSaveTime;
+    }
+    
+    public long getSaveCount() {
+        return saveCount.get();
+    }
+    
+    public long getFailedSaveCount() {
+        return failedSaveCount.get();
+    }
+    
     /**
      * 从JSON文件加载游戏状态
      */
@@ -92,7 +139,16 @@ public class GameDataManager {
             }
             
             // 读取JSON文件
-            GameData gameData = objectMapper.readValue(new File(DATA_FILE), GameData.class);
+            JfrEvents.Load event = new JfrEvents.Load();
+            event.begin();
+            File dataFile = new File(DATA_FILE);
+            GameData gameData = objectMapper.readValue(dataFile, GameData.class);
+            event.end();
+            if (event.shouldCommit()) {
+                event.bytes = dataFile.length();
+                event.objectCount = gameData.getObjects() != null ? gameData.getObjects().size() : 0;
+                event.commit();
+            }
             
             // 验证数据
             if (gameData.getObjects() == null) {
@@ -0,0 +1,131 @@
+package storage;
+
+import java.awt.Color;
+import java.awt.Shape;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Arrays;
+
+/**
+ * 回放帧：保存一帧解码后的对象状态（可复用，避免每帧分配）
+ */
+public class ReplayFrame {
+    int frameIndex = -1;
+    int elapsedMillis;
+    int count;
+
+    int[] ids = new int[64];
+    byte[] types = new byte[64];
+    float[] x = new float[64];
+    float[] y = new float[64];
+    float[] dx = new float[64];
+    float[] dy = new float[64];
+    float[] width = new float[64];
+    float[] height = new float[64];
+    int[] rgb = new int[64];
+    byte[] flags = new byte[64];
+
+    int collisionCount;
+    int[] collisionIds = new int[64];
+
+    void ensureCapacity(int n) {
+        if (n > ids.length) {
+            int capacity = Math.max(n, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            types = Arrays.copyOf(types, capacity);
+            x = Arrays.copyOf(x, capacity);
+            y = Arrays.copyOf(y, capacity);
+            dx = Arrays.copyOf(dx, capacity);
+            dy = Arrays.copyOf(dy, capacity);
+            width = Arrays.copyOf(width, capacity);
+            height = Arrays.copyOf(height, capacity);
+            rgb = Arrays.copyOf(rgb, capacity);
+            flags = Arrays.copyOf(flags, capacity);
+        }
+    }
+
+    void ensureCollisionCapacity(int n) {
+        if (n * 2 > collisionIds.length) {
+            collisionIds = Arrays.copyOf(collisionIds, Math.max(n * 2, collisionIds.length * 2));
+        }
+    }
+
+    public int getFrameIndex() {
+        return frameIndex;
+    }
+
+    public int getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public int getObjectCount() {
+        return count;
+    }
+
+    public int getCollisionCount() {
+        return collisionCount;
+    }
+
+    public int getId(int i) {
+        return ids[i];
+    }
+
+    public double getX(int i) {
+        return x[i];
+    }
+
+    public double getY(int i) {
+        return y[i];
+    }
+
+    public double getDx(int i) {
+        return dx[i];
+    }
+
+    public double getDy(int i) {
+        return dy[i];
+    }
+
+    public boolean isPaused(int i) {
+        return (flags[i] & FrameRecorder.FLAG_PAUSED) != 0;
+    }
+
+    public boolean isColliding(int i) {
+        return (flags[i] & FrameRecorder.FLAG_COLLIDING) != 0;
+    }
+
+    /**
+     * 获取第i个对象的显示颜色（碰撞时反色，与实时显示一致）
+     */
+    public Color getColor(int i) {
+        Color color = new Color(rgb[i]);
+        if (isColliding(i)) {
+            return new Color(255 - color.getRed(), 255 - color.getGreen(), 255 - color.getBlue());
+        }
+        return color;
+    }
+
+    /**
+     * 根据对象类型构造第i个对象的形状
+     */
+    public Shape createShape(int i) {
+        switch (types[i]) {
+            case FrameRecorder.TYPE_RECTANGLE:
+                return new Rectangle2D.Double(x[i], y[i], width[i], height[i]);
+            case FrameRecorder.TYPE_TRIANGLE:
+                double size = width[i];
+                double centerX = x[i] + size / 2;
+                double centerY = y[i] + size / 2;
+                Path2D triangle = new Path2D.Double();
+                triangle.moveTo(centerX, centerY - size / 2);
+                triangle.lineTo(centerX + size / 2, centerY + size / 2);
+                triangle.lineTo(centerX - size / 2, centerY + size / 2);
+                triangle.closePath();
+                return triangle;
+            case FrameRecorder.TYPE_BALL:
+            default:
+                return new Ellipse2D.Double(x[i], y[i], width[i], height[i]);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package storage;
+
+import java.util.Date;
+
+/**
+ * 存档的JMX接口（ObjectName: bounce:type=Storage）
+ */
+public interface StorageMXBean {
+    long getLastSaveDurationMillis();
+
+    long getLastSaveBytes();
+
+    Date getLastSaveTime();
+
+    long getSaveCount();
+
+    long getFailedSaveCount();
+}
@@ -0,0 +1,38 @@
+package storage;
+
+import java.util.Date;
+
+/**
+ * 存档的JMX实现，数据来自 GameDataManager 记录的保存统计
+ */
+public class StorageMetrics implements StorageMXBean {
+    public static final String OBJECT_NAME = "bounce:type=Storage";
+
+    private final GameDataManager dataManager = GameDataManager.getInstance();
+
+    @Override
+    public long getLastSaveDurationMillis() {
+        return dataManager.getLastSaveDurationMillis();
+    }
+
+    @Override
+    public long getLastSaveBytes() {
+        return dataManager.getLastSaveBytes();
+    }
+
+    @Override
+    public Date getLastSaveTime() {
+        long time = dataManager.getLastSaveTime();
+        return time > 0 ? new Date(time) : null;
+    }
+
+    @Override
+    public long getSaveCount() {
+        return dataManager.getSaveCount();
+    }
+
+    @Override
+    public long getFailedSaveCount() {
+        return dataManager.getFailedSaveCount();
+    }
+}
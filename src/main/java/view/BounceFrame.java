@@ -6,6 +6,8 @@ import model.GameObject;  // 导入GameObject
 import model.Ball;        // 导入Ball
 import model.Rectangle;   // 导入Rectangle
 import model.Triangle;    // 导入Triangle
+import controller.MotionEngine;
+import monitor.DiagnosticsWindow;
 import monitor.EnhancedFileLogger;
 import monitor.LogViewer;
 
@@ -24,6 +26,12 @@ public class BounceFrame extends JFrame {
     /* 第五次修改内容：添加图形数量标签 */
     private JLabel countLabel;
 
+    /* 录制与回放控件 */
+    private JPanel replayPanel;
+    private JSlider replaySlider;
+    private JButton recordButton;
+    private boolean updatingSlider;
+
     public BounceFrame() {
         setSize(DEFAULT_WIDTH, DEFAULT_HEIGHT);
         setTitle("多形状弹跳动画 - 点击画布生成形状");
@@ -31,9 +39,13 @@ public class BounceFrame extends JFrame {
         comp = new ShapeComponent();
         add(comp, BorderLayout.CENTER);
 
-        // 创建控制面板
-        JPanel controlPanel = createControlPanel();
-        add(controlPanel, BorderLayout.SOUTH);
+        // 创建控制面板和回放控制条
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(createControlPanel(), BorderLayout.CENTER);
+        replayPanel = createReplayPanel();
+        replayPanel.setVisible(false);
+        southPanel.add(replayPanel, BorderLayout.SOUTH);
+        add(southPanel, BorderLayout.SOUTH);
 
         // 创建顶部面板，包含提示标签和图形数量标签
         JPanel topPanel = new JPanel(new BorderLayout());
@@ -60,6 +72,10 @@ public class BounceFrame extends JFrame {
         timer.start();
     }
 
+    public ShapeComponent getShapeComponent() {
+        return comp;
+    }
+
     /**
      * 创建控制面板
      */
@@ -92,6 +108,17 @@ public class BounceFrame extends JFrame {
         shapeGroup.add(triangleButton);
         panel.add(triangleButton);
 
+        // 新图形的运动轨迹（"随机"从原有的三种轨迹中随机选择）
+        JComboBox<String> motionBox = new JComboBox<>();
+        motionBox.addItem("随机");
+        for (String name : MotionEngine.getInstance().getModelNames()) {
+            motionBox.addItem(name);
+        }
+        motionBox.addActionListener(e -> comp.setSelectedMotion(
+                motionBox.getSelectedIndex() == 0 ? null : (String) motionBox.getSelectedItem()));
+        panel.add(new JLabel("轨迹: "));
+        panel.add(motionBox);
+
         // 分隔符
         panel.add(new JSeparator(SwingConstants.VERTICAL));
 
@@ -105,6 +132,37 @@ public class BounceFrame extends JFrame {
         clearButton.addActionListener(e -> comp.clearAll());
         panel.add(clearButton);
 
+        // 录制与回放按钮
+        panel.add(new JSeparator(SwingConstants.VERTICAL));
+        recordButton = new JButton("录制");
+        recordButton.addActionListener(e -> toggleRecording());
+        panel.add(recordButton);
+
+        JButton replayButton = new JButton("回放...");
+        replayButton.addActionListener(e -> chooseReplayFile());
+        panel.add(replayButton);
+
+        // 性能浮层开关
+        JCheckBox overlayBox = new JCheckBox("性能");
+        overlayBox.addActionListener(e -> comp.setProfilerOverlayVisible(overlayBox.isSelected()));
+        panel.add(overlayBox);
+
+        // 对象互相引力开关（右键放置吸引点，Shift+右键放置排斥点）
+        JCheckBox gravityBox = new JCheckBox("引力", comp.isGravityEnabled());
+        gravityBox.setToolTipText("对象之间互相吸引；右键放置吸引点，Shift+右键放置排斥点");
+        gravityBox.addActionListener(e -> comp.setGravityEnabled(gravityBox.isSelected()));
+        panel.add(gravityBox);
+
+        // 日志查看器
+        JButton logButton = new JButton("查看日志");
+        logButton.addActionListener(e -> LogViewer.showViewer());
+        panel.add(logButton);
+
+        // 线程诊断窗口
+        JButton diagnosticsButton = new JButton("诊断");
+        diagnosticsButton.addActionListener(e -> DiagnosticsWindow.showWindow());
+        panel.add(diagnosticsButton);
+
         // 保存按钮（新增）
         panel.add(new JSeparator(SwingConstants.VERTICAL));
         JButton saveButton = new JButton("保存并退出");
@@ -122,6 +180,99 @@ public class BounceFrame extends JFrame {
         return panel;
     }
 
+    /**
+     * 创建回放控制条：跳转滑块、播放速度、单步和退出
+     */
+    private JPanel createReplayPanel() {
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBorder(BorderFactory.createEmptyBorder(0, 5, 5, 5));
+
+        replaySlider = new JSlider(0, 0, 0);
+        replaySlider.addChangeListener(e -> {
+            if (!updatingSlider) {
+                comp.seekReplay(replaySlider.getValue());
+            }
+        });
+        panel.add(replaySlider, BorderLayout.CENTER);
+
+        JPanel buttons = new JPanel();
+        JButton stepBackButton = new JButton("<");
+        stepBackButton.addActionListener(e -> comp.stepReplay(-1));
+        buttons.add(stepBackButton);
+
+        JButton playButton = new JButton("播放/暂停");
+        playButton.addActionListener(e -> comp.toggleReplayPause());
+        buttons.add(playButton);
+
+        JButton stepButton = new JButton(">");
+        stepButton.addActionListener(e -> comp.stepReplay(1));
+        buttons.add(stepButton);
+
+        JComboBox<String> speedBox = new JComboBox<>(new String[]{"0.25x", "0.5x", "1x", "2x", "4x", "8x", "16x", "64x"});
+        speedBox.setSelectedItem("1x");
+        speedBox.addActionListener(e -> {
+            String speed = (String) speedBox.getSelectedItem();
+            comp.setReplaySpeed(Double.parseDouble(speed.substring(0, speed.length() - 1)));
+        });
+        buttons.add(speedBox);
+
+        JButton exitButton = new JButton("退出回放");
+        exitButton.addActionListener(e -> comp.stopReplay());
+        buttons.add(exitButton);
+        panel.add(buttons, BorderLayout.EAST);
+
+        // 回放帧变化时同步滑块，退出回放时隐藏控制条
+        comp.addPropertyChangeListener("replayFrame", e -> {
+            int frame = (Integer) e.getNewValue();
+            replayPanel.setVisible(frame >= 0);
+            if (frame >= 0) {
+                updatingSlider = true;
+                replaySlider.setMaximum(Math.max(0, comp.getReplayFrameCount() - 1));
+                replaySlider.setValue(frame);
+                updatingSlider = false;
+            }
+        });
+        return panel;
+    }
+
+    /**
+     * 开始或停止录制
+     */
+    private void toggleRecording() {
+        if (comp.isRecording()) {
+            comp.stopRecording();
+            recordButton.setText("录制");
+            return;
+        }
+        try {
+            comp.startRecording();
+            if (comp.isRecording()) {
+                recordButton.setText("停止录制");
+            }
+        } catch (java.io.IOException ex) {
+            JOptionPane.showMessageDialog(this, "无法开始录制: " + ex.getMessage(),
+                    "录制失败", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * 选择录制文件并进入回放模式
+     */
+    private void chooseReplayFile() {
+        JFileChooser chooser = new JFileChooser(new java.io.File("recordings"));
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("录制文件 (*.rec)", "rec"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        try {
+            comp.startReplay(chooser.getSelectedFile());
+            recordButton.setText("录制");
+        } catch (java.io.IOException ex) {
+            JOptionPane.showMessageDialog(this, "无法回放: " + ex.getMessage(),
+                    "回放失败", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * 批量生成随机形状
      */
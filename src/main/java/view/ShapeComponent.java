@@ -3,21 +3,37 @@
 package view;
 
 import model.GameObject;
-import model.Ball;
-import model.Rectangle;
-import model.Triangle;
-import controller.GameObjectRunnable;
+import model.CollisionLayers;
+import controller.AsyncCollisionListener;
+import controller.CollisionListener;
 import controller.CollisionManager;
+import controller.ContactBuffer;
+import controller.DynamicAabbTree;
+import controller.ForceField;
+import controller.MotionEngine;
+import controller.PhysicsConfig;
+import controller.ShapeFactory;
+import controller.TimerWheel;
 
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.awt.geom.Point2D;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
+import storage.FrameRecorder;
+import storage.FrameReplayer;
 import storage.GameDataManager;
+import storage.ReplayFrame;
+import monitor.EnhancedFileLogger;
+import monitor.FrameProfiler;
+import monitor.JfrEvents;
+import monitor.SimulationControl;
+import monitor.ThreadMonitor;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import javax.swing.Timer;
@@ -25,7 +41,7 @@ import javax.swing.Timer;
 /**
  * 形状绘制组件
  */
-public class ShapeComponent extends JComponent {
+public class ShapeComponent extends JComponent implements SimulationControl {
     private ArrayList<GameObject> objects = new ArrayList<>();
     private String selectedShapeType = "圆形";
 
@@ -33,8 +49,9 @@ public class ShapeComponent extends JComponent {
     private CollisionManager collisionManager;
     private Timer collisionTimer;
 
-    /* 恢复原有功能：存储图形与线程的映射 */
-    private Map<GameObject, GameObjectRunnable> threadMap = new HashMap<>();
+    /* 运动引擎：按运动模型分组，在每个模拟帧中推进所有对象；selectedMotion 为 null 时新对象随机选择轨迹 */
+    private final MotionEngine motionEngine = MotionEngine.getInstance();
+    private String selectedMotion;
 
     /* 恢复原有功能：鼠标事件相关 */
     private GameObject hoveredObject = null;
@@ -42,23 +59,95 @@ public class ShapeComponent extends JComponent {
     private boolean isDoubleClick = false;
     private GameObject lastClickedObject = null;
     private long lastClickTime = 0;
+
+    /* 鼠标命中和框选使用的包围盒树（每帧更新），以及框选状态 */
+    private final DynamicAabbTree objectTree = new DynamicAabbTree();
+    private final Set<GameObject> selection = new LinkedHashSet<>();
+    private Point dragStart;
+    private java.awt.Rectangle selectionRect;
     /*第7次修改，添加储存*/
     private GameDataManager dataManager;
     private Timer autoSaveTimer;
 
+    /* 模拟帧间隔（毫秒），运动、碰撞检测和录制都以此为一帧（由 -Dphysics.hz 配置，默认20毫秒） */
+    public static final int TICK_INTERVAL = PhysicsConfig.getStepMillis();
+
+    /* 录制与回放 */
+    private FrameRecorder frameRecorder;
+    private CollisionListener recorderListener;
+    private FrameReplayer frameReplayer;
+    private Timer replayTimer;
+    private double replaySpeed = 1.0;
+    private double replayCursor;
+    private boolean replayPaused;
+
+    /* 短暂显示状态（碰撞闪烁）的时间轮，每个模拟帧推进一次；只有正在闪烁的对象持有定时任务 */
+    private static final long COLLISION_DISPLAY_MILLIS = 200;
+    private final TimerWheel effectWheel = new TimerWheel(64);
+    private final Map<GameObject, TimerWheel.Timeout> flashTimeouts = new IdentityHashMap<>();
+
+    /* 帧耗时分析与性能浮层 */
+    private final FrameProfiler profiler = FrameProfiler.getInstance();
+    private final ThreadMonitor threadMonitor = ThreadMonitor.getInstance();
+    private boolean profilerOverlayVisible;
+
+    /* 力场（互相引力和右键放置的吸引点），在碰撞检测之前把加速度叠加到速度上 */
+    private static final double ATTRACTOR_RADIUS = 8;
+    private final ForceField forceField = ForceField.getInstance();
+
     public ShapeComponent() {
         setBackground(Color.WHITE);
         setOpaque(true);
 
         /* 第五次修改内容：初始化碰撞管理器 */
         collisionManager = CollisionManager.getInstance();
+        registerCollisionListeners();
 
         /* 第五次修改内容：初始化碰撞检测定时器 */
-        collisionTimer = new Timer(20, new ActionListener() {
+        collisionTimer = new Timer(TICK_INTERVAL, new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                // 每20毫秒检测一次碰撞
+                // 每个模拟帧检测一次碰撞
+                long tickStart = System.nanoTime();
+                long tickCpuStart = threadMonitor.getCurrentThreadCpuNanos();
+                JfrEvents.SimulationTick tickEvent = new JfrEvents.SimulationTick();
+                tickEvent.begin();
+                long moveStart = System.nanoTime();
+                boolean moved = motionEngine.step(getBounds(), PhysicsConfig.getStepScale()) > 0;
+                if (moved) {
+                    profiler.record(FrameProfiler.Phase.MOVE, moveStart);
+                }
+                long forceStart = System.nanoTime();
+                boolean forced = forceField.apply(objects);
+                if (forced) {
+                    profiler.record(FrameProfiler.Phase.FORCES, forceStart);
+                }
                 collisionManager.detectCollisions(objects);
+                effectWheel.advance();
+                objectTree.refit();
+                if (frameRecorder != null) {
+                    long start = System.nanoTime();
+                    frameRecorder.endFrame(objects);
+                    profiler.record(FrameProfiler.Phase.SNAPSHOT, start);
+                }
+                profiler.tickCompleted(objects.size(), tickStart);
+                if (tickCpuStart >= 0) {
+                    // 模拟帧在EDT上执行，把帧内CPU时间计入模拟分组
+                    threadMonitor.addSimulationCpu(threadMonitor.getCurrentThreadCpuNanos() - tickCpuStart);
+                }
+                tickEvent.end();
+                if (tickEvent.shouldCommit()) {
+                    tickEvent.objectCount = objects.size();
+                    tickEvent.move = moved ? profiler.getLastPhaseNanos(FrameProfiler.Phase.MOVE) : 0;
+                    tickEvent.forces = forced ? profiler.getLastPhaseNanos(FrameProfiler.Phase.FORCES) : 0;
+                    tickEvent.broadphase = profiler.getLastPhaseNanos(FrameProfiler.Phase.BROADPHASE);
+                    tickEvent.narrowphase = profiler.getLastPhaseNanos(FrameProfiler.Phase.NARROWPHASE);
+                    tickEvent.resolve = profiler.getLastPhaseNanos(FrameProfiler.Phase.RESOLVE);
+                    tickEvent.snapshot = frameRecorder != null
+                            ? profiler.getLastPhaseNanos(FrameProfiler.Phase.SNAPSHOT) : 0;
+                    tickEvent.commit();
+                }
+                EnhancedFileLogger.getInstance().logFrameUpdate();
                 repaint(); // 触发重绘以显示反色效果
             }
         });
@@ -85,6 +174,19 @@ public class ShapeComponent extends JComponent {
             public void mouseExited(MouseEvent e) {
                 clearHoveredObject();
             }
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                // 在空白处按下左键开始框选
+                if (!isReplaying() && SwingUtilities.isLeftMouseButton(e) && findObjectAt(e.getPoint()) == null) {
+                    dragStart = e.getPoint();
+                }
+            }
+
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                finishSelection();
+            }
         });
 
         addMouseMotionListener(new MouseMotionAdapter() {
@@ -92,8 +194,15 @@ public class ShapeComponent extends JComponent {
             public void mouseMoved(MouseEvent e) {
                 handleMouseMove(e);
             }
+
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                updateSelectionRect(e.getPoint());
+            }
         });
 
+        setupSelectionKeys();
+
         // 第7次修改，添加数据管理器
         dataManager = GameDataManager.getInstance();
 
@@ -107,13 +216,58 @@ public class ShapeComponent extends JComponent {
         setupAutoSave();
     }
 
+    /**
+     * 注册碰撞事件的消费者：反色显示和帧统计在模拟帧线程中处理，日志记录在独立线程中处理
+     */
+    private void registerCollisionListeners() {
+        collisionManager.addCollisionListener(contacts -> {
+            for (int i = 0; i < contacts.size(); i++) {
+                if (contacts.getType(i) == ContactBuffer.ENTER) {
+                    flashCollision(contacts.getObject1(i));
+                    flashCollision(contacts.getObject2(i));
+                }
+            }
+        });
+        collisionManager.addCollisionListener(contacts -> profiler.addCollisions(contacts.getEnterCount()));
+        collisionManager.addCollisionListener(new AsyncCollisionListener("Log-Collision-Thread", contacts -> {
+            EnhancedFileLogger logger = EnhancedFileLogger.getInstance();
+            for (int i = 0; i < contacts.size(); i++) {
+                if (contacts.getType(i) == ContactBuffer.ENTER) {
+                    logger.logCollision(contacts.getObject1(i).getClass().getSimpleName(),
+                            contacts.getObject2(i).getClass().getSimpleName());
+                }
+            }
+        }));
+    }
+
+    /**
+     * 碰撞反色显示：重新碰撞时重新计时，到期后由时间轮恢复原色
+     */
+    private void flashCollision(GameObject obj) {
+        obj.setColliding(true);
+        effectWheel.cancel(flashTimeouts.get(obj));
+        int ticks = (int) ((COLLISION_DISPLAY_MILLIS + TICK_INTERVAL - 1) / TICK_INTERVAL);
+        flashTimeouts.put(obj, effectWheel.schedule(ticks, () -> {
+            flashTimeouts.remove(obj);
+            obj.setColliding(false);
+        }));
+    }
+
     /* 恢复原有功能：处理鼠标点击 */
     private void handleMouseClick(MouseEvent e) {
+        if (isReplaying()) {
+            return;
+        }
+        if (SwingUtilities.isRightMouseButton(e)) {
+            toggleAttractor(e);
+            return;
+        }
         Point2D point = e.getPoint();
         GameObject clickedObject = findObjectAt(point);
 
         if (clickedObject == null) {
-            // 点击空白处，创建新形状
+            // 点击空白处，取消框选并创建新形状
+            clearSelection();
             createShapeAtClick(e.getX(), e.getY());
             return;
         }
@@ -140,8 +294,21 @@ public class ShapeComponent extends JComponent {
         doubleClickTimer.restart();
     }
 
+    /**
+     * 右键放置吸引点（按住Shift放置排斥点），右键点击已有的吸引点将其移除
+     */
+    private void toggleAttractor(MouseEvent e) {
+        if (!forceField.removeAttractorNear(e.getX(), e.getY(), ATTRACTOR_RADIUS * 1.5)) {
+            forceField.addAttractor(e.getX(), e.getY(), e.isShiftDown());
+        }
+        repaint();
+    }
+
     /* 恢复原有功能：处理鼠标移动（悬停） */
     private void handleMouseMove(MouseEvent e) {
+        if (isReplaying()) {
+            return;
+        }
         Point2D point = e.getPoint();
         GameObject objectAtPoint = findObjectAt(point);
 
@@ -167,15 +334,101 @@ public class ShapeComponent extends JComponent {
         }
     }
 
-    /* 恢复原有功能：查找指定点的图形 */
+    /* 恢复原有功能：查找指定点的图形（通过包围盒树查找最上层的图形） */
     private GameObject findObjectAt(Point2D point) {
-        for (int i = objects.size() - 1; i >= 0; i--) {
-            GameObject obj = objects.get(i);
-            if (obj.contains(point)) {
-                return obj;
+        return objectTree.findTopmost(point.getX(), point.getY());
+    }
+
+    /* ===================== 框选 ===================== */
+
+    private void updateSelectionRect(Point point) {
+        if (dragStart == null) {
+            return;
+        }
+        java.awt.Rectangle rect = new java.awt.Rectangle(dragStart);
+        rect.add(point);
+        selectionRect = rect;
+        repaint();
+    }
+
+    /**
+     * 结束框选：包围盒树给出候选对象，再按形状与选框是否相交精确筛选
+     */
+    private void finishSelection() {
+        java.awt.Rectangle rect = selectionRect;
+        dragStart = null;
+        selectionRect = null;
+        if (rect == null || rect.width < 3 || rect.height < 3) {
+            return;
+        }
+        java.util.List<GameObject> candidates = new ArrayList<>();
+        objectTree.query(rect.getMinX(), rect.getMinY(), rect.getMaxX(), rect.getMaxY(), candidates);
+        selection.clear();
+        for (GameObject obj : candidates) {
+            if (obj.getShape().intersects(rect)) {
+                selection.add(obj);
             }
         }
-        return null;
+        repaint();
+    }
+
+    private void clearSelection() {
+        if (!selection.isEmpty()) {
+            selection.clear();
+            repaint();
+        }
+    }
+
+    /**
+     * 框选后的快捷键：Delete 删除选中图形，空格切换暂停，D 切换为不参与碰撞的装饰图形，Esc 取消选择
+     */
+    private void setupSelectionKeys() {
+        InputMap inputMap = getInputMap(WHEN_IN_FOCUSED_WINDOW);
+        ActionMap actionMap = getActionMap();
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_DELETE, 0), "deleteSelection");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_SPACE, 0), "pauseSelection");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_D, 0), "toggleDecoration");
+        inputMap.put(KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), "clearSelection");
+        actionMap.put("deleteSelection", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                for (GameObject obj : new ArrayList<>(selection)) {
+                    removeObject(obj);
+                }
+            }
+        });
+        actionMap.put("pauseSelection", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                for (GameObject obj : selection) {
+                    obj.togglePause();
+                }
+                repaint();
+            }
+        });
+        actionMap.put("toggleDecoration", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                for (GameObject obj : selection) {
+                    if (obj.getCollisionLayer() == CollisionLayers.DECORATION) {
+                        ShapeFactory.applyCollisionFilter(obj);
+                    } else {
+                        obj.setCollisionFilter(CollisionLayers.DECORATION, CollisionLayers.NONE);
+                    }
+                }
+                repaint();
+            }
+        });
+        actionMap.put("clearSelection", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                clearSelection();
+            }
+        });
+    }
+
+    public int getSelectionCount() {
+        return selection.size();
     }
 
     /* 恢复原有功能：创建新形状 */
@@ -189,54 +442,35 @@ public class ShapeComponent extends JComponent {
             height = 300;
         }
 
-        GameObject obj = null;
-
-        switch (selectedShapeType) {
-            case "圆形":
-                obj = new Ball(clickX, clickY, width, height);
-                break;
-            case "矩形":
-                obj = new Rectangle(clickX, clickY, width, height);
-                break;
-            case "三角形":
-                obj = new Triangle(clickX, clickY, width, height);
-                break;
-        }
-
-        if (obj != null) {
-            addObject(obj);
-        }
+        addObject(ShapeFactory.createShape(selectedShapeType, clickX, clickY, width, height));
     }
 
     public void setSelectedShapeType(String shapeType) {
         this.selectedShapeType = shapeType;
     }
 
+    /**
+     * 选择新对象的运动轨迹（null 表示随机）
+     */
+    public void setSelectedMotion(String motion) {
+        this.selectedMotion = motion;
+    }
+
     public void addObject(GameObject obj) {
         objects.add(obj);
+        objectTree.insert(obj);
+        motionEngine.add(obj, selectedMotion, getBounds());
         repaint();
-        startAnimation(obj);
-    }
-
-    /* 恢复原有功能：开始动画 */
-    private void startAnimation(GameObject obj) {
-        GameObjectRunnable runnable = new GameObjectRunnable(obj, this);
-        Thread thread = new Thread(runnable);
-        threadMap.put(obj, runnable);
-        thread.start();
     }
 
     /* 恢复原有功能：移除对象 */
     private void removeObject(GameObject obj) {
-        // 停止对应的线程
-        GameObjectRunnable runnable = threadMap.get(obj);
-        if (runnable != null) {
-            runnable.stop();
-            threadMap.remove(obj);
-        }
-
-        // 从列表中移除
+        // 从运动引擎和列表中移除
+        motionEngine.remove(obj);
         objects.remove(obj);
+        objectTree.remove(obj);
+        collisionManager.removeObject(obj);
+        selection.remove(obj);
 
         // 清除悬停状态
         if (hoveredObject == obj) {
@@ -244,6 +478,7 @@ public class ShapeComponent extends JComponent {
         }
 
         // 清除碰撞状态
+        effectWheel.cancel(flashTimeouts.remove(obj));
         obj.setColliding(false);
 
         repaint();
@@ -252,37 +487,112 @@ public class ShapeComponent extends JComponent {
     public void clearAll() {
         /* 第五次修改内容：清除所有碰撞状态 */
         collisionManager.clearAllCollisions(objects);
+        effectWheel.clear();
+        flashTimeouts.clear();
 
-        /* 恢复原有功能：停止所有线程 */
-        for (GameObjectRunnable runnable : threadMap.values()) {
-            runnable.stop();
-        }
-        threadMap.clear();
-
+        motionEngine.clear();
         objects.clear();
+        objectTree.clear();
+        selection.clear();
+        forceField.clearAttractors();
         hoveredObject = null;
         repaint();
     }
 
     /* 第五次修改内容：添加获取对象数量的方法 */
+    @Override
     public int getObjectCount() {
         return objects.size();
     }
 
+    @Override
+    public int getSimulationThreadCount() {
+        return motionEngine.getWorkerCount();
+    }
+
+    @Override
+    public boolean isSimulationPaused() {
+        return motionEngine.isPaused();
+    }
+
+    /**
+     * 暂停或恢复模拟（可在任意线程调用，定时器在EDT上切换）
+     */
+    @Override
+    public void setSimulationPaused(boolean paused) {
+        motionEngine.setPaused(paused);
+        SwingUtilities.invokeLater(() -> {
+            if (paused) {
+                collisionTimer.stop();
+            } else if (!isReplaying()) {
+                collisionTimer.start();
+            }
+            repaint();
+        });
+    }
+
+    /**
+     * 立即保存（可在任意线程调用，对象列表在EDT上复制）
+     */
+    @Override
+    public boolean saveNow() {
+        java.util.List<GameObject> snapshot;
+        if (SwingUtilities.isEventDispatchThread()) {
+            snapshot = new ArrayList<>(objects);
+        } else {
+            java.util.List<java.util.List<GameObject>> holder = new ArrayList<>();
+            try {
+                SwingUtilities.invokeAndWait(() -> holder.add(new ArrayList<>(objects)));
+            } catch (Exception e) {
+                EnhancedFileLogger.getInstance().logError("复制对象列表失败", e);
+                return false;
+            }
+            snapshot = holder.get(0);
+        }
+        return dataManager.saveGameState(snapshot);
+    }
+
     @Override
     public void paintComponent(Graphics g) {
+        long paintStart = System.nanoTime();
+        JfrEvents.RenderFrame renderEvent = new JfrEvents.RenderFrame();
+        renderEvent.begin();
         super.paintComponent(g);
         Graphics2D g2 = (Graphics2D) g;
+        paintScene(g2);
+        int dropped = profiler.paintCompleted(paintStart);
+        renderEvent.end();
+        if (renderEvent.shouldCommit()) {
+            java.awt.Rectangle clip = g.getClipBounds();
+            renderEvent.dirtyArea = clip != null ? (long) clip.width * clip.height : (long) getWidth() * getHeight();
+            renderEvent.droppedFrames = dropped;
+            renderEvent.objectCount = objects.size();
+            renderEvent.commit();
+        }
+        if (profilerOverlayVisible) {
+            paintProfilerOverlay(g2);
+        }
+    }
 
+    private void paintScene(Graphics2D g2) {
         g2.setColor(getBackground());
         g2.fillRect(0, 0, getWidth(), getHeight());
 
         g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
                 RenderingHints.VALUE_ANTIALIAS_ON);
 
+        if (isReplaying()) {
+            paintReplayFrame(g2);
+            return;
+        }
+
         /* 第五次修改内容：绘制所有对象 */
         for (GameObject obj : objects) {
             Color objColor = obj.getColor();
+            if (obj.getCollisionLayer() == CollisionLayers.DECORATION) {
+                // 装饰图形半透明显示
+                objColor = new Color(objColor.getRed(), objColor.getGreen(), objColor.getBlue(), 110);
+            }
             g2.setColor(objColor);
             g2.fill(obj.getShape());
 
@@ -302,6 +612,293 @@ public class ShapeComponent extends JComponent {
             }
             g2.draw(obj.getShape());
         }
+
+        paintAttractors(g2);
+
+        // 框选的图形和选框
+        if (!selection.isEmpty() || selectionRect != null) {
+            g2.setColor(new Color(30, 120, 255));
+            g2.setStroke(new BasicStroke(2));
+            for (GameObject obj : selection) {
+                g2.draw(obj.getShape().getBounds2D());
+            }
+            if (selectionRect != null) {
+                g2.setColor(new Color(30, 120, 255, 40));
+                g2.fill(selectionRect);
+                g2.setColor(new Color(30, 120, 255));
+                g2.setStroke(new BasicStroke(1, BasicStroke.CAP_BUTT, BasicStroke.JOIN_MITER,
+                        10, new float[]{4, 4}, 0));
+                g2.draw(selectionRect);
+            }
+        }
+    }
+
+    /**
+     * 绘制吸引点（紫色）和排斥点（橙色）
+     */
+    private void paintAttractors(Graphics2D g2) {
+        double r = ATTRACTOR_RADIUS;
+        g2.setStroke(new BasicStroke(2));
+        for (ForceField.Attractor point : forceField.getAttractors()) {
+            g2.setColor(point.getStrength() >= 0 ? new Color(140, 60, 200) : new Color(230, 120, 20));
+            double x = point.getX();
+            double y = point.getY();
+            g2.draw(new java.awt.geom.Ellipse2D.Double(x - r, y - r, 2 * r, 2 * r));
+            g2.draw(new java.awt.geom.Line2D.Double(x - r / 2, y, x + r / 2, y));
+            if (point.getStrength() >= 0) {
+                g2.draw(new java.awt.geom.Line2D.Double(x, y - r / 2, x, y + r / 2));
+            }
+        }
+    }
+
+    /**
+     * 绘制性能浮层：帧率、对象数、碰撞速率以及各阶段的 p50/p99/最大耗时（上一秒）
+     */
+    private void paintProfilerOverlay(Graphics2D g2) {
+        String[] profile = profiler.describe();
+        String[] filtered = collisionManager.describeFilteredPairs();
+        String[] lines = java.util.Arrays.copyOf(profile, profile.length + filtered.length);
+        System.arraycopy(filtered, 0, lines, profile.length, filtered.length);
+        g2.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        FontMetrics fm = g2.getFontMetrics();
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, fm.stringWidth(line));
+        }
+        int lineHeight = fm.getHeight();
+        int x = getWidth() - width - 18;
+        int y = 8;
+        g2.setColor(new Color(0, 0, 0, 160));
+        g2.fillRoundRect(x - 6, y, width + 12, lineHeight * lines.length + 8, 8, 8);
+        g2.setColor(Color.WHITE);
+        for (int i = 0; i < lines.length; i++) {
+            g2.drawString(lines[i], x, y + 4 + fm.getAscent() + i * lineHeight);
+        }
+    }
+
+    public void setProfilerOverlayVisible(boolean visible) {
+        this.profilerOverlayVisible = visible;
+        repaint();
+    }
+
+    public boolean isProfilerOverlayVisible() {
+        return profilerOverlayVisible;
+    }
+
+    /**
+     * 开启或关闭对象之间的互相引力（吸引点不受此开关影响）
+     */
+    public void setGravityEnabled(boolean enabled) {
+        forceField.setGravityEnabled(enabled);
+    }
+
+    public boolean isGravityEnabled() {
+        return forceField.isGravityEnabled();
+    }
+
+    /**
+     * 绘制当前回放帧
+     */
+    private void paintReplayFrame(Graphics2D g2) {
+        ReplayFrame frame = frameReplayer.getFrame();
+        for (int i = 0; i < frame.getObjectCount(); i++) {
+            Shape shape = frame.createShape(i);
+            Color objColor = frame.getColor(i);
+            g2.setColor(objColor);
+            g2.fill(shape);
+
+            if (frame.isPaused(i)) {
+                float[] dashPattern = {5, 5};
+                g2.setStroke(new BasicStroke(2, BasicStroke.CAP_BUTT,
+                        BasicStroke.JOIN_MITER, 10, dashPattern, 0));
+                g2.setColor(Color.BLACK);
+            } else if (frame.isColliding(i)) {
+                g2.setColor(objColor.darker().darker());
+                g2.setStroke(new BasicStroke(3));
+            } else {
+                g2.setColor(objColor.darker());
+                g2.setStroke(new BasicStroke(1));
+            }
+            g2.draw(shape);
+        }
+
+        g2.setColor(Color.DARK_GRAY);
+        g2.setFont(new Font("微软雅黑", Font.PLAIN, 12));
+        g2.drawString(String.format("回放 %d/%d | %.2fs | %sx%s",
+                        frame.getFrameIndex() + 1, frameReplayer.getFrameCount(),
+                        frame.getElapsedMillis() / 1000.0, formatSpeed(replaySpeed),
+                        replayPaused ? " | 已暂停" : ""),
+                10, 20);
+    }
+
+    private static String formatSpeed(double speed) {
+        return speed == Math.floor(speed) ? String.valueOf((int) speed) : String.valueOf(speed);
+    }
+
+    /* ===================== 录制与回放 ===================== */
+
+    /**
+     * 开始录制模拟帧
+     */
+    public void startRecording() throws java.io.IOException {
+        if (frameRecorder != null || isReplaying()) {
+            return;
+        }
+        frameRecorder = FrameRecorder.start(TICK_INTERVAL);
+        FrameRecorder recorder = frameRecorder;
+        recorderListener = contacts -> {
+            for (int i = 0; i < contacts.size(); i++) {
+                if (contacts.getType(i) == ContactBuffer.ENTER) {
+                    recorder.recordCollision(contacts.getId1(i), contacts.getId2(i));
+                }
+            }
+        };
+        collisionManager.addCollisionListener(recorderListener);
+        EnhancedFileLogger.getInstance().log("[录制] 开始录制: " + frameRecorder.getFile().getName());
+    }
+
+    /**
+     * 停止录制
+     */
+    public void stopRecording() {
+        if (frameRecorder == null) {
+            return;
+        }
+        collisionManager.removeCollisionListener(recorderListener);
+        recorderListener = null;
+        frameRecorder.stop();
+        EnhancedFileLogger.getInstance().log(String.format(
+                "[录制] 已停止: %s | %d 个文件 | %d 帧 | 平均编码 %.1fμs/帧（占帧间隔 %.2f%%）",
+                frameRecorder.getFile().getName(), frameRecorder.getFileCount(), frameRecorder.getFrameCount(),
+                frameRecorder.getAverageEncodeMicros(), frameRecorder.getOverheadPercent()));
+        frameRecorder = null;
+    }
+
+    public boolean isRecording() {
+        return frameRecorder != null;
+    }
+
+    /**
+     * 进入回放模式：暂停实时碰撞检测，由录制文件驱动画面
+     */
+    public void startReplay(java.io.File file) throws java.io.IOException {
+        stopRecording();
+        stopReplay();
+
+        FrameReplayer replayer = FrameReplayer.open(file);
+        if (!replayer.seek(0)) {
+            replayer.close();
+            throw new java.io.IOException("录制文件中没有可回放的帧");
+        }
+        frameReplayer = replayer;
+        replayCursor = 0;
+        replayPaused = false;
+        collisionTimer.stop();
+        clearHoveredObject();
+
+        replayTimer = new Timer(replayer.getTickIntervalMillis(), e -> advanceReplay());
+        replayTimer.start();
+        firePropertyChange("replayFrame", -1, 0);
+        repaint();
+    }
+
+    /**
+     * 按播放速度推进回放；速度大于1时每次推进多帧，可快于实时播放
+     */
+    private void advanceReplay() {
+        if (replayPaused) {
+            return;
+        }
+        int last = frameReplayer.getFrameCount() - 1;
+        replayCursor = Math.min(replayCursor + replaySpeed, last);
+        seekReplayInternal((int) replayCursor);
+        if (frameReplayer.getCurrentFrameIndex() >= last) {
+            replayPaused = true;
+        }
+    }
+
+    private void seekReplayInternal(int index) {
+        int old = frameReplayer.getCurrentFrameIndex();
+        frameReplayer.seek(index);
+        int current = frameReplayer.getCurrentFrameIndex();
+        if (old != current) {
+            firePropertyChange("replayFrame", old, current);
+            repaint();
+        }
+    }
+
+    /**
+     * 跳转到指定帧
+     */
+    public void seekReplay(int index) {
+        if (isReplaying()) {
+            seekReplayInternal(index);
+            replayCursor = frameReplayer.getCurrentFrameIndex();
+        }
+    }
+
+    /**
+     * 单步前进或后退（自动暂停播放）
+     */
+    public void stepReplay(int delta) {
+        if (isReplaying()) {
+            replayPaused = true;
+            seekReplay(frameReplayer.getCurrentFrameIndex() + delta);
+            repaint();
+        }
+    }
+
+    public void setReplaySpeed(double speed) {
+        this.replaySpeed = speed;
+        repaint();
+    }
+
+    public void toggleReplayPause() {
+        if (isReplaying()) {
+            if (replayPaused && frameReplayer.getCurrentFrameIndex() >= frameReplayer.getFrameCount() - 1) {
+                seekReplay(0);
+            }
+            replayPaused = !replayPaused;
+            repaint();
+        }
+    }
+
+    /**
+     * 退出回放模式，恢复实时模拟
+     */
+    public void stopReplay() {
+        if (frameReplayer == null) {
+            return;
+        }
+        replayTimer.stop();
+        replayTimer = null;
+        try {
+            frameReplayer.close();
+        } catch (java.io.IOException e) {
+            System.err.println("✗ 关闭回放文件失败: " + e.getMessage());
+        }
+        frameReplayer = null;
+        if (!isSimulationPaused()) {
+            collisionTimer.start();
+        }
+        firePropertyChange("replayFrame", 0, -1);
+        repaint();
+    }
+
+    public boolean isReplaying() {
+        return frameReplayer != null;
+    }
+
+    public boolean isReplayPaused() {
+        return replayPaused;
+    }
+
+    public int getReplayFrameCount() {
+        return frameReplayer != null ? frameReplayer.getFrameCount() : 0;
+    }
+
+    public int getReplayFrameIndex() {
+        return frameReplayer != null ? frameReplayer.getCurrentFrameIndex() : -1;
     }
 
     /**
@@ -325,23 +922,21 @@ public class ShapeComponent extends JComponent {
         try {
             java.util.List<GameObject> savedObjects = dataManager.loadGameState();
             if (!((java.util.List<?>) savedObjects).isEmpty()) {
-                // 先暂停所有现有线程
-                for (GameObjectRunnable runnable : threadMap.values()) {
-                    runnable.stop();
-                }
-                threadMap.clear();
-
                 // 清空当前对象列表
+                motionEngine.clear();
                 objects.clear();
+                objectTree.clear();
 
                 // 添加保存的对象
                 for (GameObject obj : savedObjects) {
+                    ShapeFactory.applyCollisionFilter(obj);
+                    if (obj.isColliding()) {
+                        flashCollision(obj);
+                    }
                     objects.add(obj);
-                    // 重新启动动画线程
-                    GameObjectRunnable runnable = new GameObjectRunnable(obj, this);
-                    Thread thread = new Thread(runnable);
-                    threadMap.put(obj, runnable);
-                    thread.start();
+                    objectTree.insert(obj);
+                    // 重新加入运动引擎（轨迹随机选择）
+                    motionEngine.add(obj, null, getBounds());
                 }
 
                 System.out.println("✓ 已加载上次保存的游戏状态，共 " + savedObjects.size() + " 个对象");